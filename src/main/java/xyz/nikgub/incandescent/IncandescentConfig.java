@@ -42,6 +42,18 @@ public class IncandescentConfig
         .comment("Set true if you want to allow to sync entity NBTs via SyncEntityNBTEvent on the server")
         .define("allow_forced_entity_nbt_sync", true);
 
+    public static final ForgeConfigSpec.ConfigValue<Integer> SERVER_NETWORK_BYTES_PER_TICK = SERVER_BUILDER
+        .comment("Defines how many bytes of queued packets can be sent to a single player per tick by each mod, 0 for unlimited")
+        .defineInRange("network_bytes_per_tick", 0, 0, Integer.MAX_VALUE);
+
+    public static final ForgeConfigSpec.ConfigValue<Integer> SERVER_NETWORK_STREAM_BYTES_PER_TICK = SERVER_BUILDER
+        .comment("Defines how many bytes of streamed packets can be sent to a single player per tick by each mod, 0 for unlimited")
+        .defineInRange("network_stream_bytes_per_tick", 65536, 0, Integer.MAX_VALUE);
+
+    public static final ForgeConfigSpec.ConfigValue<Integer> COMMON_NETWORK_HANDLER_MICROS_PER_TICK = COMMON_BUILDER
+        .comment("Defines how many microseconds per tick can be spent handling queued packets, 0 for unlimited")
+        .defineInRange("network_handler_micros_per_tick", 10000, 0, Integer.MAX_VALUE);
+
     static final ForgeConfigSpec COMMON_SPEC = COMMON_BUILDER.build();
     static final ForgeConfigSpec SERVER_SPEC = SERVER_BUILDER.build();
     static final ForgeConfigSpec CLIENT_SPEC = CLIENT_BUILDER.build();
@@ -52,6 +64,12 @@ public class IncandescentConfig
 
     public static boolean server_allow_forced_entity_nbt_sync;
 
+    public static int common_network_handler_micros_per_tick;
+
+    public static int server_network_bytes_per_tick;
+
+    public static int server_network_stream_bytes_per_tick;
+
     @SubscribeEvent
     static void onLoad (final ModConfigEvent event)
     {
@@ -64,10 +82,13 @@ public class IncandescentConfig
             case SERVER ->
             {
                 server_allow_forced_entity_nbt_sync = SERVER_ALLOW_FORCED_ENTITY_NBT_SYNC.get();
+                server_network_bytes_per_tick = SERVER_NETWORK_BYTES_PER_TICK.get();
+                server_network_stream_bytes_per_tick = SERVER_NETWORK_STREAM_BYTES_PER_TICK.get();
             }
             case COMMON ->
             {
                 common_allow_forced_entity_nbt_sync = COMMON_ALLOW_FORCED_ENTITY_NBT_SYNC.get();
+                common_network_handler_micros_per_tick = COMMON_NETWORK_HANDLER_MICROS_PER_TICK.get();
             }
         }
     }
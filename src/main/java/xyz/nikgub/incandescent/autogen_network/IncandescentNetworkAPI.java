@@ -19,21 +19,47 @@
 package xyz.nikgub.incandescent.autogen_network;
 
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
-import net.minecraftforge.network.NetworkDirection;
-import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.forgespi.language.IModFileInfo;
+import net.minecraftforge.forgespi.language.ModFileScanData;
+import net.minecraftforge.network.NetworkEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import xyz.nikgub.incandescent.Incandescent;
+import xyz.nikgub.incandescent.IncandescentConfig;
+import xyz.nikgub.incandescent.autogen_network.core.EntityReplication;
+import xyz.nikgub.incandescent.autogen_network.core.InboundQueue;
 import xyz.nikgub.incandescent.autogen_network.core.IncandescentNetworkCore;
+import xyz.nikgub.incandescent.autogen_network.core.PacketIOMapping;
+import xyz.nikgub.incandescent.autogen_network.core.PacketSender;
 import xyz.nikgub.incandescent.autogen_network.exception.FaultyPacketLoadException;
 import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketDescriptor;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Class responsible for networking API
@@ -54,10 +80,50 @@ public class IncandescentNetworkAPI
      */
     private static final Map<String, IncandescentNetworkCore> CORES = new HashMap<>();
 
+    /**
+     * {@link PacketSender}s of packet classes, resolved on the first send of each class.
+     * Classes that are not annotated or not signed yet are not cached, and fail with a {@link MalformedPacketException}.
+     */
+    private static final ClassValue<PacketSender<?>> SENDERS = new ClassValue<>()
+    {
+        @Override
+        protected PacketSender<?> computeValue (Class<?> type)
+        {
+            final IncandescentPacket incandescentPacket = type.getAnnotation(IncandescentPacket.class);
+            if (incandescentPacket == null)
+            {
+                throw new MalformedPacketException("Packet " + type.getName() + " is not properly annotated");
+            }
+            final IncandescentNetworkCore core = CORES.get(incandescentPacket.value());
+            if (core == null)
+            {
+                throw new MalformedPacketException("Packet " + type.getName() + " has no network core registered for mod " + incandescentPacket.value());
+            }
+            return core.getSender(type);
+        }
+    };
+
+    /**
+     * Codec registrations of mods, applied to their {@link IncandescentNetworkCore}s before the packets are signed
+     */
+    private static final Map<String, List<Consumer<IncandescentNetworkCore>>> CODEC_REGISTRATIONS = new HashMap<>();
+
+    /**
+     * Replication of {@link Replicated} entity fields, signed to the core of this library once the cores are registered
+     */
+    private static @Nullable EntityReplication REPLICATION;
+
+    /**
+     * Location of the packet index generated by the Incandescent annotation processor.
+     * Each line of the index is {@code <mod id> <packet class> [<descriptor class>]}.
+     */
+    public static final String PACKET_INDEX = "META-INF/incandescent/packets.index";
+
     /**
      * Subscriber that collects and signs packets to {@link IncandescentNetworkCore}.
-     * It is powered by Java's Reflection, and may or may not cause performance issues on
-     * the startup.
+     * Mod files containing a {@link #PACKET_INDEX} are loaded from it directly, and packets with
+     * a pregenerated {@link PacketDescriptor} are signed without reflecting over their classes.
+     * Other packets are powered by Java's Reflection, and may or may not cause performance issues on the startup.
      *
      * @param event FML setup event, running before everything else
      */
@@ -65,109 +131,306 @@ public class IncandescentNetworkAPI
     public static void registerCores (final FMLCommonSetupEvent event)
     {
         final Map<String, Set<@NotNull Class<?>>> loadPacketInfo = new HashMap<>();
-        ModList.get().getAllScanData().forEach(modFileScanData ->
+        final Map<Class<?>, PacketDescriptor<?>> descriptors = new HashMap<>();
+        for (IModFileInfo modFileInfo : ModList.get().getModFiles())
         {
-            for (var annotationData : modFileScanData.getAnnotations())
+            final Path index = modFileInfo.getFile().findResource(PACKET_INDEX);
+            if (Files.exists(index))
             {
-                final String id = annotationData.annotationType().getClassName();
-                if (!id.equals(IncandescentPacket.class.getName()))
-                {
-                    continue;
-                }
-                try
-                {
-                    Class<?> clazz = Class.forName(annotationData.clazz().getClassName());
-                    IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
-                    if (packet == null)
-                    {
-                        throw new FaultyPacketLoadException(String.format("Packet %s is not a packet", clazz.getName()));
-                    }
-                    loadPacketInfo.putIfAbsent(packet.value(), new HashSet<>());
-                    loadPacketInfo.get(packet.value()).add(clazz);
-                } catch (ClassNotFoundException e)
-                {
-                    throw new FaultyPacketLoadException(String.format("Class %s failed to load", annotationData.clazz().getClassName()), e);
-                }
+                loadPacketIndex(index, loadPacketInfo, descriptors);
+                continue;
             }
-        });
+            scanPackets(modFileInfo.getFile().getScanResult(), loadPacketInfo);
+        }
         for (var entry : loadPacketInfo.entrySet())
         {
             IncandescentNetworkCore core = IncandescentNetworkCore.withCacheSize(entry.getKey(), entry.getValue().size());
+            CODEC_REGISTRATIONS.getOrDefault(entry.getKey(), List.of()).forEach(registration -> registration.accept(core));
             for (var clazz : entry.getValue())
             {
-                core.sign(clazz);
+                final PacketDescriptor<?> descriptor = descriptors.get(clazz);
+                if (descriptor != null)
+                {
+                    core.sign(descriptor);
+                } else
+                {
+                    core.sign(clazz);
+                }
                 Incandescent.LOGGER.info("Signed packet {} to mod {}", clazz.getName(), entry.getKey());
             }
             CORES.put(entry.getKey(), core);
         }
+        final IncandescentNetworkCore libraryCore = CORES.get(Incandescent.MOD_ID);
+        if (libraryCore != null)
+        {
+            REPLICATION = libraryCore.signReplication();
+        }
     }
 
     /**
-     * Send the packet to its appropriate side.
-     * Packets that should be played to the client are assumed to be played for all client players.
+     * Collects packets of a mod file from its annotation scan data
      *
-     * @param packet Packet object of a class annotated with {@link IncandescentPacket}
-     * @param <T>    Type of the packet
+     * @param scanData       Scan data of a mod file
+     * @param loadPacketInfo Mapping of mod IDs to packet classes to be filled
      */
-    public static <T> void sendPacket (T packet)
+    private static void scanPackets (ModFileScanData scanData, Map<String, Set<@NotNull Class<?>>> loadPacketInfo)
     {
-        IncandescentPacket incandescentPacket = packet.getClass().getAnnotation(IncandescentPacket.class);
-        if (incandescentPacket == null)
+        for (var annotationData : scanData.getAnnotations())
         {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " is not properly annotated");
-        }
-        IncandescentNetworkCore core = CORES.get(incandescentPacket.value());
-        if (incandescentPacket.direction() == NetworkDirection.PLAY_TO_SERVER)
-        {
-            core.getChannelInstance().sendToServer(packet);
-            return;
+            final String id = annotationData.annotationType().getClassName();
+            if (!id.equals(IncandescentPacket.class.getName()))
+            {
+                continue;
+            }
+            try
+            {
+                Class<?> clazz = Class.forName(annotationData.clazz().getClassName());
+                IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
+                if (packet == null)
+                {
+                    throw new FaultyPacketLoadException(String.format("Packet %s is not a packet", clazz.getName()));
+                }
+                loadPacketInfo.computeIfAbsent(packet.value(), k -> newPacketSet()).add(clazz);
+            } catch (ClassNotFoundException e)
+            {
+                throw new FaultyPacketLoadException(String.format("Class %s failed to load", annotationData.clazz().getClassName()), e);
+            }
         }
-        core.getChannelInstance().send(PacketDistributor.ALL.noArg(), packet);
     }
 
-    public static <T> void sendToPlayer (T packet, ServerPlayer player)
+    /**
+     * Collects packets of a mod file from its {@link #PACKET_INDEX}, instantiating pregenerated descriptors
+     *
+     * @param index          Path to the index within a mod file
+     * @param loadPacketInfo Mapping of mod IDs to packet classes to be filled
+     * @param descriptors    Mapping of packet classes to their descriptors to be filled
+     */
+    private static void loadPacketIndex (Path index, Map<String, Set<@NotNull Class<?>>> loadPacketInfo, Map<Class<?>, PacketDescriptor<?>> descriptors)
     {
-        IncandescentPacket incandescentPacket = packet.getClass().getAnnotation(IncandescentPacket.class);
-        if (incandescentPacket == null)
+        final List<String> lines;
+        try
+        {
+            lines = Files.readAllLines(index);
+        } catch (IOException e)
         {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " is not properly annotated");
+            throw new FaultyPacketLoadException(String.format("Packet index %s failed to load", index), e);
         }
-        IncandescentNetworkCore core = CORES.get(incandescentPacket.value());
-        if (incandescentPacket.direction() == NetworkDirection.PLAY_TO_SERVER)
+        for (String line : lines)
         {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " cannot be sent to client because it is a server packet");
+            final String[] parts = line.trim().split(" ");
+            if (parts.length < 2)
+            {
+                continue;
+            }
+            try
+            {
+                Class<?> clazz = Class.forName(parts[1]);
+                loadPacketInfo.computeIfAbsent(parts[0], k -> newPacketSet()).add(clazz);
+                if (parts.length > 2)
+                {
+                    descriptors.put(clazz, (PacketDescriptor<?>) Class.forName(parts[2]).getConstructor().newInstance());
+                }
+            } catch (ReflectiveOperationException | ExceptionInInitializerError | ClassCastException e)
+            {
+                throw new FaultyPacketLoadException(String.format("Indexed packet %s failed to load", line), e);
+            }
         }
-        core.getChannelInstance().send(PacketDistributor.PLAYER.with(() -> player), packet);
+    }
+
+    /**
+     * Creates a set of packet classes ordered by name, so that discriminators
+     * are assigned identically on both sides of the connection
+     *
+     * @return Empty set of packet classes
+     */
+    private static Set<@NotNull Class<?>> newPacketSet ()
+    {
+        return new TreeSet<>(Comparator.comparing(Class::getName));
+    }
+
+    /**
+     * Fetches the network cores of all mods, which can be used to access their statistics, see {@link IncandescentNetworkCore#getAllStats()}
+     *
+     * @return Unmodifiable view of {@link IncandescentNetworkCore}s by mod IDs
+     */
+    public static Map<String, IncandescentNetworkCore> getCores ()
+    {
+        return Collections.unmodifiableMap(CORES);
+    }
+
+    /**
+     * Registers a codec of a type for the packets of a mod.
+     * Codecs have to be registered during the construction of the mod, before its packets are signed.
+     *
+     * @param modId     Mod ID of the network core
+     * @param clazz     Type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Type the codec is registered for
+     * @see IncandescentNetworkCore#registerCodec(Class, PacketWriteFunc, PacketReadFunc)
+     * @see PacketIOMapping#register(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public static synchronized <T> void registerCodec (String modId, Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        CODEC_REGISTRATIONS.computeIfAbsent(modId, k -> new ArrayList<>()).add(core -> core.registerCodec(clazz, writeFunc, readFunc));
+    }
+
+    /**
+     * Registers a codec of a type and all of its subtypes for the packets of a mod.
+     * Codecs have to be registered during the construction of the mod, before its packets are signed.
+     *
+     * @param modId     Mod ID of the network core
+     * @param clazz     Base type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Base type the codec is registered for
+     * @see IncandescentNetworkCore#registerHierarchyCodec(Class, PacketWriteFunc, PacketReadFunc)
+     * @see PacketIOMapping#registerHierarchy(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public static synchronized <T> void registerHierarchyCodec (String modId, Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        CODEC_REGISTRATIONS.computeIfAbsent(modId, k -> new ArrayList<>()).add(core -> core.registerHierarchyCodec(clazz, writeFunc, readFunc));
+    }
+
+    /**
+     * Send the packet to its appropriate side.
+     * Packets that should be played to the client are assumed to be played for all client players.
+     *
+     * @param packet Packet object of a class annotated with {@link IncandescentPacket}
+     * @param <T>    Type of the packet
+     */
+    public static <T> void sendPacket (T packet)
+    {
+        senderOf(packet).send(packet);
+    }
+
+    public static <T> void sendToPlayer (T packet, ServerPlayer player)
+    {
+        senderOf(packet).sendToPlayer(packet, player);
+    }
+
+    /**
+     * Sends the packet to a group of players, encoding it only once for all of them
+     *
+     * @param packet  Packet object of a class annotated with {@link IncandescentPacket}
+     * @param players Recipients of the packet
+     * @param <T>     Type of the packet
+     */
+    public static <T> void sendToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        senderOf(packet).sendToPlayers(packet, players);
+    }
+
+    /**
+     * Streams the packet to a single player in chunks sent over the following ticks,
+     * see {@link IncandescentPacket#streamed()}
+     *
+     * @param packet Packet object of a class annotated with {@link IncandescentPacket} with {@link IncandescentPacket#streamed()} set
+     * @param player Recipient of the packet
+     * @param <T>    Type of the packet
+     */
+    public static <T> void streamToPlayer (T packet, ServerPlayer player)
+    {
+        senderOf(packet).streamToPlayer(packet, player);
+    }
+
+    /**
+     * Streams the packet to a group of players in chunks sent over the following ticks, encoding it only once for all of them
+     *
+     * @param packet  Packet object of a class annotated with {@link IncandescentPacket} with {@link IncandescentPacket#streamed()} set
+     * @param players Recipients of the packet
+     * @param <T>     Type of the packet
+     */
+    public static <T> void streamToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        senderOf(packet).streamToPlayers(packet, players);
+    }
+
+    /**
+     * Sends the request to the server without waiting for the response, see {@link IncandescentPacket#response()}.
+     * The future fails if the response does not arrive within 10 seconds.
+     *
+     * @param packet Packet object of a class annotated with {@link IncandescentPacket} with {@link IncandescentPacket#response()} set
+     * @param <T>    Type of the packet
+     * @param <R>    Type of the response
+     * @return Future of the response, completed on the network thread
+     * @see IncandescentNetworkCore#request(Object, long, TimeUnit)
+     */
+    public static <T, R> CompletableFuture<R> request (T packet)
+    {
+        return senderOf(packet).request(packet);
+    }
+
+    /**
+     * Sends the request to a player without waiting for the response, see {@link IncandescentPacket#response()}.
+     * The future fails if the response does not arrive within 10 seconds, or the player disconnects before responding.
+     *
+     * @param packet Packet object of a class annotated with {@link IncandescentPacket} with {@link IncandescentPacket#response()} set
+     * @param player Recipient of the request
+     * @param <T>    Type of the packet
+     * @param <R>    Type of the response
+     * @return Future of the response, completed on the network thread
+     * @see IncandescentNetworkCore#request(Object, ServerPlayer, long, TimeUnit)
+     */
+    public static <T, R> CompletableFuture<R> request (T packet, ServerPlayer player)
+    {
+        return senderOf(packet).request(packet, player);
     }
 
     public static <T> void sendToPlayersNearby (T packet, ServerPlayer player)
     {
-        IncandescentPacket incandescentPacket = packet.getClass().getAnnotation(IncandescentPacket.class);
-        if (incandescentPacket == null)
-        {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " is not properly annotated");
-        }
-        IncandescentNetworkCore core = CORES.get(incandescentPacket.value());
-        if (incandescentPacket.direction() == NetworkDirection.PLAY_TO_SERVER)
-        {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " cannot be sent to client because it is a server packet");
-        }
-        core.getChannelInstance().send(PacketDistributor.TRACKING_ENTITY.with(() -> player), packet);
+        senderOf(packet).sendToTracking(packet, player, false);
     }
 
     public static <T> void sendToPlayersNearbyAndSelf (T packet, ServerPlayer player)
     {
-        IncandescentPacket incandescentPacket = packet.getClass().getAnnotation(IncandescentPacket.class);
-        if (incandescentPacket == null)
-        {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " is not properly annotated");
-        }
-        IncandescentNetworkCore core = CORES.get(incandescentPacket.value());
-        if (incandescentPacket.direction() == NetworkDirection.PLAY_TO_SERVER)
+        senderOf(packet).sendToTracking(packet, player, true);
+    }
+
+    /**
+     * Fetches the {@link PacketSender} of a packet class.
+     * Senders can be stored and reused, sending through them skips the lookup of the class' descriptor altogether.
+     *
+     * @param clazz Class annotated with {@link IncandescentPacket}
+     * @param <T>   Type of the packet
+     * @return {@link PacketSender} of the packet class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PacketSender<T> getSender (Class<T> clazz)
+    {
+        return (PacketSender<T>) SENDERS.get(clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> PacketSender<T> senderOf (T packet)
+    {
+        return (PacketSender<T>) SENDERS.get(packet.getClass());
+    }
+
+    /**
+     * Runs the supplier on the main thread of the receiving side, and hands its result back to the caller.
+     * Meant for handlers executed off the main thread, see {@link IncandescentPacket.Execution},
+     * that have to read or modify the game state.
+     *
+     * @param contextSupplier Context of the handled packet
+     * @param supplier        Work to be done on the main thread
+     * @param <T>             Type of the result
+     * @return {@link CompletableFuture} completed with the result of the supplier once it ran on the main thread
+     */
+    public static <T> CompletableFuture<T> supplyOnMainThread (Supplier<NetworkEvent.Context> contextSupplier, Supplier<T> supplier)
+    {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        contextSupplier.get().enqueueWork(() ->
         {
-            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " cannot be sent to client because it is a server packet");
-        }
-        core.getChannelInstance().send(PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> player), packet);
+            try
+            {
+                future.complete(supplier.get());
+            } catch (Throwable e)
+            {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
     }
 
     /**
@@ -202,4 +465,139 @@ public class IncandescentNetworkAPI
         }));
         return retVal;
     }
+
+    @Mod.EventBusSubscriber(modid = Incandescent.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+    @SuppressWarnings("unused")
+    public static class ForgeEvents
+    {
+        /**
+         * Handles the received packets carried over by the inbound queue at the start of a server tick, within the configured time budget,
+         * and replicates the changed fields of entities, flushes the queued batched packets and the next chunks
+         * of streamed packets at the end of it, within the configured bandwidth budget and stream window
+         */
+        @SubscribeEvent
+        public static void serverTick (final TickEvent.ServerTickEvent event)
+        {
+            if (event.phase == TickEvent.Phase.START)
+            {
+                final InboundQueue inbound = InboundQueue.of(LogicalSide.SERVER);
+                inbound.setBudget(TimeUnit.MICROSECONDS.toNanos(IncandescentConfig.common_network_handler_micros_per_tick));
+                inbound.drain();
+                return;
+            }
+            if (REPLICATION != null)
+            {
+                REPLICATION.flush();
+            }
+            for (IncandescentNetworkCore core : CORES.values())
+            {
+                core.setBandwidthBudget(IncandescentConfig.server_network_bytes_per_tick);
+                core.flushBatched();
+                core.setStreamWindow(IncandescentConfig.server_network_stream_bytes_per_tick);
+                core.flushStreams();
+            }
+        }
+
+        /**
+         * Drops the received packets that were not handled before the server stopped, along with the replicated entities
+         */
+        @SubscribeEvent
+        public static void serverStopped (final ServerStoppedEvent event)
+        {
+            InboundQueue.of(LogicalSide.SERVER).clear();
+            if (REPLICATION != null)
+            {
+                REPLICATION.clear();
+            }
+        }
+
+        /**
+         * Starts replicating an entity joining a server level
+         */
+        @SubscribeEvent
+        public static void entityJoinLevel (final EntityJoinLevelEvent event)
+        {
+            if (REPLICATION != null && !event.getLevel().isClientSide())
+            {
+                REPLICATION.track(event.getEntity());
+            }
+        }
+
+        /**
+         * Stops replicating an entity leaving a server level
+         */
+        @SubscribeEvent
+        public static void entityLeaveLevel (final EntityLeaveLevelEvent event)
+        {
+            if (REPLICATION != null && !event.getLevel().isClientSide())
+            {
+                REPLICATION.untrack(event.getEntity());
+            }
+        }
+
+        /**
+         * Sends the replicated fields of an entity to a player that started tracking it
+         */
+        @SubscribeEvent
+        public static void startTracking (final PlayerEvent.StartTracking event)
+        {
+            if (REPLICATION != null && event.getEntity() instanceof ServerPlayer player)
+            {
+                REPLICATION.startTracking(event.getTarget(), player);
+            }
+        }
+
+        /**
+         * Registers {@link NetworkStatsCommand}
+         */
+        @SubscribeEvent
+        public static void registerCommands (final RegisterCommandsEvent event)
+        {
+            NetworkStatsCommand.register(event.getDispatcher());
+        }
+
+        /**
+         * Drops the baselines of delta packets and queued packets of a player that left
+         */
+        @SubscribeEvent
+        public static void playerLoggedOut (final PlayerEvent.PlayerLoggedOutEvent event)
+        {
+            for (IncandescentNetworkCore core : CORES.values())
+            {
+                core.forgetRecipient(event.getEntity().getUUID());
+            }
+        }
+    }
+
+    @Mod.EventBusSubscriber(modid = Incandescent.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+    @SuppressWarnings("unused")
+    public static class ClientForgeEvents
+    {
+        /**
+         * Handles the received packets carried over by the inbound queue at the start of a client tick, within the configured time budget
+         */
+        @SubscribeEvent
+        public static void clientTick (final TickEvent.ClientTickEvent event)
+        {
+            if (event.phase == TickEvent.Phase.START)
+            {
+                final InboundQueue inbound = InboundQueue.of(LogicalSide.CLIENT);
+                inbound.setBudget(TimeUnit.MICROSECONDS.toNanos(IncandescentConfig.common_network_handler_micros_per_tick));
+                inbound.drain();
+            }
+        }
+
+        /**
+         * Drops the baselines of delta packets and the unhandled packets received from the server being left
+         */
+        @SubscribeEvent
+        public static void clientLoggingOut (final ClientPlayerNetworkEvent.LoggingOut event)
+        {
+            for (IncandescentNetworkCore core : CORES.values())
+            {
+                core.resetBaselines();
+            }
+            InboundQueue.of(LogicalSide.CLIENT).clear();
+        }
+    }
 }
@@ -57,6 +57,141 @@ public @interface IncandescentPacket
 
     NetworkDirection direction ();
 
+    /**
+     * Whether the autogenerated encoder and decoder should be emitted as a hidden class
+     * with direct field access, instead of being composed of compiled field accessors.
+     * <p>
+     * Hidden codec requires a full-privilege lookup of the packet class, see {@link Lookup}.
+     * Should it be unavailable, the default autogenerated codec is used.
+     *
+     * @return {@code true} if the packet should use a hidden codec
+     */
+    boolean hiddenCodec () default false;
+
+    /**
+     * Whether the packet should be sent as a delta against the previous packet of the same class
+     * sent to the same recipient, only carrying the {@link Value} fields that changed.
+     * <p>
+     * Delta packets rely on the autogenerated codec, and are limited to
+     * {@link NetworkDirection#PLAY_TO_CLIENT}. They have to be sent through {@link IncandescentNetworkAPI}
+     * or {@link IncandescentNetworkCore}, so that the recipients are known at the moment of encoding.
+     * Since a dropped delta would desynchronize the baselines of both sides, delta packets cannot be of {@link Priority#LOW} priority.
+     *
+     * @return {@code true} if the packet should be delta-encoded
+     */
+    boolean delta () default false;
+
+    /**
+     * Whether the packet should be queued per player until the end of the server tick,
+     * and sent along with other queued packets of the same mod as a single bundle.
+     * <p>
+     * Batching reduces the per-message overhead of packets sent in large amounts every tick,
+     * at the cost of delaying them until the end of the tick. Packets are still handled in the order they were sent.
+     * Batched packets are limited to {@link NetworkDirection#PLAY_TO_CLIENT}, and have to be sent through
+     * {@link IncandescentNetworkAPI} or {@link IncandescentNetworkCore}.
+     *
+     * @return {@code true} if the packet should be batched
+     */
+    boolean batched () default false;
+
+    /**
+     * Size of the encoded packet, in bytes, starting from which the packet is deflated before being sent.
+     * Negative values disable compression of the packet.
+     * <p>
+     * Compression is meant for packets carrying large data, such as {@link net.minecraft.nbt.CompoundTag}s.
+     * Statistics of the compression can be obtained from {@link IncandescentNetworkCore#getCompressionStats(Class)}.
+     *
+     * @return Compression threshold of the packet
+     */
+    int compressionThreshold () default -1;
+
+    /**
+     * Whether received instances of the packet should be recycled once their handler returns,
+     * so that the packet is decoded into an idle instance instead of a newly allocated one.
+     * <p>
+     * Pooling is meant for mutable packets received at a high rate. Pooled packets rely on the autogenerated decoder,
+     * and their handlers must not retain the packet, e.g. by capturing it in work scheduled for later;
+     * fields that are not marked with {@link Value} keep the values of the previous use of the instance.
+     *
+     * @return {@code true} if received instances of the packet should be pooled
+     */
+    boolean pooled () default false;
+
+    /**
+     * Whether strings of the packet, i.e. {@link String} and {@link net.minecraft.resources.ResourceLocation} fields
+     * and the keys of {@link net.minecraft.nbt.CompoundTag} fields, should be written with the string dictionary
+     * of the connection, so that a string repeated across packets is only sent in full once.
+     * <p>
+     * Only the autogenerated codec writes strings with the dictionary. Dictionary packets are limited to
+     * {@link NetworkDirection#PLAY_TO_CLIENT}. They are encoded separately for every recipient and sent immediately,
+     * hence cannot be {@link #delta()}, {@link #batched()}, keyed or of {@link Priority#LOW} priority,
+     * and have to be sent through {@link IncandescentNetworkAPI} or {@link IncandescentNetworkCore}.
+     *
+     * @return {@code true} if the packet should use the string dictionary of the connection
+     */
+    boolean dictionary () default false;
+
+    /**
+     * Whether the packet object can be shared by the sending and the receiving side,
+     * so that it is handed over as it is when sent over an in-memory connection, i.e. between the integrated server
+     * and its local client, instead of being encoded and decoded.
+     * <p>
+     * Shareable packets must not be modified once sent, neither by the sender nor by the handler, and should
+     * preferably be immutable. Only packets sent immediately are handed over; queued packets are still encoded.
+     * Shareable packets cannot be {@link #delta()}, {@link #dictionary()} or {@link #pooled()} packets,
+     * and have to be sent through {@link IncandescentNetworkAPI} or {@link IncandescentNetworkCore}.
+     *
+     * @return {@code true} if the packet can be handed over without encoding
+     */
+    boolean shareable () default false;
+
+    /**
+     * Whether the packet can be streamed with {@link IncandescentNetworkAPI#streamToPlayer(Object, net.minecraft.server.level.ServerPlayer)},
+     * which splits the encoded packet into chunks sent over the following ticks, within the window of the connection.
+     * <p>
+     * Streaming is meant for packets too large to be sent at once, such as generated structures.
+     * Streamed packets are handled once their last chunk is received, hence are not ordered relative to other packets.
+     * They can still be sent as usual, and are limited to {@link NetworkDirection#PLAY_TO_CLIENT}.
+     * Since the packet is encoded once for all recipients, streamed packets cannot be {@link #delta()} or {@link #dictionary()} packets.
+     *
+     * @return {@code true} if the packet can be streamed
+     */
+    boolean streamed () default false;
+
+    /**
+     * Class of the response to the packet, making the packet a request that can be sent with
+     * {@link IncandescentNetworkAPI#request(Object)} or {@link IncandescentNetworkAPI#request(Object, net.minecraft.server.level.ServerPlayer)}.
+     * <p>
+     * The {@link Handler} of a request returns the response, or a {@link java.util.concurrent.CompletionStage} of it,
+     * instead of {@code boolean}. The response is encoded like a packet, with its {@link Encoder} and
+     * {@link net.minecraft.network.FriendlyByteBuf} constructor if present, otherwise with its {@link Value} fields.
+     * Requests can still be sent as usual, in which case the response is discarded.
+     * Since requests are sent immediately, they cannot be {@link #delta()} or {@link #dictionary()} packets.
+     *
+     * @return Class of the response, or {@link Void} if the packet is not a request
+     */
+    Class<?> response () default Void.class;
+
+    /**
+     * Priority of the packet among the outbound traffic of its mod.
+     * <p>
+     * Packets of {@link Priority#LOW} priority are always queued until the end of the server tick, like {@link #batched()} ones,
+     * and are the first to be deferred to the following ticks once the bandwidth budget of the connection is exhausted.
+     * Priorities are limited to {@link NetworkDirection#PLAY_TO_CLIENT}.
+     *
+     * @return {@link Priority} of the packet
+     * @see Priority
+     */
+    Priority priority () default Priority.NORMAL;
+
+    /**
+     * Amount of server ticks a {@link Priority#LOW} packet can be deferred for before it is dropped.
+     * Negative values keep the packet queued until it is sent.
+     *
+     * @return Maximum deferral of the packet, in ticks
+     */
+    int maxDeferral () default 20;
+
     /**
      * Annotation to mark fields that contain data being sent
      * <p>
@@ -74,6 +209,97 @@ public @interface IncandescentPacket
          * @return {@code int} numeric ID of a field
          */
         int value () default Integer.MAX_VALUE;
+
+        /**
+         * Encoding of the field used by the autogenerated encoder and decoder.
+         *
+         * @return {@link Encoding} of the field
+         * @see Encoding
+         */
+        Encoding encoding () default Encoding.DEFAULT;
+    }
+
+    /**
+     * Encodings of {@link Value} fields, trading the fixed size of the data for compactness
+     */
+    enum Encoding
+    {
+        /**
+         * Default encoding of the field type
+         */
+        DEFAULT,
+
+        /**
+         * Variable-length encoding of {@code int}/{@code long} values, taking 1 to 5 (or 10) bytes.
+         * Best suited for small non-negative values; negative values always take the maximum length.
+         */
+        VARINT,
+
+        /**
+         * ZigZag transformation followed by {@link #VARINT}, best suited for values of small magnitude of either sign.
+         */
+        ZIGZAG,
+
+        /**
+         * Packing of {@code boolean} values into bitfields.
+         * Consecutive fields with this encoding share the bytes, taking a single bit each.
+         */
+        PACKED
+    }
+
+    /**
+     * Annotation to mark {@link Value} fields that are transferred with reduced precision
+     * <p>
+     * Each component of the field is clamped to {@code [min, max]} and written as a fixed-point
+     * value of {@code bits} bits, the components of a single field being packed together.
+     * Applicable to {@code float}, {@code double}, {@link org.joml.Vector3f} and {@link org.joml.Quaternionf} fields.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Quantized
+    {
+        /**
+         * @return Width of a single component, from 1 to 32
+         */
+        int bits ();
+
+        /**
+         * @return Lowest representable value of a component
+         */
+        double min ();
+
+        /**
+         * @return Highest representable value of a component
+         */
+        double max ();
+    }
+
+    /**
+     * Annotation to mark the field identifying the state a packet updates, such as the ID of an entity
+     * <p>
+     * Packets with a key field are queued until the end of the server tick, like {@link IncandescentPacket#batched()} ones,
+     * and only the latest of the queued packets of the same class and key is kept for every player,
+     * the superseded ones being neither encoded nor sent. Keyed packets are encoded once they are flushed,
+     * and therefore must not be modified after being sent. The key must implement {@link Object#equals(Object)}
+     * and {@link Object#hashCode()}, and keyed packets cannot be {@link IncandescentPacket#delta()} packets.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Key
+    {
+    }
+
+    /**
+     * Annotation to mark a static {@link java.lang.invoke.MethodHandles.Lookup} field of the packet,
+     * initialized with {@link java.lang.invoke.MethodHandles#lookup()} inside the packet class itself.
+     * <p>
+     * Such lookup allows the network core to define a hidden codec within the packet's nest,
+     * see {@link IncandescentPacket#hiddenCodec()}
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Lookup
+    {
     }
 
     /**
@@ -98,5 +324,75 @@ public @interface IncandescentPacket
     @Target(ElementType.METHOD)
     @interface Handler
     {
+        /**
+         * Thread the handler is executed on
+         *
+         * @return {@link Execution} of the handler
+         * @see Execution
+         */
+        Execution value () default Execution.MAIN;
+    }
+
+    /**
+     * Threads packet handlers can be executed on
+     */
+    enum Execution
+    {
+        /**
+         * Main thread of the receiving side, i.e. the server or the client thread
+         */
+        MAIN,
+
+        /**
+         * Network thread the packet was received on. Handlers executed on it must not block,
+         * and must not touch the game state other than through {@link net.minecraftforge.network.NetworkEvent.Context#enqueueWork(Runnable)}.
+         */
+        NETWORK,
+
+        /**
+         * Worker pool managed by the library, backed by virtual threads where the runtime provides them.
+         * Suited for validation or computation that does not touch the game state; results can be handed back
+         * with {@link IncandescentNetworkAPI#supplyOnMainThread(java.util.function.Supplier, java.util.function.Supplier)}.
+         */
+        WORKER,
+
+        /**
+         * Main thread of the receiving side, like {@link #MAIN}, but instead of scheduling a task per packet,
+         * received packets are collected into a queue shared by all mods. The packet arriving to an empty queue
+         * schedules a single task draining it, which handles every packet queued by the time it runs,
+         * in the order the packets arrived, within the configured time budget.
+         * Packets left over once the budget is exhausted are handled at the start of the following ticks.
+         * <p>
+         * The drain runs after the vanilla packets received before the packet that scheduled it, but packets that join
+         * a pending drain may overtake vanilla packets received shortly before them, and carried over packets
+         * fall behind the ones received after them. Such handlers must tolerate the game state being slightly ahead of
+         * or behind the packet, e.g. an entity the packet refers to not being added yet or already removed.
+         * </p>
+         */
+        TICK
+    }
+
+    /**
+     * Priorities of outbound packets, deciding the order in which queued packets are sent
+     * and which of them are deferred once the bandwidth budget of a connection is exhausted
+     */
+    enum Priority
+    {
+        /**
+         * Packets sent ahead of everything else queued for the player, regardless of the bandwidth budget
+         */
+        HIGH,
+
+        /**
+         * Default priority, packets are sent immediately, or at the end of the tick if {@link IncandescentPacket#batched()}
+         */
+        NORMAL,
+
+        /**
+         * Packets queued until the end of the tick, sent only within the bandwidth budget left by others,
+         * and dropped once deferred for longer than {@link IncandescentPacket#maxDeferral()}.
+         * Not applicable to {@link IncandescentPacket#delta()} packets, which must never be dropped.
+         */
+        LOW
     }
 }
@@ -0,0 +1,127 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.fml.LogicalSide;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.core.InboundQueue;
+import xyz.nikgub.incandescent.autogen_network.core.IncandescentNetworkCore;
+import xyz.nikgub.incandescent.autogen_network.core.LatencyHistogram;
+import xyz.nikgub.incandescent.autogen_network.core.PacketStats;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * {@code /incandescent net stats [modid]} command, listing the {@link PacketStats} of signed packet classes,
+ * the most bandwidth-consuming ones first, followed by the {@link InboundQueue} of the server
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ */
+public final class NetworkStatsCommand
+{
+    private NetworkStatsCommand ()
+    {
+        // This class is not instantiatable
+    }
+
+    public static void register (CommandDispatcher<CommandSourceStack> dispatcher)
+    {
+        dispatcher.register(Commands.literal("incandescent")
+            .requires(source -> source.hasPermission(2))
+            .then(Commands.literal("net")
+                .then(Commands.literal("stats")
+                    .executes(context -> printStats(context.getSource(), null))
+                    .then(Commands.argument("modid", StringArgumentType.word())
+                        .executes(context -> printStats(context.getSource(), StringArgumentType.getString(context, "modid")))))));
+    }
+
+    private static int printStats (CommandSourceStack source, @Nullable String modId)
+    {
+        int printed = 0;
+        for (Map.Entry<String, IncandescentNetworkCore> core : IncandescentNetworkAPI.getCores().entrySet())
+        {
+            if (modId != null && !modId.equals(core.getKey()))
+            {
+                continue;
+            }
+            source.sendSuccess(() -> Component.literal(core.getKey()).withStyle(ChatFormatting.GOLD), false);
+            for (Map.Entry<Class<?>, PacketStats> entry : core.getValue().getAllStats().entrySet().stream()
+                .filter(entry -> entry.getValue().getSent() + entry.getValue().getLocal() + entry.getValue().getReceived() > 0)
+                .sorted(Comparator.comparingLong(entry -> -(entry.getValue().getSentBytes() + entry.getValue().getReceivedBytes())))
+                .toList())
+            {
+                final String line = format(entry.getKey(), entry.getValue());
+                source.sendSuccess(() -> Component.literal(line), false);
+                printed++;
+            }
+        }
+        final InboundQueue inbound = InboundQueue.of(LogicalSide.SERVER);
+        if (modId == null && inbound.getHandled() + inbound.getDepth() > 0)
+        {
+            source.sendSuccess(() -> Component.literal(String.format("Inbound queue: depth %d (max %d), handled %d, carried over by %d drains",
+                inbound.getDepth(), inbound.getMaxDepth(), inbound.getHandled(), inbound.getCarriedOver())), false);
+            printed++;
+        }
+        if (printed == 0)
+        {
+            source.sendFailure(Component.literal("No packets were sent or received" + (modId == null ? "" : " by mod " + modId)));
+        }
+        return printed;
+    }
+
+    private static String format (Class<?> clazz, PacketStats stats)
+    {
+        final StringBuilder line = new StringBuilder(" ").append(clazz.getSimpleName()).append(':');
+        if (stats.getSent() > 0)
+        {
+            line.append(String.format(" sent %d, %dB (max %dB), encoded %d, encode %s;", stats.getSent(), stats.getSentBytes(),
+                stats.getMaxSentBytes(), stats.getEncoded(), latency(stats.getEncodeTime())));
+        }
+        if (stats.getDropped() > 0)
+        {
+            line.append(String.format(" dropped %d;", stats.getDropped()));
+        }
+        if (stats.getCoalesced() > 0)
+        {
+            line.append(String.format(" coalesced %d;", stats.getCoalesced()));
+        }
+        if (stats.getLocal() > 0)
+        {
+            line.append(String.format(" local %d;", stats.getLocal()));
+        }
+        if (stats.getReceived() > 0)
+        {
+            line.append(String.format(" received %d, %dB (max %dB), decode %s, handle %s;", stats.getReceived(), stats.getReceivedBytes(),
+                stats.getMaxReceivedBytes(), latency(stats.getDecodeTime()), latency(stats.getHandleTime())));
+        }
+        return line.toString();
+    }
+
+    private static String latency (LatencyHistogram histogram)
+    {
+        return String.format("p50<%.1fus p99<%.1fus", histogram.getPercentileNanos(50) / 1e3, histogram.getPercentileNanos(99) / 1e3);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark entity fields replicated from the server to the clients tracking the entity.
+ * <p>
+ * Replicated fields are compiled like {@link IncandescentPacket.Value} fields, using the codecs of the network core
+ * of the mod registering the entity type, and may be {@link IncandescentPacket.Quantized} as well.
+ * Once per server tick, the fields of every entity are compared with the values last replicated,
+ * and only the ones that changed are sent to the tracking players, see {@link xyz.nikgub.incandescent.autogen_network.core.EntityReplication}.
+ * Players that start tracking an entity receive all of its replicated fields. Replicated fields cannot be {@code static} or {@code final}.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Replicated
+{
+    /**
+     * Used to sort fields declared by the same class in a guaranteed way, see {@link IncandescentPacket.Value#value()}.
+     * Fields of superclasses always precede the fields of their subclasses.
+     *
+     * @return {@code int} numeric ID of a field
+     */
+    int value () default Integer.MAX_VALUE;
+
+    /**
+     * Encoding of the field, see {@link IncandescentPacket.Value#encoding()}
+     *
+     * @return {@link IncandescentPacket.Encoding} of the field
+     */
+    IncandescentPacket.Encoding encoding () default IncandescentPacket.Encoding.DEFAULT;
+}
@@ -0,0 +1,121 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of codecs for types not covered by the built-in tables of {@link PacketIOMapping}.
+ * <p>
+ * Codecs are registered either for an exact type, or for a whole hierarchy, in which case they serve
+ * the base type and all of its subtypes. Exact codecs take precedence, followed by hierarchy codecs
+ * of the closest supertype, superclasses being preferred over interfaces.
+ * </p>
+ * <p>
+ * Registered codecs are resolved once, when the codec of a packet is compiled,
+ * and take part in the compiled codec the same way built-in functions do.
+ * </p>
+ *
+ * @see PacketIOMapping#register(Class, PacketWriteFunc, PacketReadFunc)
+ * @see IncandescentNetworkCore#registerCodec(Class, PacketWriteFunc, PacketReadFunc)
+ */
+final class CodecRegistry
+{
+    private final Map<Class<?>, CompositeCodecs.TypeCodec> exact = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, CompositeCodecs.TypeCodec> hierarchy = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a codec of a type
+     *
+     * @param type      Type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param subtypes  Whether the codec should also serve subtypes of {@code type}
+     * @throws MalformedPacketException If the type has a built-in codec, or already has a registered one
+     */
+    void register (Class<?> type, PacketWriteFunc<?> writeFunc, PacketReadFunc<?> readFunc, boolean subtypes)
+    {
+        if (PacketIOMapping.hasBuiltin(type))
+        {
+            throw new MalformedPacketException("Cannot register codec of " + type.getName() + " because it has a built-in one");
+        }
+        final CompositeCodecs.TypeCodec codec = CompositeCodecs.TypeCodec.of(writeFunc, readFunc);
+        if ((subtypes ? hierarchy : exact).putIfAbsent(type, codec) != null)
+        {
+            throw new MalformedPacketException("Cannot register codec of " + type.getName() + " because it is already registered");
+        }
+    }
+
+    /**
+     * Finds the codec serving a type
+     *
+     * @param type Type to find the codec for
+     * @return Registered {@link CompositeCodecs.TypeCodec}, or {@code null} if there is none
+     */
+    @Nullable CompositeCodecs.TypeCodec find (Class<?> type)
+    {
+        final CompositeCodecs.TypeCodec codec = exact.get(type);
+        if (codec != null || hierarchy.isEmpty())
+        {
+            return codec;
+        }
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass())
+        {
+            final CompositeCodecs.TypeCodec inherited = hierarchy.get(superclass);
+            if (inherited != null)
+            {
+                return inherited;
+            }
+        }
+        final Deque<Class<?>> queue = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass())
+        {
+            queue.add(superclass);
+        }
+        while (!queue.isEmpty())
+        {
+            for (Class<?> superinterface : queue.poll().getInterfaces())
+            {
+                if (!visited.add(superinterface))
+                {
+                    continue;
+                }
+                final CompositeCodecs.TypeCodec inherited = hierarchy.get(superinterface);
+                if (inherited != null)
+                {
+                    return inherited;
+                }
+                queue.add(superinterface);
+            }
+        }
+        return null;
+    }
+}
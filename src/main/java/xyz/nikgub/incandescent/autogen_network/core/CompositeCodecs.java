@@ -0,0 +1,598 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Resolver of codecs for composite field types, built from the generic signature of a field.
+ * <p>
+ * Composite types are resolved once into a tree of codecs, leaves of which are the functions of {@link PacketIOMapping},
+ * or codecs registered in a {@link CodecRegistry}.
+ * Supported are arrays, {@link List}, {@link Set}, {@link Map}, {@link Optional}, enums, records,
+ * and value types with {@link IncandescentPacket.Value} fields of their own, nested arbitrarily.
+ * Arrays, collections and maps are written as their size followed by the elements,
+ * enums as the varint of their ordinal, {@link Optional}s as a presence flag followed by the value.
+ * Elements of arrays, collections and maps, or entries of maps, must be written as at least one byte,
+ * so that a claimed size can be checked against the readable bytes.
+ * </p>
+ * <p>
+ * Composite values must not be {@code null}, and neither must their elements; {@link Optional} should be used instead.
+ * </p>
+ *
+ * @see NetworkFunctionGenerator
+ */
+final class CompositeCodecs
+{
+    private final NetworkFunctionGenerator generator;
+
+    /**
+     * Codecs registered for the network core this resolver belongs to
+     */
+    private final CodecRegistry codecs;
+
+    /**
+     * Codecs of the types resolved so far
+     */
+    private final Map<Type, TypeCodec> cache = new HashMap<>();
+
+    /**
+     * Forwarding codecs of the types being resolved, used by recursive types
+     */
+    private final Map<Type, TypeCodec[]> pending = new HashMap<>();
+
+    CompositeCodecs (NetworkFunctionGenerator generator, CodecRegistry codecs)
+    {
+        this.generator = generator;
+        this.codecs = codecs;
+    }
+
+    /**
+     * Resolves the codec of a type
+     *
+     * @param type Generic type of a field or a component
+     * @return Resolved {@link TypeCodec}
+     * @throws MalformedPacketException If any part of the type cannot be encoded
+     */
+    synchronized TypeCodec resolve (Type type)
+    {
+        final TypeCodec cached = cache.get(type);
+        if (cached != null)
+        {
+            return cached;
+        }
+        final TypeCodec[] forward = pending.get(type);
+        if (forward != null)
+        {
+            return new TypeCodec((buf, value) -> forward[0].writer().write(buf, value), buf -> forward[0].reader().read(buf));
+        }
+        final TypeCodec[] slot = new TypeCodec[1];
+        pending.put(type, slot);
+        try
+        {
+            slot[0] = resolveUncached(type);
+        } finally
+        {
+            pending.remove(type);
+        }
+        cache.put(type, slot[0]);
+        return slot[0];
+    }
+
+    private TypeCodec resolveUncached (Type type)
+    {
+        if (type instanceof Class<?> clazz)
+        {
+            return resolveClass(clazz);
+        }
+        if (type instanceof WildcardType wildcard)
+        {
+            return resolve(wildcard.getUpperBounds()[0]);
+        }
+        if (type instanceof GenericArrayType array)
+        {
+            return objectArray(rawClass(array.getGenericComponentType()), resolve(array.getGenericComponentType()));
+        }
+        if (type instanceof ParameterizedType parameterized)
+        {
+            final Class<?> raw = (Class<?>) parameterized.getRawType();
+            final Type[] arguments = parameterized.getActualTypeArguments();
+            if (raw == Optional.class)
+            {
+                return optional(resolve(arguments[0]));
+            }
+            if (raw == List.class || raw == Collection.class || raw == ArrayList.class)
+            {
+                return collection(resolve(arguments[0]), ArrayList::new);
+            }
+            if (raw == Set.class || raw == HashSet.class || raw == LinkedHashSet.class)
+            {
+                return collection(resolve(arguments[0]), LinkedHashSet::new);
+            }
+            if (raw == Map.class || raw == HashMap.class || raw == LinkedHashMap.class)
+            {
+                return map(resolve(arguments[0]), resolve(arguments[1]));
+            }
+            return resolveClass(raw);
+        }
+        throw new MalformedPacketException("Cannot encode " + type.getTypeName() + " because it is not a concrete type");
+    }
+
+    private TypeCodec resolveClass (Class<?> clazz)
+    {
+        final TypeCodec leaf = PacketIOMapping.find(clazz, codecs);
+        if (leaf != null)
+        {
+            return leaf;
+        }
+        if (clazz.isArray())
+        {
+            return clazz.getComponentType().isPrimitive() ? primitiveArray(clazz.getComponentType())
+                : objectArray(clazz.getComponentType(), resolve(clazz.getComponentType()));
+        }
+        if (clazz.isEnum())
+        {
+            return enumeration(clazz);
+        }
+        if (clazz.isRecord())
+        {
+            return record(clazz);
+        }
+        if (!IncandescentNetworkAPI.getAnnotatedMethods(clazz).isEmpty())
+        {
+            return nested(clazz);
+        }
+        throw new MalformedPacketException("Cannot encode " + clazz.getName() + " because no such writer exists");
+    }
+
+    private static Class<?> rawClass (Type type)
+    {
+        if (type instanceof Class<?> clazz)
+        {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterized)
+        {
+            return (Class<?>) parameterized.getRawType();
+        }
+        if (type instanceof GenericArrayType array)
+        {
+            return rawClass(array.getGenericComponentType()).arrayType();
+        }
+        return Object.class;
+    }
+
+    /**
+     * Rejects an element of an array, a collection or a map that was written as zero bytes,
+     * since the size of the elements could not be checked against the readable bytes on the receiving side
+     *
+     * @param buf     Buffer the element was written to
+     * @param start   Writer index before the element was written
+     * @param element Written element
+     */
+    private static void checkWritten (FriendlyByteBuf buf, int start, Object element)
+    {
+        if (buf.writerIndex() == start)
+        {
+            throw new MalformedPacketException("Cannot encode " + element.getClass().getName() + " as an element because it is written as zero bytes");
+        }
+    }
+
+    /**
+     * Reads the size of an array, a collection or a map, rejecting sizes that cannot be satisfied by the buffer
+     */
+    private static int readSize (FriendlyByteBuf buf, int minElementSize)
+    {
+        final int size = buf.readVarInt();
+        if (size < 0 || (long) size * minElementSize > buf.readableBytes())
+        {
+            throw new MalformedPacketException("Cannot decode " + size + " elements from " + buf.readableBytes() + " readable bytes");
+        }
+        return size;
+    }
+
+    private static TypeCodec optional (TypeCodec value)
+    {
+        return new TypeCodec((buf, obj) ->
+        {
+            final Optional<?> optional = (Optional<?>) obj;
+            buf.writeBoolean(optional.isPresent());
+            optional.ifPresent(present -> value.writer().write(buf, present));
+        }, buf -> buf.readBoolean() ? Optional.of(value.reader().read(buf)) : Optional.empty());
+    }
+
+    private static TypeCodec collection (TypeCodec element, IntFunction<Collection<Object>> factory)
+    {
+        return new TypeCodec((buf, obj) ->
+        {
+            final Collection<?> collection = (Collection<?>) obj;
+            buf.writeVarInt(collection.size());
+            for (Object value : collection)
+            {
+                final int start = buf.writerIndex();
+                element.writer().write(buf, value);
+                checkWritten(buf, start, value);
+            }
+        }, buf ->
+        {
+            final int size = readSize(buf, 1);
+            final Collection<Object> collection = factory.apply(size);
+            for (int i = 0; i < size; i++)
+            {
+                collection.add(element.reader().read(buf));
+            }
+            return collection;
+        });
+    }
+
+    private static TypeCodec map (TypeCodec key, TypeCodec value)
+    {
+        return new TypeCodec((buf, obj) ->
+        {
+            final Map<?, ?> map = (Map<?, ?>) obj;
+            buf.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet())
+            {
+                final int start = buf.writerIndex();
+                key.writer().write(buf, entry.getKey());
+                value.writer().write(buf, entry.getValue());
+                checkWritten(buf, start, entry.getKey());
+            }
+        }, buf ->
+        {
+            final int size = readSize(buf, 1);
+            final Map<Object, Object> map = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; i++)
+            {
+                map.put(key.reader().read(buf), value.reader().read(buf));
+            }
+            return map;
+        });
+    }
+
+    private static TypeCodec objectArray (Class<?> component, TypeCodec element)
+    {
+        return new TypeCodec((buf, obj) ->
+        {
+            final Object[] array = (Object[]) obj;
+            buf.writeVarInt(array.length);
+            for (Object value : array)
+            {
+                final int start = buf.writerIndex();
+                element.writer().write(buf, value);
+                checkWritten(buf, start, value);
+            }
+        }, buf ->
+        {
+            // Every element takes at least one byte, so the claimed size is bounded by the readable bytes
+            final Object[] array = (Object[]) Array.newInstance(component, readSize(buf, 1));
+            for (int i = 0; i < array.length; i++)
+            {
+                array[i] = element.reader().read(buf);
+            }
+            return array;
+        });
+    }
+
+    /**
+     * Codecs of primitive arrays, written in bulk after ensuring the capacity of the buffer once
+     */
+    private static TypeCodec primitiveArray (Class<?> component)
+    {
+        if (component == byte.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final byte[] array = (byte[]) obj;
+                buf.writeVarInt(array.length);
+                buf.writeBytes(array);
+            }, buf ->
+            {
+                final byte[] array = new byte[readSize(buf, 1)];
+                buf.readBytes(array);
+                return array;
+            });
+        }
+        if (component == boolean.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final boolean[] array = (boolean[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable((array.length + 7) >> 3);
+                for (int i = 0; i < array.length; i += 8)
+                {
+                    int bits = 0;
+                    for (int j = i; j < Math.min(i + 8, array.length); j++)
+                    {
+                        bits |= (array[j] ? 1 : 0) << (j - i);
+                    }
+                    buf.writeByte(bits);
+                }
+            }, buf ->
+            {
+                final int size = buf.readVarInt();
+                if (size < 0 || (size + 7L) >> 3 > buf.readableBytes())
+                {
+                    throw new MalformedPacketException("Cannot decode " + size + " elements from " + buf.readableBytes() + " readable bytes");
+                }
+                final boolean[] array = new boolean[size];
+                for (int i = 0; i < size; i += 8)
+                {
+                    final int bits = buf.readUnsignedByte();
+                    for (int j = i; j < Math.min(i + 8, size); j++)
+                    {
+                        array[j] = (bits & (1 << (j - i))) != 0;
+                    }
+                }
+                return array;
+            });
+        }
+        if (component == short.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final short[] array = (short[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable(array.length * Short.BYTES);
+                for (short value : array)
+                {
+                    buf.writeShort(value);
+                }
+            }, buf ->
+            {
+                final short[] array = new short[readSize(buf, Short.BYTES)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readShort();
+                }
+                return array;
+            });
+        }
+        if (component == char.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final char[] array = (char[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable(array.length * Character.BYTES);
+                for (char value : array)
+                {
+                    buf.writeChar(value);
+                }
+            }, buf ->
+            {
+                final char[] array = new char[readSize(buf, Character.BYTES)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readChar();
+                }
+                return array;
+            });
+        }
+        if (component == int.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final int[] array = (int[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable(array.length * Integer.BYTES);
+                for (int value : array)
+                {
+                    buf.writeInt(value);
+                }
+            }, buf ->
+            {
+                final int[] array = new int[readSize(buf, Integer.BYTES)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readInt();
+                }
+                return array;
+            });
+        }
+        if (component == long.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final long[] array = (long[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable(array.length * Long.BYTES);
+                for (long value : array)
+                {
+                    buf.writeLong(value);
+                }
+            }, buf ->
+            {
+                final long[] array = new long[readSize(buf, Long.BYTES)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readLong();
+                }
+                return array;
+            });
+        }
+        if (component == float.class)
+        {
+            return new TypeCodec((buf, obj) ->
+            {
+                final float[] array = (float[]) obj;
+                buf.writeVarInt(array.length);
+                buf.ensureWritable(array.length * Float.BYTES);
+                for (float value : array)
+                {
+                    buf.writeFloat(value);
+                }
+            }, buf ->
+            {
+                final float[] array = new float[readSize(buf, Float.BYTES)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readFloat();
+                }
+                return array;
+            });
+        }
+        return new TypeCodec((buf, obj) ->
+        {
+            final double[] array = (double[]) obj;
+            buf.writeVarInt(array.length);
+            buf.ensureWritable(array.length * Double.BYTES);
+            for (double value : array)
+            {
+                buf.writeDouble(value);
+            }
+        }, buf ->
+        {
+            final double[] array = new double[readSize(buf, Double.BYTES)];
+            for (int i = 0; i < array.length; i++)
+            {
+                array[i] = buf.readDouble();
+            }
+            return array;
+        });
+    }
+
+    private static TypeCodec enumeration (Class<?> clazz)
+    {
+        final Object[] constants = clazz.getEnumConstants();
+        return new TypeCodec((buf, obj) -> buf.writeVarInt(((Enum<?>) obj).ordinal()), buf ->
+        {
+            final int ordinal = buf.readVarInt();
+            if (ordinal < 0 || ordinal >= constants.length)
+            {
+                throw new MalformedPacketException("Cannot decode " + clazz.getName() + " with ordinal " + ordinal);
+            }
+            return constants[ordinal];
+        });
+    }
+
+    private TypeCodec record (Class<?> clazz)
+    {
+        final RecordComponent[] components = clazz.getRecordComponents();
+        final Class<?>[] types = new Class<?>[components.length];
+        final MethodHandle[] accessors = new MethodHandle[components.length];
+        final MethodHandle constructor;
+        try
+        {
+            for (int i = 0; i < components.length; i++)
+            {
+                types[i] = components[i].getType();
+                components[i].getAccessor().setAccessible(true);
+                accessors[i] = MethodHandles.lookup().unreflect(components[i].getAccessor())
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            }
+            final Constructor<?> canonical = clazz.getDeclaredConstructor(types);
+            canonical.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(canonical)
+                .asSpreader(Object[].class, components.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException | RuntimeException e)
+        {
+            throw new MalformedPacketException("Cannot access components of record " + clazz.getName(), e);
+        }
+        final TypeCodec[] codecs = new TypeCodec[components.length];
+        for (int i = 0; i < components.length; i++)
+        {
+            codecs[i] = resolve(components[i].getGenericType());
+        }
+        return new TypeCodec((buf, obj) ->
+        {
+            for (int i = 0; i < codecs.length; i++)
+            {
+                final Object value;
+                try
+                {
+                    value = (Object) accessors[i].invokeExact(obj);
+                } catch (Throwable e)
+                {
+                    throw new MalformedPacketException("Cannot access components of record " + clazz.getName(), e);
+                }
+                codecs[i].writer().write(buf, value);
+            }
+        }, buf ->
+        {
+            final Object[] values = new Object[codecs.length];
+            for (int i = 0; i < codecs.length; i++)
+            {
+                values[i] = codecs[i].reader().read(buf);
+            }
+            try
+            {
+                return (Object) constructor.invokeExact(values);
+            } catch (Throwable e)
+            {
+                throw new MalformedPacketException("Cannot construct record " + clazz.getName(), e);
+            }
+        });
+    }
+
+    private TypeCodec nested (Class<?> clazz)
+    {
+        final FieldCodec[] codecs = generator.compileFields(clazz);
+        return new TypeCodec((buf, obj) ->
+        {
+            for (FieldCodec codec : codecs)
+            {
+                codec.encode(obj, buf);
+            }
+        }, buf ->
+        {
+            final Object instance = NetworkFunctionGenerator.instantiatePacket(clazz);
+            for (FieldCodec codec : codecs)
+            {
+                codec.decode(instance, buf);
+            }
+            return instance;
+        });
+    }
+
+    /**
+     * Resolved pair of functions writing and reading values of a type
+     *
+     * @param writer {@link PacketWriteFunc} of the type
+     * @param reader {@link PacketReadFunc} of the type
+     */
+    record TypeCodec(PacketWriteFunc<Object> writer, PacketReadFunc<Object> reader)
+    {
+        @SuppressWarnings("unchecked")
+        static TypeCodec of (PacketWriteFunc<?> writer, PacketReadFunc<?> reader)
+        {
+            return new TypeCodec((PacketWriteFunc<Object>) writer, (PacketReadFunc<Object>) reader);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec wrapping the encoder and decoder of a packet with {@link IncandescentPacket#compressionThreshold()} set.
+ * <p>
+ * The packet is written as a flag byte, followed either by the encoded packet as is,
+ * or by the lengths of the encoded packet and of its deflated form, followed by the latter.
+ * Packets are only deflated if their encoded size reaches the threshold, and only if deflating makes them smaller.
+ * {@link Deflater}s and {@link Inflater}s are reused per thread.
+ * </p>
+ *
+ * @param <T> Packet type
+ */
+final class CompressingCodec<T> implements EncoderFunc<T>, DecoderFunc<T>
+{
+    /**
+     * Largest size of an inflated packet that is accepted, protecting the receiving side from oversized payloads
+     */
+    static final int MAX_INFLATED_SIZE = 1 << 23;
+
+    /**
+     * Largest ratio of the inflated size to the deflated size that deflate can achieve
+     */
+    static final int MAX_DEFLATE_RATIO = 1032;
+
+    private static final byte PLAIN = 0;
+
+    private static final byte DEFLATED = 1;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private final Class<T> clazz;
+
+    private final EncoderFunc<T> encoder;
+
+    private final DecoderFunc<T> decoder;
+
+    private final int threshold;
+
+    private final CompressionStats stats = new CompressionStats();
+
+    CompressingCodec (Class<T> clazz, EncoderFunc<T> encoder, DecoderFunc<T> decoder, int threshold)
+    {
+        this.clazz = clazz;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.threshold = threshold;
+    }
+
+    CompressionStats getStats ()
+    {
+        return stats;
+    }
+
+    @Override
+    public void encode (T packet, FriendlyByteBuf buf)
+    {
+        // The packet is encoded in place, and only copied out if it turns out to be worth deflating
+        final int flagIndex = buf.writerIndex();
+        buf.writeByte(PLAIN);
+        encoder.encode(packet, buf);
+        final int rawIndex = flagIndex + 1;
+        final int rawSize = buf.writerIndex() - rawIndex;
+        if (rawSize >= threshold && rawSize <= MAX_INFLATED_SIZE)
+        {
+            final long start = System.nanoTime();
+            final FriendlyByteBuf deflated = deflate(buf, rawIndex, rawSize);
+            final long nanos = System.nanoTime() - start;
+            try
+            {
+                if (deflated.readableBytes() < rawSize)
+                {
+                    buf.writerIndex(flagIndex);
+                    buf.writeByte(DEFLATED);
+                    buf.writeVarInt(rawSize);
+                    buf.writeVarInt(deflated.readableBytes());
+                    buf.writeBytes(deflated, deflated.readerIndex(), deflated.readableBytes());
+                    stats.recordDeflated(rawSize, deflated.readableBytes(), nanos);
+                    return;
+                }
+            } finally
+            {
+                deflated.release();
+            }
+        }
+        stats.recordPlain(rawSize);
+    }
+
+    @Override
+    public T decode (FriendlyByteBuf buf)
+    {
+        if (buf.readByte() == PLAIN)
+        {
+            return decoder.decode(buf);
+        }
+        final int rawSize = buf.readVarInt();
+        final int compressedSize = buf.readVarInt();
+        // The declared size is allocated before anything is inflated, so it must be one the deflated data can produce
+        if (rawSize < 0 || rawSize > MAX_INFLATED_SIZE || compressedSize < 0 || compressedSize > buf.readableBytes()
+            || rawSize > (long) compressedSize * MAX_DEFLATE_RATIO)
+        {
+            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its compressed payload is malformed");
+        }
+        final long start = System.nanoTime();
+        final byte[] inflated = new byte[rawSize];
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(buf.nioBuffer(buf.readerIndex(), compressedSize));
+        try
+        {
+            int produced = 0;
+            while (produced < rawSize && !inflater.finished())
+            {
+                final int n = inflater.inflate(inflated, produced, rawSize - produced);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                produced += n;
+            }
+            if (produced != rawSize)
+            {
+                throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its compressed payload is truncated");
+            }
+            // Once the output is full, the end of the stream may only be reached by another call
+            if (!inflater.finished() && inflater.inflate(CHUNK.get(), 0, 1) != 0 || !inflater.finished() || inflater.getRemaining() != 0)
+            {
+                throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its compressed payload exceeds its declared size");
+            }
+        } catch (DataFormatException e)
+        {
+            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its compressed payload is malformed", e);
+        }
+        buf.skipBytes(compressedSize);
+        stats.recordInflated(System.nanoTime() - start);
+        final FriendlyByteBuf payload = new FriendlyByteBuf(Unpooled.wrappedBuffer(inflated));
+        final T packet = decoder.decode(payload);
+        if (payload.isReadable())
+        {
+            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because " + payload.readableBytes() + " bytes of its inflated payload were not read");
+        }
+        return packet;
+    }
+
+    private static FriendlyByteBuf deflate (FriendlyByteBuf buf, int index, int length)
+    {
+        final FriendlyByteBuf deflated = new FriendlyByteBuf(Unpooled.buffer());
+        final Deflater deflater = DEFLATER.get();
+        final byte[] chunk = CHUNK.get();
+        deflater.reset();
+        deflater.setInput(buf.nioBuffer(index, length));
+        deflater.finish();
+        while (!deflater.finished())
+        {
+            final int n = deflater.deflate(chunk);
+            deflated.writeBytes(chunk, 0, n);
+        }
+        return deflated;
+    }
+}
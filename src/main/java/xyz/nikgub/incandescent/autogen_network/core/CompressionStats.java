@@ -0,0 +1,132 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of payload compression of a single packet class, used to tune
+ * {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket#compressionThreshold()}
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ * @see IncandescentNetworkCore#getCompressionStats(Class)
+ */
+public final class CompressionStats
+{
+    private final LongAdder packets = new LongAdder();
+
+    private final LongAdder compressedPackets = new LongAdder();
+
+    private final LongAdder rawBytes = new LongAdder();
+
+    private final LongAdder compressedBytes = new LongAdder();
+
+    private final LongAdder deflateNanos = new LongAdder();
+
+    private final LongAdder inflateNanos = new LongAdder();
+
+    CompressionStats ()
+    {
+    }
+
+    void recordPlain (int size)
+    {
+        packets.increment();
+        rawBytes.add(size);
+        compressedBytes.add(size);
+    }
+
+    void recordDeflated (int rawSize, int compressedSize, long nanos)
+    {
+        packets.increment();
+        compressedPackets.increment();
+        rawBytes.add(rawSize);
+        compressedBytes.add(compressedSize);
+        deflateNanos.add(nanos);
+    }
+
+    void recordInflated (long nanos)
+    {
+        inflateNanos.add(nanos);
+    }
+
+    /**
+     * @return Amount of packets encoded
+     */
+    public long getPackets ()
+    {
+        return packets.sum();
+    }
+
+    /**
+     * @return Amount of packets encoded that were compressed
+     */
+    public long getCompressedPackets ()
+    {
+        return compressedPackets.sum();
+    }
+
+    /**
+     * @return Total size of the encoded packets before compression
+     */
+    public long getRawBytes ()
+    {
+        return rawBytes.sum();
+    }
+
+    /**
+     * @return Total size of the encoded packets after compression, including the packets left uncompressed
+     */
+    public long getCompressedBytes ()
+    {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * @return Ratio of the size after compression to the size before compression, {@code 1} if nothing was encoded
+     */
+    public double getRatio ()
+    {
+        final long raw = getRawBytes();
+        return raw == 0 ? 1 : (double) getCompressedBytes() / raw;
+    }
+
+    /**
+     * @return Total time spent deflating the packets, in nanoseconds
+     */
+    public long getDeflateNanos ()
+    {
+        return deflateNanos.sum();
+    }
+
+    /**
+     * @return Total time spent inflating the packets, in nanoseconds
+     */
+    public long getInflateNanos ()
+    {
+        return inflateNanos.sum();
+    }
+
+    @Override
+    public String toString ()
+    {
+        return String.format("packets=%d, compressed=%d, ratio=%.3f, deflate=%.3fms, inflate=%.3fms",
+            getPackets(), getCompressedPackets(), getRatio(), getDeflateNanos() / 1e6, getInflateNanos() / 1e6);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Codec of a packet with {@link IncandescentPacket#delta()} set.
+ * <p>
+ * The packet is written as a bitmask of its segments, i.e. compiled {@link FieldCodec}s, followed by
+ * the segments that changed since the last packet of the same class sent to the same recipient.
+ * Baselines are kept as encoded bytes of each segment on both sides: per recipient on the sending side,
+ * and per connection on the receiving side, which is why delta packets are limited to
+ * {@link net.minecraftforge.network.NetworkDirection#PLAY_TO_CLIENT}.
+ * </p>
+ * <p>
+ * Since the connection is reliable and ordered, the last packet sent to a recipient is the one it will have
+ * applied before the next one arrives, and serves as its acknowledged baseline.
+ * Packets encoded without a known recipient, see {@link #encodingFor(UUID)}, are written in full and invalidate
+ * every baseline of the sending side. Segments are encoded into a buffer reused by the thread and compared
+ * to the baseline in place, only the changed ones being copied.
+ * </p>
+ *
+ * @param <T> Packet type
+ * @see NetworkFunctionGenerator#generateDeltaCodec(Class)
+ */
+final class DeltaCodec<T> implements EncoderFunc<T>, DecoderFunc<T>
+{
+    /**
+     * Recipient the packets are currently encoded for on this thread
+     */
+    private static final ThreadLocal<UUID> RECIPIENT = new ThreadLocal<>();
+
+    /**
+     * Buffer the segments are encoded into before being compared to the baseline, reused by every codec on the thread
+     */
+    private static final ThreadLocal<FriendlyByteBuf> SCRATCH = ThreadLocal.withInitial(() -> new FriendlyByteBuf(Unpooled.buffer()));
+
+    private final Class<T> clazz;
+
+    private final FieldCodec[] segments;
+
+    private final Supplier<T> factory;
+
+    /**
+     * Encoded segments last sent to each recipient, {@code null} where the recipient has no known baseline.
+     * Each array also guards the encoding of packets sent to its recipient.
+     */
+    private final Map<UUID, byte[][]> sentBaselines = new ConcurrentHashMap<>();
+
+    /**
+     * Encoded segments last received from the server
+     */
+    private volatile byte[][] receivedBaseline;
+
+    DeltaCodec (Class<T> clazz, FieldCodec[] segments, Supplier<T> factory)
+    {
+        this.clazz = clazz;
+        this.segments = segments;
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the recipient the packets are encoded for on the current thread
+     *
+     * @param recipient {@link UUID} of the recipient player, or {@code null} to clear it
+     */
+    static void encodingFor (@Nullable UUID recipient)
+    {
+        if (recipient == null)
+        {
+            RECIPIENT.remove();
+            return;
+        }
+        RECIPIENT.set(recipient);
+    }
+
+    /**
+     * Gets the recipient the packets are encoded for on the current thread
+     *
+     * @return {@link UUID} of the recipient player, or {@code null} if it is unknown
+     */
+    static @Nullable UUID encodingRecipient ()
+    {
+        return RECIPIENT.get();
+    }
+
+    /**
+     * Drops the sending side baseline of a recipient, e.g. once it has disconnected
+     *
+     * @param recipient {@link UUID} of the recipient player
+     */
+    void forget (UUID recipient)
+    {
+        sentBaselines.remove(recipient);
+    }
+
+    /**
+     * Drops the receiving side baseline, e.g. once the connection to the server was closed
+     */
+    void reset ()
+    {
+        receivedBaseline = null;
+    }
+
+    @Override
+    public void encode (T packet, FriendlyByteBuf buf)
+    {
+        final FriendlyByteBuf scratch = SCRATCH.get();
+        final int maskIndex = buf.writerIndex();
+        buf.writeZero((segments.length + 7) >> 3);
+        final UUID recipient = RECIPIENT.get();
+        if (recipient == null)
+        {
+            for (byte[][] baseline : sentBaselines.values())
+            {
+                synchronized (baseline)
+                {
+                    Arrays.fill(baseline, null);
+                }
+            }
+            for (int i = 0; i < segments.length; i++)
+            {
+                segments[i].encode(packet, buf);
+                buf.setByte(maskIndex + (i >> 3), buf.getByte(maskIndex + (i >> 3)) | (1 << (i & 7)));
+            }
+            return;
+        }
+        final byte[][] baseline = sentBaselines.computeIfAbsent(recipient, k -> new byte[segments.length][]);
+        // Packets sent to the same recipient have to be encoded in the order they are sent, others do not wait for them
+        synchronized (baseline)
+        {
+            for (int i = 0; i < segments.length; i++)
+            {
+                scratch.clear();
+                segments[i].encode(packet, scratch);
+                if (matches(baseline[i], scratch))
+                {
+                    continue;
+                }
+                baseline[i] = new byte[scratch.readableBytes()];
+                scratch.readBytes(baseline[i]);
+                buf.writeBytes(baseline[i]);
+                buf.setByte(maskIndex + (i >> 3), buf.getByte(maskIndex + (i >> 3)) | (1 << (i & 7)));
+            }
+        }
+    }
+
+    @Override
+    public T decode (FriendlyByteBuf buf)
+    {
+        final byte[] mask = new byte[(segments.length + 7) >> 3];
+        buf.readBytes(mask);
+        final byte[][] baseline = receivedBaseline;
+        final byte[][] current = new byte[segments.length][];
+        final T packet = factory.get();
+        for (int i = 0; i < segments.length; i++)
+        {
+            if ((mask[i >> 3] & (1 << (i & 7))) != 0)
+            {
+                final int start = buf.readerIndex();
+                segments[i].decode(packet, buf);
+                current[i] = new byte[buf.readerIndex() - start];
+                buf.getBytes(start, current[i]);
+                continue;
+            }
+            if (baseline == null)
+            {
+                throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its delta arrived before the baseline");
+            }
+            segments[i].decode(packet, new FriendlyByteBuf(Unpooled.wrappedBuffer(baseline[i])));
+            current[i] = baseline[i];
+        }
+        receivedBaseline = current;
+        return packet;
+    }
+
+    /**
+     * Compares an encoded segment to its baseline in place, without copying it
+     *
+     * @param baseline Encoded segment of the baseline, or {@code null} if it is unknown
+     * @param encoded  Buffer holding the encoded segment as its readable bytes
+     * @return Whether the segment is unchanged
+     */
+    static boolean matches (@Nullable byte[] baseline, FriendlyByteBuf encoded)
+    {
+        if (baseline == null || baseline.length != encoded.readableBytes())
+        {
+            return false;
+        }
+        final int start = encoded.readerIndex();
+        for (int i = 0; i < baseline.length; i++)
+        {
+            if (baseline[i] != encoded.getByte(start + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Codec wrapping the encoder and decoder of a packet with {@link IncandescentPacket#dictionary()} set,
+ * activating the {@link StringDictionary} of the connection while the packet is encoded or decoded.
+ * <p>
+ * The dictionary of the sending side is the one of the recipient, see {@link DeltaCodec#encodingFor(UUID)},
+ * which is why such packets are encoded separately for every recipient. Callers are expected to hold the lock
+ * of the dictionary until the packet is written to the connection, so that packets are encoded in the order they are sent.
+ * </p>
+ *
+ * @param <T> Packet type
+ */
+final class DictionaryCodec<T> implements EncoderFunc<T>, DecoderFunc<T>
+{
+    private final Class<T> clazz;
+
+    private final EncoderFunc<T> encoder;
+
+    private final DecoderFunc<T> decoder;
+
+    private final Function<UUID, StringDictionary> sentDictionaries;
+
+    private final Supplier<StringDictionary> receivedDictionary;
+
+    DictionaryCodec (Class<T> clazz, EncoderFunc<T> encoder, DecoderFunc<T> decoder,
+                     Function<UUID, StringDictionary> sentDictionaries, Supplier<StringDictionary> receivedDictionary)
+    {
+        this.clazz = clazz;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.sentDictionaries = sentDictionaries;
+        this.receivedDictionary = receivedDictionary;
+    }
+
+    @Override
+    public void encode (T packet, FriendlyByteBuf buf)
+    {
+        final UUID recipient = DeltaCodec.encodingRecipient();
+        if (recipient == null)
+        {
+            throw new MalformedPacketException("Cannot encode " + clazz.getName() + " because its recipient is unknown");
+        }
+        final StringDictionary previous = StringDictionary.activate(sentDictionaries.apply(recipient));
+        try
+        {
+            encoder.encode(packet, buf);
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+
+    @Override
+    public T decode (FriendlyByteBuf buf)
+    {
+        final StringDictionary previous = StringDictionary.activate(receivedDictionary.get());
+        try
+        {
+            return decoder.decode(buf);
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+}
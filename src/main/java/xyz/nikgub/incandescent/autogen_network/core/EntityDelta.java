@@ -0,0 +1,96 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import java.util.function.Supplier;
+
+/**
+ * Message carrying the changed {@link xyz.nikgub.incandescent.autogen_network.Replicated} fields of an entity,
+ * written as the bitmask of the changed segments followed by the segments themselves.
+ * The payload is only parsed once the entity is resolved on the client thread, since its layout depends on the entity class.
+ *
+ * @see EntityReplication
+ */
+final class EntityDelta
+{
+    private final EntityReplication replication;
+
+    private final int entityId;
+
+    private final byte[] payload;
+
+    EntityDelta (EntityReplication replication, int entityId, byte[] payload)
+    {
+        this.replication = replication;
+        this.entityId = entityId;
+        this.payload = payload;
+    }
+
+    int entityId ()
+    {
+        return entityId;
+    }
+
+    byte[] payload ()
+    {
+        return payload;
+    }
+
+    /**
+     * Writes the ID of the entity followed by the payload into {@code buf}
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(entityId);
+        buf.writeBytes(payload);
+    }
+
+    /**
+     * Reads a delta from {@code buf}
+     *
+     * @param buf         {@link FriendlyByteBuf} to read from
+     * @param replication {@link EntityReplication} the delta is applied by
+     * @return Received delta
+     */
+    static EntityDelta decode (FriendlyByteBuf buf, EntityReplication replication)
+    {
+        final int entityId = buf.readVarInt();
+        final byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+        return new EntityDelta(replication, entityId, payload);
+    }
+
+    /**
+     * Schedules the delta to be applied on the client thread, see {@link IncandescentPacket.Execution#MAIN}.
+     * Unlike {@link IncandescentPacket.Execution#TICK}, it is ordered with the vanilla packet spawning the entity.
+     * Is expected to be called on the network thread.
+     *
+     * @param contextSupplier Context of the message
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        HandlerExecutor.dispatch((delta, context) -> replication.apply(delta), IncandescentPacket.Execution.MAIN, this, contextSupplier);
+    }
+}
@@ -0,0 +1,288 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraftforge.common.util.LogicalSidedProvider;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+import xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI;
+import xyz.nikgub.incandescent.autogen_network.Replicated;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replication of the {@link Replicated} fields of entities from the server to the clients tracking them.
+ * <p>
+ * Replicated fields of an entity class are compiled once into {@link FieldCodec}s, i.e. segments, by the network core
+ * of the mod registering its entity type. The server keeps the encoded segments last replicated for every entity,
+ * and at the end of every tick encodes the segments again, sending only the ones that differ as {@link EntityDelta}.
+ * Since segments carry the values themselves rather than their differences, a delta can be applied by any client
+ * tracking the entity, and players that start tracking it only need the last replicated segments.
+ * Deltas are applied on the client thread in order with vanilla packets, so the entity they are sent for is already spawned.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ * @see IncandescentNetworkCore#signReplication()
+ */
+public final class EntityReplication
+{
+    private final IncandescentNetworkCore core;
+
+    private final SimpleChannel channel;
+
+    /**
+     * Compiled replicated fields of entity classes, empty for classes without any
+     */
+    private final Map<Class<?>, FieldCodec[]> layouts = new ConcurrentHashMap<>();
+
+    /**
+     * Replicated entities of the server, accessed on the server thread only
+     */
+    private final Map<Entity, Tracked> tracked = new IdentityHashMap<>();
+
+    /**
+     * Buffer the segments are encoded into before they are compared with their baselines
+     */
+    private final FriendlyByteBuf scratch = new FriendlyByteBuf(Unpooled.buffer());
+
+    EntityReplication (IncandescentNetworkCore core, SimpleChannel channel)
+    {
+        this.core = core;
+        this.channel = channel;
+    }
+
+    /**
+     * Starts replicating an entity that joined a server level, if it has any replicated fields.
+     * The first replication of the entity includes all of its fields.
+     *
+     * @param entity Entity that joined the level
+     */
+    public void track (Entity entity)
+    {
+        final FieldCodec[] segments = layoutOf(entity);
+        if (segments.length != 0)
+        {
+            tracked.putIfAbsent(entity, new Tracked(segments));
+        }
+    }
+
+    /**
+     * Stops replicating an entity that left a server level
+     *
+     * @param entity Entity that left the level
+     */
+    public void untrack (Entity entity)
+    {
+        tracked.remove(entity);
+    }
+
+    /**
+     * Sends the replicated fields of an entity to a player that started tracking it.
+     * Fields are sent as they were last replicated, changes made since then follow at the end of the tick.
+     *
+     * @param entity Tracked entity
+     * @param player Player that started tracking the entity
+     */
+    public void startTracking (Entity entity, ServerPlayer player)
+    {
+        final Tracked entry = tracked.get(entity);
+        // Entities that were never replicated yet are sent in full at the end of the tick
+        if (entry == null || entry.baseline[0] == null)
+        {
+            return;
+        }
+        final byte[] mask = new byte[(entry.baseline.length + 7) >> 3];
+        Arrays.fill(mask, (byte) -1);
+        channel.send(PacketDistributor.PLAYER.with(() -> player), new EntityDelta(this, entity.getId(), payload(mask, entry.baseline)));
+    }
+
+    /**
+     * Sends the replicated fields that changed since the last replication to the players tracking their entities.
+     * Entities that are not tracked by any player are skipped and keep their baseline.
+     * Is invoked at the end of every server tick.
+     */
+    public void flush ()
+    {
+        final Iterator<Map.Entry<Entity, Tracked>> iterator = tracked.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            final Map.Entry<Entity, Tracked> entry = iterator.next();
+            final Entity entity = entry.getKey();
+            if (entity.isRemoved())
+            {
+                iterator.remove();
+                continue;
+            }
+            // Nobody would receive the delta, players that start tracking the entity are sent its baseline instead
+            if (!(entity instanceof ServerPlayer) && IncandescentNetworkCore.seenBy(entity).isEmpty())
+            {
+                continue;
+            }
+            final byte[] mask = entry.getValue().update(entity, scratch);
+            if (mask != null)
+            {
+                channel.send(PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> entity),
+                    new EntityDelta(this, entity.getId(), payload(mask, entry.getValue().baseline)));
+            }
+        }
+    }
+
+    /**
+     * Stops replicating all entities, e.g. once the server stopped
+     */
+    public void clear ()
+    {
+        tracked.clear();
+    }
+
+    /**
+     * Applies a received delta to the client-side entity it was sent for.
+     * Deltas of entities that are no longer present on the client are dropped.
+     *
+     * @param delta Received {@link EntityDelta}
+     */
+    void apply (EntityDelta delta)
+    {
+        final Entity entity = LogicalSidedProvider.CLIENTWORLD.get(LogicalSide.CLIENT)
+            .map(level -> level.getEntity(delta.entityId()))
+            .orElse(null);
+        if (entity == null)
+        {
+            return;
+        }
+        final FieldCodec[] segments = layoutOf(entity);
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(delta.payload()));
+        final byte[] mask = new byte[(segments.length + 7) >> 3];
+        buf.readBytes(mask);
+        for (int i = 0; i < segments.length; i++)
+        {
+            if ((mask[i >> 3] & (1 << (i & 7))) != 0)
+            {
+                segments[i].decode(entity, buf);
+            }
+        }
+    }
+
+    /**
+     * Fetches the compiled replicated fields of the class of an entity, compiling them on the first request
+     * with the network core of the mod registering the entity type, or the core this replication belongs to
+     *
+     * @param entity Entity of the class
+     * @return Compiled {@link FieldCodec}s, empty if the class has no replicated fields
+     */
+    private FieldCodec[] layoutOf (Entity entity)
+    {
+        final FieldCodec[] cached = layouts.get(entity.getClass());
+        if (cached != null)
+        {
+            return cached;
+        }
+        final IncandescentNetworkCore owner = IncandescentNetworkAPI.getCores().getOrDefault(EntityType.getKey(entity.getType()).getNamespace(), core);
+        final FieldCodec[] segments = owner.compileReplicatedFields(entity.getClass());
+        layouts.putIfAbsent(entity.getClass(), segments);
+        return segments;
+    }
+
+    /**
+     * Writes the bitmask of the segments followed by the masked segments
+     *
+     * @param mask     Bitmask of the segments to be written
+     * @param segments Encoded segments
+     * @return Payload of {@link EntityDelta}
+     */
+    private static byte[] payload (byte[] mask, byte[][] segments)
+    {
+        int length = mask.length;
+        for (int i = 0; i < segments.length; i++)
+        {
+            if ((mask[i >> 3] & (1 << (i & 7))) != 0)
+            {
+                length += segments[i].length;
+            }
+        }
+        final byte[] payload = new byte[length];
+        System.arraycopy(mask, 0, payload, 0, mask.length);
+        int offset = mask.length;
+        for (int i = 0; i < segments.length; i++)
+        {
+            if ((mask[i >> 3] & (1 << (i & 7))) != 0)
+            {
+                System.arraycopy(segments[i], 0, payload, offset, segments[i].length);
+                offset += segments[i].length;
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * Replicated entity along with its encoded segments last replicated
+     */
+    private static final class Tracked
+    {
+        private final FieldCodec[] segments;
+
+        private final byte[][] baseline;
+
+        private Tracked (FieldCodec[] segments)
+        {
+            this.segments = segments;
+            this.baseline = new byte[segments.length][];
+        }
+
+        /**
+         * Encodes the segments of the entity, replacing the ones of the baseline that changed.
+         * Unchanged segments are compared in place and not copied.
+         *
+         * @param entity  Replicated entity
+         * @param scratch Buffer to encode the segments into
+         * @return Bitmask of the changed segments, or {@code null} if none changed
+         */
+        private byte[] update (Entity entity, FriendlyByteBuf scratch)
+        {
+            byte[] mask = null;
+            for (int i = 0; i < segments.length; i++)
+            {
+                scratch.clear();
+                segments[i].encode(entity, scratch);
+                if (DeltaCodec.matches(baseline[i], scratch))
+                {
+                    continue;
+                }
+                baseline[i] = new byte[scratch.readableBytes()];
+                scratch.readBytes(baseline[i]);
+                if (mask == null)
+                {
+                    mask = new byte[(segments.length + 7) >> 3];
+                }
+                mask[i >> 3] |= (byte) (1 << (i & 7));
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Compiled getters and setters of single {@link IncandescentPacket.Value} fields.
+ * <p>
+ * {@link java.lang.invoke.LambdaMetafactory} cannot target field handles, so accessors are spun as hidden classes instead.
+ * Every accessor class holds the getter and setter {@link MethodHandle}s of its field in static final fields,
+ * which the JIT treats as constants, and invokes them from the {@code get} and {@code set} methods of its kind.
+ * Calls to an accessor are therefore plain virtual calls to straight-line field access,
+ * rather than invocations of handles that cannot be inlined.
+ * </p>
+ * <p>
+ * Accessors are split by the type the field is accessed as, so that primitive fields are accessed without boxing,
+ * and every {@link FieldCodec} holds exactly the kind of accessor it calls.
+ * </p>
+ *
+ * @see FieldCodec
+ */
+final class FieldAccessor
+{
+    private static final String NAME = Type.getInternalName(FieldAccessor.class) + "$$Compiled";
+
+    private static final String METHOD_HANDLE = Type.getInternalName(MethodHandle.class);
+
+    private static final String METHOD_HANDLES = Type.getInternalName(MethodHandles.class);
+
+    private static final String LOOKUP = Type.getInternalName(MethodHandles.Lookup.class);
+
+    private FieldAccessor ()
+    {
+    }
+
+    /**
+     * Accessor of a field accessed as {@link Object}
+     */
+    abstract static class ObjectAccessor
+    {
+        abstract Object get (Object packet);
+
+        abstract void set (Object packet, Object value);
+    }
+
+    /**
+     * Accessor of an {@code int} field
+     */
+    abstract static class IntAccessor
+    {
+        abstract int get (Object packet);
+
+        abstract void set (Object packet, int value);
+    }
+
+    /**
+     * Accessor of a {@code long} field
+     */
+    abstract static class LongAccessor
+    {
+        abstract long get (Object packet);
+
+        abstract void set (Object packet, long value);
+    }
+
+    /**
+     * Accessor of a field accessed as {@code float}
+     */
+    abstract static class FloatAccessor
+    {
+        abstract float get (Object packet);
+
+        abstract void set (Object packet, float value);
+    }
+
+    /**
+     * Accessor of a field accessed as {@code double}
+     */
+    abstract static class DoubleAccessor
+    {
+        abstract double get (Object packet);
+
+        abstract void set (Object packet, double value);
+    }
+
+    /**
+     * Accessor of a field accessed as {@code boolean}
+     */
+    abstract static class BooleanAccessor
+    {
+        abstract boolean get (Object packet);
+
+        abstract void set (Object packet, boolean value);
+    }
+
+    /**
+     * Compiles an accessor of a field accessed as {@link Object}
+     */
+    static ObjectAccessor ofObject (Field field)
+    {
+        return compile(field, Object.class, ObjectAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of an {@code int} field
+     */
+    static IntAccessor ofInt (Field field)
+    {
+        return compile(field, int.class, IntAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of a {@code long} field
+     */
+    static LongAccessor ofLong (Field field)
+    {
+        return compile(field, long.class, LongAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of a field accessed as {@code float}
+     */
+    static FloatAccessor ofFloat (Field field)
+    {
+        return compile(field, float.class, FloatAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of a field accessed as {@code double}
+     */
+    static DoubleAccessor ofDouble (Field field)
+    {
+        return compile(field, double.class, DoubleAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of a field accessed as {@code boolean}
+     */
+    static BooleanAccessor ofBoolean (Field field)
+    {
+        return compile(field, boolean.class, BooleanAccessor.class);
+    }
+
+    /**
+     * Compiles an accessor of a field
+     *
+     * @param field {@link IncandescentPacket.Value} field
+     * @param type  Type the field is accessed as, either {@code int}, {@code long}, {@code float},
+     *              {@code double}, {@code boolean} or {@link Object}
+     * @param kind  Accessor class of the type, which the compiled accessor extends
+     * @param <A>   Accessor type
+     * @return Compiled accessor
+     */
+    private static <A> A compile (Field field, Class<?> type, Class<A> kind)
+    {
+        final MethodHandle getter = FieldCodec.getter(field, type);
+        final MethodHandle setter = FieldCodec.setter(field, type);
+        try
+        {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(emit(type, kind), List.of(getter, setter), true);
+            return kind.cast(lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke());
+        } catch (Throwable e)
+        {
+            throw new MalformedPacketException("Cannot compile accessor of field " + field.getName() + " of packet class " + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Emits the bytecode of an accessor class
+     *
+     * @param type Type the field is accessed as
+     * @param kind Accessor class of the type
+     * @return Class file bytes
+     */
+    private static byte[] emit (Class<?> type, Class<?> kind)
+    {
+        final String superName = Type.getInternalName(kind);
+        final Type value = Type.getType(type);
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, NAME, null, superName, null);
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "GETTER", "L" + METHOD_HANDLE + ";", null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "SETTER", "L" + METHOD_HANDLE + ";", null, null).visitEnd();
+
+        MethodVisitor clinit = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        clinit.visitCode();
+        assignHandle(clinit, "GETTER", 0);
+        assignHandle(clinit, "SETTER", 1);
+        clinit.visitInsn(Opcodes.RETURN);
+        clinit.visitMaxs(0, 0);
+        clinit.visitEnd();
+
+        MethodVisitor init = writer.visitMethod(0, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        final String getterDescriptor = "(Ljava/lang/Object;)" + value.getDescriptor();
+        MethodVisitor get = writer.visitMethod(0, "get", getterDescriptor, null, null);
+        get.visitCode();
+        get.visitFieldInsn(Opcodes.GETSTATIC, NAME, "GETTER", "L" + METHOD_HANDLE + ";");
+        get.visitVarInsn(Opcodes.ALOAD, 1);
+        get.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", getterDescriptor, false);
+        get.visitInsn(value.getOpcode(Opcodes.IRETURN));
+        get.visitMaxs(0, 0);
+        get.visitEnd();
+
+        final String setterDescriptor = "(Ljava/lang/Object;" + value.getDescriptor() + ")V";
+        MethodVisitor set = writer.visitMethod(0, "set", setterDescriptor, null, null);
+        set.visitCode();
+        set.visitFieldInsn(Opcodes.GETSTATIC, NAME, "SETTER", "L" + METHOD_HANDLE + ";");
+        set.visitVarInsn(Opcodes.ALOAD, 1);
+        set.visitVarInsn(value.getOpcode(Opcodes.ILOAD), 2);
+        set.visitMethodInsn(Opcodes.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", setterDescriptor, false);
+        set.visitInsn(Opcodes.RETURN);
+        set.visitMaxs(0, 0);
+        set.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Emits assignment of a static handle field from the class data of the accessor
+     */
+    private static void assignHandle (MethodVisitor clinit, String fieldName, int index)
+    {
+        clinit.visitMethodInsn(Opcodes.INVOKESTATIC, METHOD_HANDLES, "lookup", "()L" + LOOKUP + ";", false);
+        clinit.visitLdcInsn("_");
+        clinit.visitLdcInsn(Type.getType(MethodHandle.class));
+        clinit.visitLdcInsn(index);
+        clinit.visitMethodInsn(Opcodes.INVOKESTATIC, METHOD_HANDLES, "classDataAt",
+            "(L" + LOOKUP + ";Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;", false);
+        clinit.visitTypeInsn(Opcodes.CHECKCAST, METHOD_HANDLE);
+        clinit.visitFieldInsn(Opcodes.PUTSTATIC, NAME, fieldName, "L" + METHOD_HANDLE + ";");
+    }
+}
@@ -0,0 +1,828 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Compiled codec of a single {@link IncandescentPacket.Value} field.
+ * <p>
+ * Field access is compiled once into a {@link FieldAccessor} when the codec is built,
+ * so encoding and decoding do not touch reflection, accessibility flags or caches,
+ * and do not invoke {@link MethodHandle}s the JIT cannot inline.
+ * </p>
+ *
+ * @see NetworkFunctionGenerator
+ */
+abstract class FieldCodec
+{
+    /**
+     * Field this codec was compiled for
+     */
+    protected final Field field;
+
+    protected FieldCodec (Field field)
+    {
+        this.field = field;
+    }
+
+    /**
+     * Writes the value of the field of {@code packet} into {@code buf}
+     *
+     * @param packet Packet instance to read the field from
+     * @param buf    {@link FriendlyByteBuf} to write into
+     */
+    abstract void encode (Object packet, FriendlyByteBuf buf);
+
+    /**
+     * Reads the value of the field from {@code buf} and assigns it to {@code packet}
+     *
+     * @param packet Packet instance to write the field to
+     * @param buf    {@link FriendlyByteBuf} to read from
+     */
+    abstract void decode (Object packet, FriendlyByteBuf buf);
+
+    /**
+     * Compiles a codec of a field using provided read and write functions
+     *
+     * @param field     {@link IncandescentPacket.Value} field
+     * @param writeFunc {@link PacketWriteFunc} for the type of the field
+     * @param readFunc  {@link PacketReadFunc} for the type of the field
+     * @return Compiled {@link FieldCodec}
+     */
+    @SuppressWarnings("unchecked")
+    static FieldCodec of (Field field, PacketWriteFunc<?> writeFunc, PacketReadFunc<?> readFunc)
+    {
+        return new ObjectFieldCodec(field, FieldAccessor.ofObject(field),
+            (PacketWriteFunc<Object>) writeFunc, (PacketReadFunc<Object>) readFunc);
+    }
+
+    /**
+     * Compiles a codec of an {@code int} field, which is read and written without boxing
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code int}
+     * @param writeFunc {@link IntPacketWriteFunc} to write the field with
+     * @param readFunc  {@link IntPacketReadFunc} to read the field with
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofInt (Field field, IntPacketWriteFunc writeFunc, IntPacketReadFunc readFunc)
+    {
+        return new IntFieldCodec(field, FieldAccessor.ofInt(field), writeFunc, readFunc);
+    }
+
+    /**
+     * Compiles a codec of a {@code long} field, which is read and written without boxing
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code long}
+     * @param writeFunc {@link LongPacketWriteFunc} to write the field with
+     * @param readFunc  {@link LongPacketReadFunc} to read the field with
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofLong (Field field, LongPacketWriteFunc writeFunc, LongPacketReadFunc readFunc)
+    {
+        return new LongFieldCodec(field, FieldAccessor.ofLong(field), writeFunc, readFunc);
+    }
+
+    /**
+     * Compiles a codec of a {@code float} field, which is read and written without boxing
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code float}
+     * @param writeFunc {@link FloatPacketWriteFunc} to write the field with
+     * @param readFunc  {@link FloatPacketReadFunc} to read the field with
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofFloat (Field field, FloatPacketWriteFunc writeFunc, FloatPacketReadFunc readFunc)
+    {
+        return new FloatFieldCodec(field, FieldAccessor.ofFloat(field), writeFunc, readFunc);
+    }
+
+    /**
+     * Compiles a codec of a {@code double} field, which is read and written without boxing
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code double}
+     * @param writeFunc {@link DoublePacketWriteFunc} to write the field with
+     * @param readFunc  {@link DoublePacketReadFunc} to read the field with
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofDouble (Field field, DoublePacketWriteFunc writeFunc, DoublePacketReadFunc readFunc)
+    {
+        return new DoubleFieldCodec(field, FieldAccessor.ofDouble(field), writeFunc, readFunc);
+    }
+
+    /**
+     * Compiles a codec of a {@code boolean} field, which is read and written without boxing
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code boolean}
+     * @param writeFunc {@link BooleanPacketWriteFunc} to write the field with
+     * @param readFunc  {@link BooleanPacketReadFunc} to read the field with
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofBoolean (Field field, BooleanPacketWriteFunc writeFunc, BooleanPacketReadFunc readFunc)
+    {
+        return new BooleanFieldCodec(field, FieldAccessor.ofBoolean(field), writeFunc, readFunc);
+    }
+
+    /**
+     * Compiles a codec of consecutive {@code boolean} fields, packing them into a bitfield
+     *
+     * @param fields {@link IncandescentPacket.Value} fields of type {@code boolean} or {@link Boolean}
+     * @return Compiled {@link FieldCodec}
+     * @see IncandescentPacket.Encoding#PACKED
+     */
+    static FieldCodec ofPacked (List<Field> fields)
+    {
+        final FieldAccessor.BooleanAccessor[] accessors = new FieldAccessor.BooleanAccessor[fields.size()];
+        for (int i = 0; i < accessors.length; i++)
+        {
+            accessors[i] = FieldAccessor.ofBoolean(fields.get(i));
+        }
+        return new PackedFieldCodec(fields.get(0), accessors);
+    }
+
+    /**
+     * Compiles a codec of a field written as fixed-point values of reduced precision
+     *
+     * @param field     {@link IncandescentPacket.Value} field of type {@code float}, {@code double},
+     *                  {@link Vector3f} or {@link Quaternionf}, or their boxed counterparts
+     * @param quantized {@link IncandescentPacket.Quantized} annotation of the field
+     * @return Compiled {@link FieldCodec}
+     */
+    static FieldCodec ofQuantized (Field field, IncandescentPacket.Quantized quantized)
+    {
+        final Class<?> type = field.getType();
+        if (type == float.class || type == Float.class)
+        {
+            return new QuantizedFloatFieldCodec(field, FieldAccessor.ofFloat(field), quantized);
+        }
+        if (type == double.class || type == Double.class)
+        {
+            return new QuantizedDoubleFieldCodec(field, FieldAccessor.ofDouble(field), quantized);
+        }
+        if (type == Vector3f.class)
+        {
+            return new QuantizedVectorFieldCodec(field, FieldAccessor.ofObject(field), quantized);
+        }
+        return new QuantizedQuaternionFieldCodec(field, FieldAccessor.ofObject(field), quantized);
+    }
+
+    /**
+     * Resolves a getter of a field adapted to {@code (Object)type}
+     *
+     * @param field Field to resolve the getter for
+     * @param type  Type the getter should return
+     * @return {@link MethodHandle} of the getter
+     */
+    static MethodHandle getter (Field field, Class<?> type)
+    {
+        try
+        {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field)
+                .asType(MethodType.methodType(type, Object.class));
+        } catch (IllegalAccessException | RuntimeException e)
+        {
+            throw new MalformedPacketException("Cannot access field " + field.getName() + " of packet class " + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Resolves a setter of a field adapted to {@code (Object, type)void}
+     *
+     * @param field Field to resolve the setter for
+     * @param type  Type the setter should accept
+     * @return {@link MethodHandle} of the setter
+     */
+    static MethodHandle setter (Field field, Class<?> type)
+    {
+        try
+        {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, type));
+        } catch (IllegalAccessException | RuntimeException e)
+        {
+            throw new MalformedPacketException("Cannot access field " + field.getName() + " of packet class " + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Wraps an exception thrown by a {@link FieldAccessor} of a field
+     *
+     * @param e The exception
+     * @return {@link MalformedPacketException} to be thrown
+     */
+    protected MalformedPacketException accessFailure (Throwable e)
+    {
+        return new MalformedPacketException("Cannot access field " + field.getName() + " of packet class " + field.getDeclaringClass().getName(), e);
+    }
+
+    /**
+     * Codec of a reference-typed field
+     */
+    private static final class ObjectFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.ObjectAccessor accessor;
+
+        private final PacketWriteFunc<Object> writeFunc;
+
+        private final PacketReadFunc<Object> readFunc;
+
+        private ObjectFieldCodec (Field field, FieldAccessor.ObjectAccessor accessor, PacketWriteFunc<Object> writeFunc, PacketReadFunc<Object> readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final Object value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final Object value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of an {@code int} field
+     */
+    private static final class IntFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.IntAccessor accessor;
+
+        private final IntPacketWriteFunc writeFunc;
+
+        private final IntPacketReadFunc readFunc;
+
+        private IntFieldCodec (Field field, FieldAccessor.IntAccessor accessor, IntPacketWriteFunc writeFunc, IntPacketReadFunc readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final int value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final int value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of a {@code long} field
+     */
+    private static final class LongFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.LongAccessor accessor;
+
+        private final LongPacketWriteFunc writeFunc;
+
+        private final LongPacketReadFunc readFunc;
+
+        private LongFieldCodec (Field field, FieldAccessor.LongAccessor accessor, LongPacketWriteFunc writeFunc, LongPacketReadFunc readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final long value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final long value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of a {@code float} field
+     */
+    private static final class FloatFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.FloatAccessor accessor;
+
+        private final FloatPacketWriteFunc writeFunc;
+
+        private final FloatPacketReadFunc readFunc;
+
+        private FloatFieldCodec (Field field, FieldAccessor.FloatAccessor accessor, FloatPacketWriteFunc writeFunc, FloatPacketReadFunc readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final float value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final float value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of a {@code double} field
+     */
+    private static final class DoubleFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.DoubleAccessor accessor;
+
+        private final DoublePacketWriteFunc writeFunc;
+
+        private final DoublePacketReadFunc readFunc;
+
+        private DoubleFieldCodec (Field field, FieldAccessor.DoubleAccessor accessor, DoublePacketWriteFunc writeFunc, DoublePacketReadFunc readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final double value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final double value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of a {@code boolean} field
+     */
+    private static final class BooleanFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.BooleanAccessor accessor;
+
+        private final BooleanPacketWriteFunc writeFunc;
+
+        private final BooleanPacketReadFunc readFunc;
+
+        private BooleanFieldCodec (Field field, FieldAccessor.BooleanAccessor accessor, BooleanPacketWriteFunc writeFunc, BooleanPacketReadFunc readFunc)
+        {
+            super(field);
+            this.accessor = accessor;
+            this.writeFunc = writeFunc;
+            this.readFunc = readFunc;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final boolean value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            writeFunc.write(buf, value);
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            final boolean value = readFunc.read(buf);
+            try
+            {
+                accessor.set(packet, value);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+    }
+
+    /**
+     * Codec of consecutive {@code boolean} fields, packed eight per byte
+     */
+    private static final class PackedFieldCodec extends FieldCodec
+    {
+        private final FieldAccessor.BooleanAccessor[] accessors;
+
+        private PackedFieldCodec (Field field, FieldAccessor.BooleanAccessor[] accessors)
+        {
+            super(field);
+            this.accessors = accessors;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            int bits = 0;
+            for (int i = 0; i < accessors.length; i++)
+            {
+                final boolean value;
+                try
+                {
+                    value = accessors[i].get(packet);
+                } catch (RuntimeException e)
+                {
+                    throw accessFailure(e);
+                }
+                if (value)
+                {
+                    bits |= 1 << (i & 7);
+                }
+                if ((i & 7) == 7 || i == accessors.length - 1)
+                {
+                    buf.writeByte(bits);
+                    bits = 0;
+                }
+            }
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            int bits = 0;
+            for (int i = 0; i < accessors.length; i++)
+            {
+                if ((i & 7) == 0)
+                {
+                    bits = buf.readUnsignedByte();
+                }
+                try
+                {
+                    accessors[i].set(packet, (bits & (1 << (i & 7))) != 0);
+                } catch (RuntimeException e)
+                {
+                    throw accessFailure(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Codec of a field which components are written as fixed-point values of reduced precision,
+     * packed together into the least amount of bytes
+     */
+    private abstract static class QuantizedFieldCodec extends FieldCodec
+    {
+        private final int components;
+
+        private final int bits;
+
+        private final long mask;
+
+        private final double min;
+
+        private final double max;
+
+        private QuantizedFieldCodec (Field field, int components, IncandescentPacket.Quantized quantized)
+        {
+            super(field);
+            this.components = components;
+            this.bits = quantized.bits();
+            this.mask = (1L << bits) - 1;
+            this.min = quantized.min();
+            this.max = quantized.max();
+        }
+
+        /**
+         * Assigns the decoded components to the field of {@code packet}
+         *
+         * @param packet Packet instance to write the field to
+         */
+        abstract void assign (Object packet, double x, double y, double z, double w);
+
+        /**
+         * Writes the components of the field, ignoring the ones past the component count of the field
+         *
+         * @param buf {@link FriendlyByteBuf} to write into
+         */
+        protected void write (FriendlyByteBuf buf, double x, double y, double z, double w)
+        {
+            // Components are packed straight into the accumulator, which never holds more than bits + 7 bits
+            long pending = 0;
+            int pendingBits = 0;
+            for (int i = 0; i < components; i++)
+            {
+                pending |= quantize(i == 0 ? x : i == 1 ? y : i == 2 ? z : w) << pendingBits;
+                pendingBits += bits;
+                while (pendingBits >= 8)
+                {
+                    buf.writeByte((int) pending);
+                    pending >>>= 8;
+                    pendingBits -= 8;
+                }
+            }
+            if (pendingBits > 0)
+            {
+                buf.writeByte((int) pending);
+            }
+        }
+
+        @Override
+        void decode (Object packet, FriendlyByteBuf buf)
+        {
+            double x = 0, y = 0, z = 0, w = 0;
+            long pending = 0;
+            int pendingBits = 0;
+            for (int i = 0; i < components; i++)
+            {
+                while (pendingBits < bits)
+                {
+                    pending |= (long) buf.readUnsignedByte() << pendingBits;
+                    pendingBits += 8;
+                }
+                final double value = dequantize(pending & mask);
+                pending >>>= bits;
+                pendingBits -= bits;
+                switch (i)
+                {
+                    case 0 -> x = value;
+                    case 1 -> y = value;
+                    case 2 -> z = value;
+                    default -> w = value;
+                }
+            }
+            try
+            {
+                assign(packet, x, y, z, w);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+        }
+
+        private long quantize (double value)
+        {
+            final double clamped = Math.max(min, Math.min(max, value));
+            return Math.round((clamped - min) / (max - min) * mask) & mask;
+        }
+
+        private double dequantize (long value)
+        {
+            return min + value * (max - min) / mask;
+        }
+    }
+
+    /**
+     * Quantized codec of a {@code float} field
+     */
+    private static final class QuantizedFloatFieldCodec extends QuantizedFieldCodec
+    {
+        private final FieldAccessor.FloatAccessor accessor;
+
+        private QuantizedFloatFieldCodec (Field field, FieldAccessor.FloatAccessor accessor, IncandescentPacket.Quantized quantized)
+        {
+            super(field, 1, quantized);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final float value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            write(buf, value, 0, 0, 0);
+        }
+
+        @Override
+        void assign (Object packet, double x, double y, double z, double w)
+        {
+            accessor.set(packet, (float) x);
+        }
+    }
+
+    /**
+     * Quantized codec of a {@code double} field
+     */
+    private static final class QuantizedDoubleFieldCodec extends QuantizedFieldCodec
+    {
+        private final FieldAccessor.DoubleAccessor accessor;
+
+        private QuantizedDoubleFieldCodec (Field field, FieldAccessor.DoubleAccessor accessor, IncandescentPacket.Quantized quantized)
+        {
+            super(field, 1, quantized);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final double value;
+            try
+            {
+                value = accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            write(buf, value, 0, 0, 0);
+        }
+
+        @Override
+        void assign (Object packet, double x, double y, double z, double w)
+        {
+            accessor.set(packet, x);
+        }
+    }
+
+    /**
+     * Quantized codec of a {@link Vector3f} field
+     */
+    private static final class QuantizedVectorFieldCodec extends QuantizedFieldCodec
+    {
+        private final FieldAccessor.ObjectAccessor accessor;
+
+        private QuantizedVectorFieldCodec (Field field, FieldAccessor.ObjectAccessor accessor, IncandescentPacket.Quantized quantized)
+        {
+            super(field, 3, quantized);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final Vector3f vector;
+            try
+            {
+                vector = (Vector3f) accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            write(buf, vector.x(), vector.y(), vector.z(), 0);
+        }
+
+        @Override
+        void assign (Object packet, double x, double y, double z, double w)
+        {
+            accessor.set(packet, new Vector3f((float) x, (float) y, (float) z));
+        }
+    }
+
+    /**
+     * Quantized codec of a {@link Quaternionf} field
+     */
+    private static final class QuantizedQuaternionFieldCodec extends QuantizedFieldCodec
+    {
+        private final FieldAccessor.ObjectAccessor accessor;
+
+        private QuantizedQuaternionFieldCodec (Field field, FieldAccessor.ObjectAccessor accessor, IncandescentPacket.Quantized quantized)
+        {
+            super(field, 4, quantized);
+            this.accessor = accessor;
+        }
+
+        @Override
+        void encode (Object packet, FriendlyByteBuf buf)
+        {
+            final Quaternionf quaternion;
+            try
+            {
+                quaternion = (Quaternionf) accessor.get(packet);
+            } catch (RuntimeException e)
+            {
+                throw accessFailure(e);
+            }
+            write(buf, quaternion.x(), quaternion.y(), quaternion.z(), quaternion.w());
+        }
+
+        @Override
+        void assign (Object packet, double x, double y, double z, double w)
+        {
+            accessor.set(packet, new Quaternionf((float) x, (float) y, (float) z, (float) w));
+        }
+    }
+}
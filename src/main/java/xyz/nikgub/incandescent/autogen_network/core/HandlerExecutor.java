@@ -0,0 +1,103 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraftforge.network.NetworkEvent;
+import xyz.nikgub.incandescent.Incandescent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatcher of packet handlers to the threads requested by {@link IncandescentPacket.Handler#value()}
+ *
+ * @see IncandescentPacket.Execution
+ */
+final class HandlerExecutor
+{
+    private HandlerExecutor ()
+    {
+        // This class is not instantiatable
+    }
+
+    /**
+     * Dispatches the handling of a packet. Is expected to be called on the network thread.
+     *
+     * @param handler         {@link HandlerFunc} of the packet
+     * @param execution       {@link IncandescentPacket.Execution} of the handler
+     * @param packet          Received packet
+     * @param contextSupplier Context of the packet
+     * @param <T>             Packet type
+     */
+    static <T> void dispatch (HandlerFunc<T> handler, IncandescentPacket.Execution execution, T packet, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        switch (execution)
+        {
+            case MAIN -> contextSupplier.get().enqueueWork(() -> handler.handle(packet, contextSupplier));
+            case NETWORK -> handler.handle(packet, contextSupplier);
+            case TICK -> InboundQueue.of(contextSupplier.get().getDirection().getReceptionSide()).enqueue(handler, packet, contextSupplier);
+            case WORKER -> Workers.POOL.execute(() ->
+            {
+                try
+                {
+                    handler.handle(packet, contextSupplier);
+                } catch (Throwable e)
+                {
+                    Incandescent.LOGGER.error("[{}] HANDLER FAILED ON WORKER THREAD", packet.getClass().getName(), e);
+                }
+            });
+        }
+        contextSupplier.get().setPacketHandled(true);
+    }
+
+    /**
+     * Holder of the worker pool, created once the first {@link IncandescentPacket.Execution#WORKER} handler runs.
+     * Virtual threads are used if the runtime provides them, otherwise a pool of daemon platform threads.
+     */
+    private static final class Workers
+    {
+        private static final ExecutorService POOL = createPool();
+
+        private static ExecutorService createPool ()
+        {
+            try
+            {
+                return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invokeExact();
+            } catch (Throwable ignored)
+            {
+                // Virtual threads are not available in this runtime
+            }
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable ->
+            {
+                final Thread thread = new Thread(runnable, "Incandescent Packet Worker #" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
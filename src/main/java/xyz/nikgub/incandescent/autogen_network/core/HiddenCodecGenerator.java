@@ -0,0 +1,355 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import xyz.nikgub.incandescent.Incandescent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generator of hidden codec classes, used for packets with {@link IncandescentPacket#hiddenCodec()} set.
+ * <p>
+ * For every such packet a single hidden class is emitted into the packet's nest, implementing both
+ * {@link EncoderFunc} and {@link DecoderFunc} with straight-line field access. Types that map onto
+ * plain {@link io.netty.buffer.ByteBuf} calls are written directly, everything else is delegated to
+ * the functions of {@link PacketIOMapping}, or the codecs of composite types resolved by {@link CompositeCodecs},
+ * held in final fields of the codec instance.
+ * </p>
+ * <p>
+ * Defining a class in the nest of a packet requires a full-privilege {@link MethodHandles.Lookup} of it,
+ * which can be provided through a static field annotated with {@link IncandescentPacket.Lookup}.
+ * If no such lookup can be obtained, or the packet cannot be expressed as a hidden codec,
+ * e.g. because of fields in non-default formats, such as {@link IncandescentPacket.Quantized} ones,
+ * the generator returns {@code null} and the caller falls back to {@link FieldCodec}s.
+ * </p>
+ *
+ * @see NetworkFunctionGenerator
+ */
+class HiddenCodecGenerator
+{
+    private static final String BYTE_BUF = "io/netty/buffer/ByteBuf";
+
+    private static final String FRIENDLY_BYTE_BUF = Type.getInternalName(FriendlyByteBuf.class);
+
+    private static final String WRITE_FUNC = Type.getInternalName(PacketWriteFunc.class);
+
+    private static final String READ_FUNC = Type.getInternalName(PacketReadFunc.class);
+
+    /**
+     * Types that are written with a single {@link io.netty.buffer.ByteBuf} call, both primitive and boxed.
+     * Method names of Netty are not subject to obfuscation, which makes them safe to reference from generated bytecode.
+     */
+    private static final Map<Class<?>, DirectAccess> DIRECT_ACCESS = Map.ofEntries(
+        Map.entry(Boolean.class, new DirectAccess(boolean.class, "writeBoolean", "(Z)", "readBoolean", "()Z")),
+        Map.entry(Byte.class, new DirectAccess(byte.class, "writeByte", "(I)", "readByte", "()B")),
+        Map.entry(Short.class, new DirectAccess(short.class, "writeShort", "(I)", "readShort", "()S")),
+        Map.entry(Character.class, new DirectAccess(char.class, "writeChar", "(I)", "readChar", "()C")),
+        Map.entry(Integer.class, new DirectAccess(int.class, "writeInt", "(I)", "readInt", "()I")),
+        Map.entry(Long.class, new DirectAccess(long.class, "writeLong", "(J)", "readLong", "()J")),
+        Map.entry(Float.class, new DirectAccess(float.class, "writeFloat", "(F)", "readFloat", "()F")),
+        Map.entry(Double.class, new DirectAccess(double.class, "writeDouble", "(D)", "readDouble", "()D")),
+        Map.entry(boolean.class, new DirectAccess(boolean.class, "writeBoolean", "(Z)", "readBoolean", "()Z")),
+        Map.entry(byte.class, new DirectAccess(byte.class, "writeByte", "(I)", "readByte", "()B")),
+        Map.entry(short.class, new DirectAccess(short.class, "writeShort", "(I)", "readShort", "()S")),
+        Map.entry(char.class, new DirectAccess(char.class, "writeChar", "(I)", "readChar", "()C")),
+        Map.entry(int.class, new DirectAccess(int.class, "writeInt", "(I)", "readInt", "()I")),
+        Map.entry(long.class, new DirectAccess(long.class, "writeLong", "(J)", "readLong", "()J")),
+        Map.entry(float.class, new DirectAccess(float.class, "writeFloat", "(F)", "readFloat", "()F")),
+        Map.entry(double.class, new DirectAccess(double.class, "writeDouble", "(D)", "readDouble", "()D"))
+    );
+
+    /**
+     * Attempts to generate a hidden codec for a packet class
+     *
+     * @param clazz      {@link IncandescentPacket} class
+     * @param composites {@link CompositeCodecs} to resolve the delegates of composite fields with
+     * @return Instance of the hidden codec, implementing both {@link EncoderFunc} and {@link DecoderFunc},
+     * or {@code null} if the packet cannot be served by a hidden codec
+     */
+    static @Nullable Object generate (Class<?> clazz, CompositeCodecs composites)
+    {
+        final MethodHandles.Lookup lookup = packetLookup(clazz);
+        if (lookup == null)
+        {
+            Incandescent.LOGGER.warn("[{}] HIDDEN CODEC NOT ACCESSIBLE, FALLBACK TO DEFAULT", clazz.getName());
+            return null;
+        }
+        final List<Field> fields = IncandescentNetworkAPI.getAnnotatedMethods(clazz);
+        final List<Object> delegates = new ArrayList<>();
+        for (Field field : fields)
+        {
+            if (Modifier.isFinal(field.getModifiers()) || Modifier.isStatic(field.getModifiers()))
+            {
+                Incandescent.LOGGER.warn("[{}] HIDDEN CODEC CANNOT ASSIGN FIELD {}, FALLBACK TO DEFAULT", clazz.getName(), field.getName());
+                return null;
+            }
+            if (!NetworkFunctionGenerator.hasDefaultFormat(field))
+            {
+                Incandescent.LOGGER.warn("[{}] HIDDEN CODEC CANNOT ENCODE FIELD {} IN NON-DEFAULT FORMAT, FALLBACK TO DEFAULT", clazz.getName(), field.getName());
+                return null;
+            }
+            if (DIRECT_ACCESS.containsKey(field.getType()))
+            {
+                continue;
+            }
+            final CompositeCodecs.TypeCodec codec;
+            try
+            {
+                codec = composites.resolve(field.getGenericType());
+            } catch (MalformedPacketException e)
+            {
+                return null;
+            }
+            delegates.add(codec.writer());
+            delegates.add(codec.reader());
+        }
+        try
+        {
+            clazz.getDeclaredConstructor();
+        } catch (NoSuchMethodException e)
+        {
+            return null;
+        }
+        try
+        {
+            final MethodHandles.Lookup codecLookup = lookup.defineHiddenClass(emit(clazz, fields), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return codecLookup.findConstructor(codecLookup.lookupClass(), MethodType.methodType(void.class, Object[].class))
+                .invoke((Object) delegates.toArray());
+        } catch (Throwable e)
+        {
+            Incandescent.LOGGER.warn("[{}] HIDDEN CODEC FAILED TO LOAD, FALLBACK TO DEFAULT", clazz.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Obtains a full-privilege lookup of a packet class, either from a field annotated with
+     * {@link IncandescentPacket.Lookup}, or directly if the packet shares the module with the library
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @return {@link MethodHandles.Lookup} with full privilege access to {@code clazz}, or {@code null}
+     */
+    private static @Nullable MethodHandles.Lookup packetLookup (Class<?> clazz)
+    {
+        for (Field field : clazz.getDeclaredFields())
+        {
+            if (!field.isAnnotationPresent(IncandescentPacket.Lookup.class)
+                || !Modifier.isStatic(field.getModifiers()) || field.getType() != MethodHandles.Lookup.class)
+            {
+                continue;
+            }
+            try
+            {
+                field.setAccessible(true);
+                final MethodHandles.Lookup lookup = (MethodHandles.Lookup) field.get(null);
+                if (lookup != null && lookup.lookupClass() == clazz && lookup.hasFullPrivilegeAccess())
+                {
+                    return lookup;
+                }
+            } catch (IllegalAccessException | RuntimeException e)
+            {
+                return null;
+            }
+        }
+        try
+        {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            return lookup.hasFullPrivilegeAccess() ? lookup : null;
+        } catch (IllegalAccessException | RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Emits the bytecode of a hidden codec class
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param fields Ordered {@link IncandescentPacket.Value} fields
+     * @return Class file bytes
+     */
+    private static byte[] emit (Class<?> clazz, List<Field> fields)
+    {
+        final String packet = Type.getInternalName(clazz);
+        final String name = packet + "$$IncandescentCodec";
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, "java/lang/Object",
+            new String[]{Type.getInternalName(EncoderFunc.class), Type.getInternalName(DecoderFunc.class)});
+
+        int delegateCount = 0;
+        for (Field field : fields)
+        {
+            if (!DIRECT_ACCESS.containsKey(field.getType()))
+            {
+                writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "w" + delegateCount, "L" + WRITE_FUNC + ";", null, null).visitEnd();
+                writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "r" + delegateCount, "L" + READ_FUNC + ";", null, null).visitEnd();
+                delegateCount++;
+            }
+        }
+
+        MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        for (int i = 0; i < delegateCount; i++)
+        {
+            assignDelegate(init, name, "w" + i, WRITE_FUNC, i * 2);
+            assignDelegate(init, name, "r" + i, READ_FUNC, i * 2 + 1);
+        }
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        MethodVisitor encode = writer.visitMethod(Opcodes.ACC_PUBLIC, "encode", "(Ljava/lang/Object;L" + FRIENDLY_BYTE_BUF + ";)V", null, null);
+        encode.visitCode();
+        encode.visitVarInsn(Opcodes.ALOAD, 1);
+        encode.visitTypeInsn(Opcodes.CHECKCAST, packet);
+        encode.visitVarInsn(Opcodes.ASTORE, 3);
+        int delegate = 0;
+        for (Field field : fields)
+        {
+            final String descriptor = Type.getDescriptor(field.getType());
+            final DirectAccess direct = DIRECT_ACCESS.get(field.getType());
+            if (direct != null)
+            {
+                encode.visitVarInsn(Opcodes.ALOAD, 2);
+                encode.visitVarInsn(Opcodes.ALOAD, 3);
+                encode.visitFieldInsn(Opcodes.GETFIELD, packet, field.getName(), descriptor);
+                direct.unbox(encode, field.getType());
+                encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BYTE_BUF, direct.writeName, direct.writeArgs + "L" + BYTE_BUF + ";", false);
+                encode.visitInsn(Opcodes.POP);
+                continue;
+            }
+            encode.visitVarInsn(Opcodes.ALOAD, 0);
+            encode.visitFieldInsn(Opcodes.GETFIELD, name, "w" + delegate++, "L" + WRITE_FUNC + ";");
+            encode.visitVarInsn(Opcodes.ALOAD, 2);
+            encode.visitVarInsn(Opcodes.ALOAD, 3);
+            encode.visitFieldInsn(Opcodes.GETFIELD, packet, field.getName(), descriptor);
+            encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, WRITE_FUNC, "write", "(L" + FRIENDLY_BYTE_BUF + ";Ljava/lang/Object;)V", true);
+        }
+        encode.visitInsn(Opcodes.RETURN);
+        encode.visitMaxs(0, 0);
+        encode.visitEnd();
+
+        MethodVisitor decode = writer.visitMethod(Opcodes.ACC_PUBLIC, "decode", "(L" + FRIENDLY_BYTE_BUF + ";)Ljava/lang/Object;", null, null);
+        decode.visitCode();
+        decode.visitTypeInsn(Opcodes.NEW, packet);
+        decode.visitInsn(Opcodes.DUP);
+        decode.visitMethodInsn(Opcodes.INVOKESPECIAL, packet, "<init>", "()V", false);
+        decode.visitVarInsn(Opcodes.ASTORE, 2);
+        delegate = 0;
+        for (Field field : fields)
+        {
+            final String descriptor = Type.getDescriptor(field.getType());
+            final DirectAccess direct = DIRECT_ACCESS.get(field.getType());
+            decode.visitVarInsn(Opcodes.ALOAD, 2);
+            if (direct != null)
+            {
+                decode.visitVarInsn(Opcodes.ALOAD, 1);
+                decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BYTE_BUF, direct.readName, direct.readDescriptor, false);
+                direct.box(decode, field.getType());
+            } else
+            {
+                decode.visitVarInsn(Opcodes.ALOAD, 0);
+                decode.visitFieldInsn(Opcodes.GETFIELD, name, "r" + delegate++, "L" + READ_FUNC + ";");
+                decode.visitVarInsn(Opcodes.ALOAD, 1);
+                decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, READ_FUNC, "read", "(L" + FRIENDLY_BYTE_BUF + ";)Ljava/lang/Object;", true);
+                decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(field.getType()));
+            }
+            decode.visitFieldInsn(Opcodes.PUTFIELD, packet, field.getName(), descriptor);
+        }
+        decode.visitVarInsn(Opcodes.ALOAD, 2);
+        decode.visitInsn(Opcodes.ARETURN);
+        decode.visitMaxs(0, 0);
+        decode.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Emits assignment of a delegate function from the constructor argument array
+     */
+    private static void assignDelegate (MethodVisitor init, String owner, String fieldName, String type, int index)
+    {
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitVarInsn(Opcodes.ALOAD, 1);
+        init.visitLdcInsn(index);
+        init.visitInsn(Opcodes.AALOAD);
+        init.visitTypeInsn(Opcodes.CHECKCAST, type);
+        init.visitFieldInsn(Opcodes.PUTFIELD, owner, fieldName, "L" + type + ";");
+    }
+
+    /**
+     * Description of a field type that is written with a single {@link io.netty.buffer.ByteBuf} call
+     *
+     * @param primitive      Primitive type the value is written as
+     * @param writeName      Name of the write method
+     * @param writeArgs      Argument part of the write method descriptor
+     * @param readName       Name of the read method
+     * @param readDescriptor Descriptor of the read method
+     */
+    private record DirectAccess(Class<?> primitive, String writeName, String writeArgs, String readName, String readDescriptor)
+    {
+        /**
+         * Emits conversion of a field value on the stack into {@link #primitive}
+         */
+        void unbox (MethodVisitor visitor, Class<?> type)
+        {
+            if (type.isPrimitive())
+            {
+                return;
+            }
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(type), primitive.getName() + "Value",
+                "()" + Type.getDescriptor(primitive), false);
+        }
+
+        /**
+         * Emits conversion of a {@link #primitive} on the stack into the field type
+         */
+        void box (MethodVisitor visitor, Class<?> type)
+        {
+            if (type.isPrimitive())
+            {
+                return;
+            }
+            visitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(type), "valueOf",
+                "(" + Type.getDescriptor(primitive) + ")" + Type.getDescriptor(type), false);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.network.NetworkEvent;
+import xyz.nikgub.incandescent.Incandescent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Queue of received packets with {@link IncandescentPacket.Execution#TICK} handlers, one per logical side.
+ * <p>
+ * Packets are appended by the network threads without locking. The packet appended to an empty queue schedules
+ * a single drain on the main thread, in order with the vanilla packets received before it, and the drain handles
+ * every packet queued by the time it runs in the order they arrived, see {@link #drain()}.
+ * Packets that do not fit into the time budget of a drain are carried over to the start of the next tick.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ * @see HandlerExecutor
+ */
+public final class InboundQueue
+{
+    private static final InboundQueue SERVER = new InboundQueue();
+
+    private static final InboundQueue CLIENT = new InboundQueue();
+
+    private final Queue<Entry<?>> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Amount of packets in {@link #queue}, since {@link ConcurrentLinkedQueue#size()} traverses the queue
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final LongAccumulator maxDepth = new LongAccumulator(Long::max, 0);
+
+    private final LongAdder handled = new LongAdder();
+
+    private final LongAdder carriedOver = new LongAdder();
+
+    /**
+     * Time a drain can take, in nanoseconds, non-positive if unlimited
+     */
+    private volatile long budgetNanos;
+
+    private InboundQueue ()
+    {
+    }
+
+    /**
+     * Fetches the queue of a logical side
+     *
+     * @param side {@link LogicalSide} receiving the packets
+     * @return {@link InboundQueue} of the side
+     */
+    public static InboundQueue of (LogicalSide side)
+    {
+        return side == LogicalSide.SERVER ? SERVER : CLIENT;
+    }
+
+    /**
+     * Appends a received packet to the queue, scheduling a drain on the main thread if the queue was empty.
+     * Is expected to be called on the network thread.
+     *
+     * @param handler         {@link HandlerFunc} of the packet
+     * @param packet          Received packet
+     * @param contextSupplier Context of the packet
+     * @param <T>             Packet type
+     */
+    <T> void enqueue (HandlerFunc<T> handler, T packet, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        queue.add(new Entry<>(handler, packet, contextSupplier));
+        final int queued = depth.incrementAndGet();
+        maxDepth.accumulate(queued);
+        // Packets appended while a drain is pending or carried over are handled by that drain
+        if (queued == 1)
+        {
+            contextSupplier.get().enqueueWork(this::drain);
+        }
+    }
+
+    /**
+     * Sets the time a drain can take
+     *
+     * @param budgetNanos Time the handlers can take per drain, in nanoseconds, non-positive if unlimited
+     */
+    public void setBudget (long budgetNanos)
+    {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Handles the queued packets in the order they arrived, until the queue is empty or the budget is exhausted.
+     * At least one packet is handled per call, so that the queue makes progress regardless of the budget.
+     * Is expected to be called on the main thread of the side, when scheduled by {@link #enqueue(HandlerFunc, Object, Supplier)}
+     * and at the start of every tick for the packets carried over.
+     */
+    public void drain ()
+    {
+        final long budgetNanos = this.budgetNanos;
+        final long start = System.nanoTime();
+        Entry<?> entry;
+        while ((entry = queue.poll()) != null)
+        {
+            depth.decrementAndGet();
+            handled.increment();
+            try
+            {
+                entry.handle();
+            } catch (Throwable e)
+            {
+                Incandescent.LOGGER.error("[{}] HANDLER FAILED ON MAIN THREAD", entry.packet().getClass().getName(), e);
+            }
+            if (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos)
+            {
+                break;
+            }
+        }
+        if (!queue.isEmpty())
+        {
+            carriedOver.increment();
+        }
+    }
+
+    /**
+     * Drops the queued packets, e.g. once the connection they were received from is closed
+     */
+    public void clear ()
+    {
+        while (queue.poll() != null)
+        {
+            depth.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return Amount of packets currently queued
+     */
+    public int getDepth ()
+    {
+        return depth.get();
+    }
+
+    /**
+     * @return Largest amount of packets that were queued at once
+     */
+    public long getMaxDepth ()
+    {
+        return maxDepth.get();
+    }
+
+    /**
+     * @return Amount of packets handled from the queue
+     */
+    public long getHandled ()
+    {
+        return handled.sum();
+    }
+
+    /**
+     * @return Amount of drains that left packets in the queue for the next tick
+     */
+    public long getCarriedOver ()
+    {
+        return carriedOver.sum();
+    }
+
+    @Override
+    public String toString ()
+    {
+        return String.format("depth=%d (max %d), handled=%d, carried over=%d", getDepth(), getMaxDepth(), getHandled(), getCarriedOver());
+    }
+
+    private record Entry<T>(HandlerFunc<T> handler, T packet, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        void handle ()
+        {
+            handler.handle(packet, contextSupplier);
+        }
+    }
+}
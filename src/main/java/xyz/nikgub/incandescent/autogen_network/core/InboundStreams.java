@@ -0,0 +1,159 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Receiving side of the transfers of {@link IncandescentPacket#streamed()} packets of a single {@link IncandescentNetworkCore},
+ * reassembling the chunks of every transfer into a pooled buffer until the packet can be decoded.
+ * <p>
+ * Buffers grow along with the received chunks rather than being allocated for the announced length upfront,
+ * and the amount of concurrent transfers and their lengths are limited, so that a malformed transfer
+ * cannot allocate more than it carries.
+ * </p>
+ *
+ * @see StreamChunk
+ */
+final class InboundStreams
+{
+    /**
+     * Longest encoded packet that can be streamed
+     */
+    static final int MAX_LENGTH = 1 << 26;
+
+    /**
+     * Amount of transfers that can be in progress at once
+     */
+    static final int MAX_TRANSFERS = 64;
+
+    private final IntFunction<SignedPacket<?>> packets;
+
+    private final Map<Integer, Transfer> transfers = new HashMap<>();
+
+    InboundStreams (IntFunction<SignedPacket<?>> packets)
+    {
+        this.packets = packets;
+    }
+
+    /**
+     * Begins a transfer with its first chunk
+     *
+     * @param id    ID of the transfer
+     * @param index Discriminator of the streamed packet
+     * @param total Length of the encoded packet
+     * @param chunk Buffer positioned at the data of the chunk, read until its end
+     * @return Decoded packet, if the chunk is the only one of its transfer
+     */
+    synchronized @Nullable Completed begin (int id, int index, int total, FriendlyByteBuf chunk)
+    {
+        final SignedPacket<?> packet = packets.apply(index);
+        if (packet == null || !packet.annotation().streamed())
+        {
+            throw new MalformedPacketException("Cannot stream packet with discriminator " + index + " because it is not a streamed packet");
+        }
+        if (total < 0 || total > MAX_LENGTH)
+        {
+            throw new MalformedPacketException("Cannot stream " + packet.clazz().getName() + " of " + total + " bytes");
+        }
+        if (transfers.containsKey(id) || transfers.size() >= MAX_TRANSFERS)
+        {
+            throw new MalformedPacketException("Cannot begin transfer #" + id + " of " + packet.clazz().getName());
+        }
+        final Transfer transfer = new Transfer(packet, total, PooledByteBufAllocator.DEFAULT.buffer(Math.min(total, OutboundStreams.CHUNK_SIZE), total));
+        transfers.put(id, transfer);
+        return append(id, transfer, chunk);
+    }
+
+    /**
+     * Appends a chunk to the transfer it belongs to
+     *
+     * @param id     ID of the transfer
+     * @param offset Offset of the chunk within the encoded packet
+     * @param chunk  Buffer positioned at the data of the chunk, read until its end
+     * @return Decoded packet, if the chunk is the last one of its transfer
+     */
+    synchronized @Nullable Completed append (int id, int offset, FriendlyByteBuf chunk)
+    {
+        final Transfer transfer = transfers.get(id);
+        if (transfer == null || transfer.data.writerIndex() != offset)
+        {
+            throw new MalformedPacketException("Cannot append chunk at " + offset + " to transfer #" + id);
+        }
+        return append(id, transfer, chunk);
+    }
+
+    /**
+     * Drops the transfers in progress, e.g. once the connection they were received from is closed
+     */
+    synchronized void clear ()
+    {
+        for (Transfer transfer : transfers.values())
+        {
+            transfer.data.release();
+        }
+        transfers.clear();
+    }
+
+    private @Nullable Completed append (int id, Transfer transfer, FriendlyByteBuf chunk)
+    {
+        if (chunk.readableBytes() > transfer.total - transfer.data.writerIndex())
+        {
+            transfers.remove(id);
+            transfer.data.release();
+            throw new MalformedPacketException("Cannot append " + chunk.readableBytes() + " bytes past the end of transfer #" + id);
+        }
+        transfer.data.writeBytes(chunk);
+        if (transfer.data.writerIndex() < transfer.total)
+        {
+            return null;
+        }
+        transfers.remove(id);
+        try
+        {
+            return new Completed(transfer.packet, transfer.packet.decoder().decode(new FriendlyByteBuf(transfer.data)));
+        } finally
+        {
+            transfer.data.release();
+        }
+    }
+
+    /**
+     * Packet whose transfer is complete
+     *
+     * @param packet  {@link SignedPacket} of the packet class
+     * @param message Decoded packet
+     */
+    record Completed(SignedPacket<?> packet, Object message)
+    {
+    }
+
+    private record Transfer(SignedPacket<?> packet, int total, ByteBuf data)
+    {
+    }
+}
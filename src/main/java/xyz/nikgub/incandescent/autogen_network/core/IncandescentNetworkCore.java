@@ -18,11 +18,21 @@
 
 package xyz.nikgub.incandescent.autogen_network.core;
 
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerPlayerConnection;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
+import net.minecraftforge.server.ServerLifecycleHooks;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import xyz.nikgub.incandescent.Incandescent;
@@ -31,13 +41,29 @@ import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketExceptio
 import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
 import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
 import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketDescriptor;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+import xyz.nikgub.incandescent.mixin.ChunkMapAccessor;
+import xyz.nikgub.incandescent.mixin.TrackedEntityAccessor;
 import xyz.nikgub.incandescent.util.CacheMap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -47,77 +73,1265 @@ import java.util.function.Supplier;
  */
 public class IncandescentNetworkCore
 {
+    /**
+     * {@link Function#apply(Object)}, bound to the key getters of {@link PacketDescriptor}s
+     */
+    private static final MethodHandle FUNCTION_APPLY = applyHandle(Function.class, MethodType.methodType(Object.class, Object.class));
+
+    /**
+     * {@link BiFunction#apply(Object, Object)}, bound to the responders of {@link PacketDescriptor}s
+     */
+    private static final MethodHandle BI_FUNCTION_APPLY = applyHandle(BiFunction.class, MethodType.methodType(Object.class, Object.class, Object.class));
+
     /**
      * Actual channel through which the packets are sent;
      */
     private final SimpleChannel channelInstance;
 
     /**
-     * Function generator used for this core instance.
+     * Function generator used for this core instance.
+     */
+    private final NetworkFunctionGenerator generator;
+
+    /**
+     * Cache for a decoding function of a packet class.
+     * Is being collected in {@link #getDecoder(Class)}
+     */
+    private final Map<Class<?>, DecoderFunc<?>> DECODER_CACHE;
+
+    /**
+     * Cache for an encoding function of a packet class.
+     * Is being collected in {@link #getEncoder(Class)}
+     */
+    private final Map<Class<?>, EncoderFunc<?>> ENCODER_CACHE;
+
+    /**
+     * Cache for a handling function of a packet class.
+     * Is being collected in {@link #getHandler(Class)}
+     */
+    private final Map<Class<?>, HandlerFunc<?>> HANDLER_CACHE;
+
+    /**
+     * Codecs of packets with {@link IncandescentPacket#delta()} set.
+     * Unlike other caches, these hold the baselines of the packets and are never evicted.
+     */
+    private final Map<Class<?>, DeltaCodec<?>> DELTA_CODECS = new ConcurrentHashMap<>();
+
+    /**
+     * String dictionaries of packets with {@link IncandescentPacket#dictionary()} set, mapped by their recipients
+     */
+    private final Map<UUID, StringDictionary> SENT_DICTIONARIES = new ConcurrentHashMap<>();
+
+    /**
+     * String dictionary of packets with {@link IncandescentPacket#dictionary()} set received from the server
+     */
+    private volatile StringDictionary receivedDictionary = new StringDictionary(false);
+
+    /**
+     * Packets signed to this core, mapped by their classes
+     */
+    private final Map<Class<?>, SignedPacket<?>> SIGNED = new ConcurrentHashMap<>();
+
+    /**
+     * Packets signed to this core, ordered by their discriminators.
+     * The discriminator of {@link PacketBundle}, if signed, is occupied by {@code null}.
+     */
+    private final List<SignedPacket<?>> SIGNED_BY_INDEX = new ArrayList<>();
+
+    /**
+     * Compression statistics of packets with {@link IncandescentPacket#compressionThreshold()} set
+     */
+    private final Map<Class<?>, CompressionStats> COMPRESSION_STATS = new ConcurrentHashMap<>();
+
+    /**
+     * Network statistics of every signed packet class
+     */
+    private final Map<Class<?>, PacketStats> PACKET_STATS = new ConcurrentHashMap<>();
+
+    /**
+     * Outbound queues of {@link IncandescentPacket#batched()} packets,
+     * created once the first of such packets is signed
+     */
+    private @Nullable OutboundBatcher batcher;
+
+    /**
+     * Whether {@link LoopbackPacket} is signed, which happens once the first {@link IncandescentPacket#shareable()} packet is signed
+     */
+    private boolean loopback;
+
+    /**
+     * Requests of packets with {@link IncandescentPacket#response()} set,
+     * created once the first of such packets is signed
+     */
+    private @Nullable RpcEndpoint rpc;
+
+    /**
+     * Replication of {@link xyz.nikgub.incandescent.autogen_network.Replicated} entity fields,
+     * created once it is signed, see {@link #signReplication()}
+     */
+    private @Nullable EntityReplication replication;
+
+    /**
+     * Amount of bytes that can be flushed to a single player at the end of a tick, non-positive if unlimited
+     */
+    private int bandwidthBudget = 0;
+
+    /**
+     * Sending side of the transfers of {@link IncandescentPacket#streamed()} packets,
+     * created once the first of such packets is signed
+     */
+    private @Nullable OutboundStreams outboundStreams;
+
+    /**
+     * Receiving side of the transfers of {@link IncandescentPacket#streamed()} packets,
+     * created once the first of such packets is signed
+     */
+    private @Nullable InboundStreams inboundStreams;
+
+    /**
+     * Amount of bytes of streamed packets that can be sent to a single player per tick, non-positive if unlimited
+     */
+    private int streamWindow = 0;
+
+    /**
+     * ID of the last packet signed. Doubles as total packet count.
+     */
+    private int lastPacket = 0;
+
+    public static IncandescentNetworkCore simple (String modId)
+    {
+        return new IncandescentNetworkCore(modId, 8);
+    }
+
+    public static IncandescentNetworkCore withCacheSize (String modId, int maxCacheSize)
+    {
+        return new IncandescentNetworkCore(modId, maxCacheSize);
+    }
+
+    private IncandescentNetworkCore (String modId, int maxCacheSize)
+    {
+        this.channelInstance = NetworkRegistry.ChannelBuilder.named(new ResourceLocation(modId, "messages"))
+            .networkProtocolVersion(() -> "1.0")
+            .clientAcceptedVersions(s -> true)
+            .serverAcceptedVersions(s -> true)
+            .simpleChannel();
+        this.generator = new NetworkFunctionGenerator();
+        this.DECODER_CACHE = new CacheMap<>(maxCacheSize);
+        this.ENCODER_CACHE = new CacheMap<>(maxCacheSize);
+        this.HANDLER_CACHE = new CacheMap<>(maxCacheSize);
+    }
+
+    /**
+     * Signs the packet to the channel.
+     * From here, other functions are invoked
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @param <T>   Packet type
+     */
+    public <T> void sign (Class<T> clazz)
+    {
+        final IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
+        this.sign(clazz, packet, getKeyGetter(clazz, packet),
+            getHandlerMethod(clazz).getAnnotation(IncandescentPacket.Handler.class).value(), this.getHandler(clazz),
+            packet.response() != Void.class ? getResponder(clazz) : null);
+    }
+
+    /**
+     * Signs the packet to the channel as described by the annotation processor,
+     * without reflecting over the packet class. Encoder and decoder not provided
+     * by the descriptor are generated at runtime, as in {@link #sign(Class)}.
+     *
+     * @param descriptor {@link PacketDescriptor} of the packet
+     * @param <T>        Packet type
+     */
+    public <T> void sign (PacketDescriptor<T> descriptor)
+    {
+        final Class<T> clazz = descriptor.packetClass();
+        final EncoderFunc<T> encoder = descriptor.encoder();
+        final DecoderFunc<T> decoder = descriptor.decoder();
+        if (encoder != null && decoder != null)
+        {
+            this.ENCODER_CACHE.put(clazz, encoder);
+            this.DECODER_CACHE.put(clazz, decoder);
+        }
+        this.HANDLER_CACHE.put(clazz, descriptor.handler());
+        final Function<T, ?> key = descriptor.key();
+        final BiFunction<T, Supplier<NetworkEvent.Context>, ?> responder = descriptor.responder();
+        this.sign(clazz, descriptor.annotation(), key == null ? null : FUNCTION_APPLY.bindTo(key),
+            descriptor.execution(), descriptor.handler(),
+            responder == null ? null : BI_FUNCTION_APPLY.bindTo(responder).asType(MethodType.methodType(Object.class, Object.class, Supplier.class)));
+    }
+
+    /**
+     * Signs the packet to the channel, given everything gathered about its class
+     *
+     * @param clazz         {@link IncandescentPacket} class
+     * @param packet        {@link IncandescentPacket} annotation of the class
+     * @param key           Getter of the {@link IncandescentPacket.Key} field adapted to {@code (Object)Object}, or {@code null}
+     * @param execution     {@link IncandescentPacket.Execution} of the handler
+     * @param packetHandler {@link HandlerFunc} of the packet
+     * @param responder     Handler of the request adapted to {@code (Object, Supplier)Object}, or {@code null} if the packet is not a request
+     * @param <T>           Packet type
+     */
+    private <T> void sign (Class<T> clazz, IncandescentPacket packet, @Nullable MethodHandle key, IncandescentPacket.Execution execution,
+                           HandlerFunc<T> packetHandler, @Nullable MethodHandle responder)
+    {
+        if (packet.batched() || packet.priority() == IncandescentPacket.Priority.LOW || key != null)
+        {
+            this.signBundle(clazz, packet);
+        }
+        if (packet.shareable())
+        {
+            this.signLoopback(clazz, packet);
+        }
+        if (packet.streamed())
+        {
+            this.signStream(clazz, packet);
+        }
+        if (packet.response() != Void.class)
+        {
+            this.signRpc(clazz, packet);
+        }
+        EncoderFunc<T> encoder;
+        DecoderFunc<T> decoder;
+        PacketPool<T> pool = null;
+        if (packet.pooled())
+        {
+            pool = this.getPacketPool(clazz, packet);
+            encoder = this.getEncoder(clazz);
+            decoder = this.generator.generatePooledDecoder(clazz, pool);
+        } else if (packet.delta())
+        {
+            final DeltaCodec<T> codec = this.getDeltaCodec(clazz, packet);
+            encoder = codec;
+            decoder = codec;
+        } else
+        {
+            encoder = this.getEncoder(clazz);
+            decoder = this.getDecoder(clazz);
+        }
+        if (packet.dictionary())
+        {
+            checkDictionary(clazz, packet, key);
+            final DictionaryCodec<T> codec = new DictionaryCodec<>(clazz, encoder, decoder, this::getSentDictionary, () -> this.receivedDictionary);
+            encoder = codec;
+            decoder = codec;
+        }
+        if (packet.compressionThreshold() >= 0)
+        {
+            final CompressingCodec<T> codec = new CompressingCodec<>(clazz, encoder, decoder, packet.compressionThreshold());
+            this.COMPRESSION_STATS.put(clazz, codec.getStats());
+            encoder = codec;
+            decoder = codec;
+        }
+        final PacketStats stats = new PacketStats();
+        this.PACKET_STATS.put(clazz, stats);
+        final MeteredCodec<T> metered = new MeteredCodec<>(encoder, decoder, stats);
+        HandlerFunc<T> handler = metered.meter(packetHandler);
+        if (pool != null)
+        {
+            handler = pool.recycling(handler);
+        }
+        final SignedPacket<T> signed = new SignedPacket<>(lastPacket++, clazz, packet, metered, metered, handler, execution, stats, key);
+        this.SIGNED.put(clazz, signed);
+        this.SIGNED_BY_INDEX.add(signed);
+        final SimpleChannel.MessageBuilder<T> builder = this.channelInstance.messageBuilder(clazz, signed.index(), packet.direction())
+            .decoder(signed.decoder()::decode)
+            .encoder(signed.encoder()::encode);
+        if (execution == IncandescentPacket.Execution.MAIN)
+        {
+            builder.consumerMainThread(signed.handler()::handle);
+        } else
+        {
+            builder.consumerNetworkThread(signed::dispatch);
+        }
+        builder.add();
+        if (packet.response() != Void.class)
+        {
+            this.rpc.register(signed, this.getEncoder(packet.response()), this.getDecoder(packet.response()), Objects.requireNonNull(responder));
+        }
+    }
+
+    /**
+     * Registers a codec of a type for the packets of this core, complementing the tables of {@link PacketIOMapping}.
+     * Codecs registered for a core take precedence over the ones registered globally, and have to be registered
+     * before the packets using them are signed.
+     *
+     * @param clazz     Type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Type the codec is registered for
+     * @throws MalformedPacketException If the type has a built-in codec, or already has a registered one
+     * @see PacketIOMapping#register(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public <T> void registerCodec (Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        this.generator.getCodecs().register(clazz, writeFunc, readFunc, false);
+    }
+
+    /**
+     * Registers a codec of a type and all of its subtypes for the packets of this core.
+     * The read function is expected to produce instances of the exact subtype being read, e.g. by writing a type tag.
+     *
+     * @param clazz     Base type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Base type the codec is registered for
+     * @throws MalformedPacketException If the type has a built-in codec, or already has a registered one
+     * @see PacketIOMapping#registerHierarchy(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public <T> void registerHierarchyCodec (Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        this.generator.getCodecs().register(clazz, writeFunc, readFunc, true);
+    }
+
+    /**
+     * Builds the {@link DeltaCodec} of a packet with {@link IncandescentPacket#delta()} set,
+     * using its {@link IncandescentPacket.Value} fields.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     * @param <T>    Packet type
+     * @return {@link DeltaCodec} of the packet
+     */
+    private <T> DeltaCodec<T> getDeltaCodec (Class<T> clazz, IncandescentPacket packet)
+    {
+        if (packet.direction() != NetworkDirection.PLAY_TO_CLIENT)
+        {
+            throw new MalformedPacketException("Delta packet " + clazz + " must be played to client");
+        }
+        // Dropping a delta whose baseline was already advanced would desynchronize both sides
+        if (packet.priority() == IncandescentPacket.Priority.LOW)
+        {
+            throw new MalformedPacketException("Delta packet " + clazz + " cannot be of low priority, since low priority packets may be dropped");
+        }
+        boolean decoderPresent;
+        try
+        {
+            clazz.getConstructor(FriendlyByteBuf.class);
+            decoderPresent = true;
+        } catch (NoSuchMethodException e)
+        {
+            decoderPresent = false;
+        }
+        if (decoderPresent || getEncoderMethod(clazz) != null)
+        {
+            throw new MalformedPacketException("Delta packet " + clazz + " cannot define its own encoder or decoder");
+        }
+        final DeltaCodec<T> codec = this.generator.generateDeltaCodec(clazz);
+        this.DELTA_CODECS.put(clazz, codec);
+        return codec;
+    }
+
+    /**
+     * Checks that a packet with {@link IncandescentPacket#dictionary()} set is sent immediately
+     * and encoded separately for every recipient, so that the dictionaries of both sides receive the same strings
+     * in the same order.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     * @param key    Getter of the key field of the packet, if there is one
+     */
+    private static void checkDictionary (Class<?> clazz, IncandescentPacket packet, @Nullable MethodHandle key)
+    {
+        if (packet.direction() != NetworkDirection.PLAY_TO_CLIENT)
+        {
+            throw new MalformedPacketException("Dictionary packet " + clazz + " must be played to client");
+        }
+        if (packet.delta())
+        {
+            throw new MalformedPacketException("Dictionary packet " + clazz + " cannot be a delta packet");
+        }
+        if (packet.batched() || packet.priority() == IncandescentPacket.Priority.LOW || key != null)
+        {
+            throw new MalformedPacketException("Dictionary packet " + clazz + " cannot be queued");
+        }
+    }
+
+    /**
+     * Fetches the string dictionary of packets sent to a player, creating it if there is none
+     *
+     * @param recipient {@link UUID} of the player
+     * @return {@link StringDictionary} of the player
+     */
+    private StringDictionary getSentDictionary (UUID recipient)
+    {
+        return this.SENT_DICTIONARIES.computeIfAbsent(recipient, uuid -> new StringDictionary(true));
+    }
+
+    /**
+     * Creates the {@link PacketPool} of a packet with {@link IncandescentPacket#pooled()} set.
+     * Pooled packets are decoded by the autogenerated decoder, so they cannot define their own decoder,
+     * nor be delta packets.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     * @param <T>    Packet type
+     * @return {@link PacketPool} of the packet
+     */
+    private <T> PacketPool<T> getPacketPool (Class<T> clazz, IncandescentPacket packet)
+    {
+        if (packet.delta())
+        {
+            throw new MalformedPacketException("Pooled packet " + clazz + " cannot be a delta packet");
+        }
+        boolean decoderPresent;
+        try
+        {
+            clazz.getConstructor(FriendlyByteBuf.class);
+            decoderPresent = true;
+        } catch (NoSuchMethodException e)
+        {
+            decoderPresent = false;
+        }
+        if (decoderPresent)
+        {
+            throw new MalformedPacketException("Pooled packet " + clazz + " must rely on the autogenerated decoder");
+        }
+        return new PacketPool<>(clazz);
+    }
+
+    /**
+     * Signs the {@link PacketBundle} message to the channel once the first
+     * packet with {@link IncandescentPacket#batched()} set, {@link IncandescentPacket.Key} field or of {@link IncandescentPacket.Priority#LOW} priority is signed.
+     *
+     * @param clazz  {@link IncandescentPacket} class being signed
+     * @param packet {@link IncandescentPacket} annotation of the class
+     */
+    private void signBundle (Class<?> clazz, IncandescentPacket packet)
+    {
+        if (packet.direction() != NetworkDirection.PLAY_TO_CLIENT)
+        {
+            throw new MalformedPacketException("Batched, keyed or low priority packet " + clazz + " must be played to client");
+        }
+        if (this.batcher != null)
+        {
+            return;
+        }
+        this.batcher = new OutboundBatcher(this.channelInstance);
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(PacketBundle.class, lastPacket++, NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(buf -> PacketBundle.decode(buf, this::getSigned))
+            .encoder(PacketBundle::encode)
+            .consumerNetworkThread(PacketBundle::handle)
+            .add();
+    }
+
+    /**
+     * Checks that a packet with {@link IncandescentPacket#shareable()} set can be handed over without encoding,
+     * and signs {@link LoopbackPacket} to the channel unless it is already signed.
+     * Unlike {@link PacketBundle}, the message is signed for both directions.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     */
+    private void signLoopback (Class<?> clazz, IncandescentPacket packet)
+    {
+        if (packet.delta() || packet.dictionary())
+        {
+            throw new MalformedPacketException("Shareable packet " + clazz + " cannot depend on the state of the connection");
+        }
+        if (packet.pooled())
+        {
+            throw new MalformedPacketException("Shareable packet " + clazz + " cannot be pooled");
+        }
+        if (this.loopback)
+        {
+            return;
+        }
+        this.loopback = true;
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(LoopbackPacket.class, lastPacket++)
+            .decoder(LoopbackPacket::decode)
+            .encoder(LoopbackPacket::encode)
+            .consumerNetworkThread(LoopbackPacket::handle)
+            .add();
+    }
+
+    /**
+     * Checks that a packet with {@link IncandescentPacket#streamed()} set can be encoded once for all recipients,
+     * and signs {@link StreamChunk} to the channel unless it is already signed
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     */
+    private void signStream (Class<?> clazz, IncandescentPacket packet)
+    {
+        if (packet.direction() != NetworkDirection.PLAY_TO_CLIENT)
+        {
+            throw new MalformedPacketException("Streamed packet " + clazz + " must be played to client");
+        }
+        if (packet.delta() || packet.dictionary())
+        {
+            throw new MalformedPacketException("Streamed packet " + clazz + " cannot depend on the state of the connection");
+        }
+        if (this.outboundStreams != null)
+        {
+            return;
+        }
+        final InboundStreams inbound = new InboundStreams(this::getSigned);
+        this.outboundStreams = new OutboundStreams(this.channelInstance);
+        this.inboundStreams = inbound;
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(StreamChunk.class, lastPacket++, NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(buf -> StreamChunk.decode(buf, inbound))
+            .encoder(StreamChunk::encode)
+            .consumerNetworkThread(StreamChunk::handle)
+            .add();
+    }
+
+    /**
+     * Checks that a packet with {@link IncandescentPacket#response()} set can be sent as a request,
+     * and signs {@link RpcRequest} and {@link RpcResponse} to the channel unless they are already signed.
+     * Like {@link LoopbackPacket}, the messages are signed for both directions.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     */
+    private void signRpc (Class<?> clazz, IncandescentPacket packet)
+    {
+        if (packet.delta() || packet.dictionary())
+        {
+            throw new MalformedPacketException("Request packet " + clazz + " cannot depend on the state of the connection");
+        }
+        if (this.rpc != null)
+        {
+            return;
+        }
+        final RpcEndpoint endpoint = new RpcEndpoint(this.channelInstance);
+        this.rpc = endpoint;
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(RpcRequest.class, lastPacket++)
+            .decoder(buf -> RpcRequest.decode(buf, endpoint))
+            .encoder(RpcRequest::encode)
+            .consumerNetworkThread(RpcRequest::handle)
+            .add();
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(RpcResponse.class, lastPacket++)
+            .decoder(buf -> RpcResponse.decode(buf, endpoint))
+            .encoder(RpcResponse::encode)
+            .consumerNetworkThread(RpcResponse::handle)
+            .add();
+    }
+
+    /**
+     * Signs {@link EntityDelta} to the channel unless it is already signed, making this core replicate
+     * the {@link xyz.nikgub.incandescent.autogen_network.Replicated} fields of entities.
+     * Like any packet, it has to be signed on both sides in the same order relative to the packets of this core.
+     *
+     * @return {@link EntityReplication} of this core
+     */
+    public EntityReplication signReplication ()
+    {
+        if (this.replication != null)
+        {
+            return this.replication;
+        }
+        final EntityReplication replication = new EntityReplication(this, this.channelInstance);
+        this.replication = replication;
+        this.SIGNED_BY_INDEX.add(null);
+        this.channelInstance.messageBuilder(EntityDelta.class, lastPacket++, NetworkDirection.PLAY_TO_CLIENT)
+            .decoder(buf -> EntityDelta.decode(buf, replication))
+            .encoder(EntityDelta::encode)
+            .consumerNetworkThread(EntityDelta::handle)
+            .add();
+        return replication;
+    }
+
+    /**
+     * Compiles the {@link xyz.nikgub.incandescent.autogen_network.Replicated} fields of an entity class
+     * with the codecs registered for this core
+     *
+     * @param clazz Entity class
+     * @return Compiled {@link FieldCodec}s, empty if the class has no replicated fields
+     * @see NetworkFunctionGenerator#compileReplicatedFields(Class)
+     */
+    FieldCodec[] compileReplicatedFields (Class<?> clazz)
+    {
+        return this.generator.compileReplicatedFields(clazz);
+    }
+
+    /**
+     * Fetches the compression statistics of a packet class
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @return {@link CompressionStats} of the packet, or {@code null} if it is not compressed
+     */
+    public @Nullable CompressionStats getCompressionStats (Class<?> clazz)
+    {
+        return this.COMPRESSION_STATS.get(clazz);
+    }
+
+    /**
+     * Fetches the network statistics of a packet class
+     *
+     * @param clazz {@link IncandescentPacket} class signed to this core
+     * @return {@link PacketStats} of the class, or {@code null} if it is not signed to this core
+     */
+    public @Nullable PacketStats getStats (Class<?> clazz)
+    {
+        return this.PACKET_STATS.get(clazz);
+    }
+
+    /**
+     * Fetches the network statistics of all packet classes signed to this core
+     *
+     * @return Unmodifiable view of {@link PacketStats} by packet classes
+     */
+    public Map<Class<?>, PacketStats> getAllStats ()
+    {
+        return Collections.unmodifiableMap(this.PACKET_STATS);
+    }
+
+    /**
+     * Sends the packet to the server
+     *
+     * @param packet Packet object of a class signed to this core
+     * @param <T>    Type of the packet
+     */
+    public <T> void sendToServer (T packet)
+    {
+        final SignedPacket<?> signed = this.SIGNED.get(packet.getClass());
+        // Client hosting the running server is connected to it in memory
+        if (signed != null && mayHandOver(signed))
+        {
+            this.channelInstance.sendToServer(LoopbackPacket.handOver(signed, packet));
+            return;
+        }
+        this.channelInstance.sendToServer(packet);
+        if (signed != null)
+        {
+            recordSent(signed, 1);
+        }
+    }
+
+    /**
+     * Sends the packet to all players
+     *
+     * @param packet Packet object of a class signed to this core
+     * @param <T>    Type of the packet
+     */
+    public <T> void sendToAll (T packet)
+    {
+        this.sendToAll(this.getSigned(packet), packet);
+    }
+
+    /**
+     * Sends the packet of a known signed class to all players
+     *
+     * @param signed {@link SignedPacket} of the packet class
+     * @param packet Packet object
+     */
+    void sendToAll (SignedPacket<?> signed, Object packet)
+    {
+        if (!signed.perRecipient() && !signed.batched() && !mayHandOver(signed))
+        {
+            if (this.batcher != null)
+            {
+                this.batcher.flushAll(signed.priority());
+            }
+            this.channelInstance.send(PacketDistributor.ALL.noArg(), packet);
+            final MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            recordSent(signed, server == null ? 0 : server.getPlayerCount());
+            return;
+        }
+        final MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server != null)
+        {
+            this.sendToPlayers(signed, packet, server.getPlayerList().getPlayers());
+        }
+    }
+
+    /**
+     * Sends the packet to a single player
+     *
+     * @param packet Packet object of a class signed to this core
+     * @param player Recipient of the packet
+     * @param <T>    Type of the packet
+     */
+    public <T> void sendToPlayer (T packet, ServerPlayer player)
+    {
+        this.sendToPlayer(this.getSigned(packet), packet, player);
+    }
+
+    /**
+     * Sends the packet of a known signed class to a single player
+     *
+     * @param signed {@link SignedPacket} of the packet class
+     * @param packet Packet object
+     * @param player Recipient of the packet
+     */
+    void sendToPlayer (SignedPacket<?> signed, Object packet, ServerPlayer player)
+    {
+        if (!signed.perRecipient() && !signed.batched())
+        {
+            if (this.batcher != null)
+            {
+                this.batcher.flush(player, signed.priority());
+            }
+            if (isLocal(signed, player))
+            {
+                this.channelInstance.send(PacketDistributor.PLAYER.with(() -> player), LoopbackPacket.handOver(signed, packet));
+                return;
+            }
+            this.channelInstance.send(PacketDistributor.PLAYER.with(() -> player), packet);
+            recordSent(signed, 1);
+            return;
+        }
+        this.sendEach(signed, packet, List.of(player));
+    }
+
+    /**
+     * Sends the packet to a group of players, encoding it only once for all of them,
+     * unless it is a {@link IncandescentPacket#delta()} or {@link IncandescentPacket#dictionary()} packet,
+     * which is encoded for every player separately
+     *
+     * @param packet  Packet object of a class signed to this core
+     * @param players Recipients of the packet
+     * @param <T>     Type of the packet
+     */
+    public <T> void sendToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        this.sendToPlayers(this.getSigned(packet), packet, players);
+    }
+
+    /**
+     * Sends the packet of a known signed class to a group of players
+     *
+     * @param signed  {@link SignedPacket} of the packet class
+     * @param packet  Packet object
+     * @param players Recipients of the packet
+     */
+    void sendToPlayers (SignedPacket<?> signed, Object packet, Collection<ServerPlayer> players)
+    {
+        if (signed.perRecipient() || signed.batched())
+        {
+            this.sendEach(signed, packet, players);
+            return;
+        }
+        if (players.isEmpty())
+        {
+            return;
+        }
+        Packet<?> vanillaPacket = null;
+        int size = 0;
+        int recipients = 0;
+        for (ServerPlayer player : players)
+        {
+            if (this.batcher != null)
+            {
+                this.batcher.flush(player, signed.priority());
+            }
+            if (isLocal(signed, player))
+            {
+                this.channelInstance.send(PacketDistributor.PLAYER.with(() -> player), LoopbackPacket.handOver(signed, packet));
+                continue;
+            }
+            // Vanilla packet is immutable once built, and is shared by all connections the same way PacketDistributor does
+            if (vanillaPacket == null)
+            {
+                vanillaPacket = this.channelInstance.toVanillaPacket(packet, NetworkDirection.PLAY_TO_CLIENT);
+                size = MeteredCodec.lastEncodedSize();
+            }
+            player.connection.send(vanillaPacket);
+            recipients++;
+        }
+        signed.stats().recordSent(recipients, size);
+    }
+
+    /**
+     * Sends the packet to all players tracking an entity
+     *
+     * @param packet      Packet object of a class signed to this core
+     * @param entity      Tracked entity
+     * @param includeSelf Whether the entity itself should receive the packet, should it be a player
+     * @param <T>         Type of the packet
+     */
+    public <T> void sendToTracking (T packet, Entity entity, boolean includeSelf)
+    {
+        this.sendToTracking(this.getSigned(packet), packet, entity, includeSelf);
+    }
+
+    /**
+     * Sends the packet of a known signed class to all players tracking an entity
+     *
+     * @param signed      {@link SignedPacket} of the packet class
+     * @param packet      Packet object
+     * @param entity      Tracked entity
+     * @param includeSelf Whether the entity itself should receive the packet, should it be a player
      */
-    private final NetworkFunctionGenerator generator;
+    void sendToTracking (SignedPacket<?> signed, Object packet, Entity entity, boolean includeSelf)
+    {
+        final boolean pending = this.batcher != null && this.batcher.hasPending();
+        if (!signed.perRecipient() && !signed.batched() && !pending && !mayHandOver(signed))
+        {
+            this.channelInstance.send(includeSelf ? PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> entity)
+                : PacketDistributor.TRACKING_ENTITY.with(() -> entity), packet);
+            recordSent(signed, seenBy(entity).size() + (includeSelf && entity instanceof ServerPlayer ? 1 : 0));
+            return;
+        }
+        final List<ServerPlayer> players = trackingPlayers(entity);
+        if (includeSelf && entity instanceof ServerPlayer player)
+        {
+            players.add(player);
+        }
+        // Queued packets of the recipients have to arrive first, which sending to each of them takes care of
+        this.sendToPlayers(signed, packet, players);
+    }
 
     /**
-     * Cache for a decoding function of a packet class.
-     * Is being collected in {@link #getDecoder(Class)}
+     * Streams the packet to a group of players, encoding it only once for all of them.
+     * The encoded packet is split into chunks sent at the end of this and the following ticks,
+     * within the window of every connection, see {@link #setStreamWindow(int)}.
+     *
+     * @param packet  Packet object of a class signed to this core with {@link IncandescentPacket#streamed()} set
+     * @param players Recipients of the packet
+     * @param <T>     Type of the packet
      */
-    private final Map<Class<?>, DecoderFunc<?>> DECODER_CACHE;
+    public <T> void streamToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        this.streamToPlayers(this.getSigned(packet), packet, players);
+    }
 
     /**
-     * Cache for an encoding function of a packet class.
-     * Is being collected in {@link #getEncoder(Class)}
+     * Streams the packet of a known signed class to a group of players
+     *
+     * @param signed  {@link SignedPacket} of the packet class
+     * @param packet  Packet object
+     * @param players Recipients of the packet
      */
-    private final Map<Class<?>, EncoderFunc<?>> ENCODER_CACHE;
+    @SuppressWarnings("unchecked")
+    void streamToPlayers (SignedPacket<?> signed, Object packet, Collection<ServerPlayer> players)
+    {
+        if (!signed.annotation().streamed())
+        {
+            throw new MalformedPacketException("Packet " + signed.clazz().getName() + " cannot be streamed because it is not a streamed packet");
+        }
+        if (players.isEmpty())
+        {
+            return;
+        }
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        final byte[] data;
+        try
+        {
+            ((EncoderFunc<Object>) signed.encoder()).encode(packet, buf);
+            data = new byte[buf.readableBytes()];
+            buf.readBytes(data);
+        } finally
+        {
+            buf.release();
+        }
+        for (ServerPlayer player : players)
+        {
+            this.outboundStreams.append(player, signed, data);
+        }
+        signed.stats().recordSent(players.size(), data.length);
+    }
 
     /**
-     * Cache for a handling function of a packet class.
-     * Is being collected in {@link #getHandler(Class)}
+     * Sends the request to the server, awaiting the response for {@link RpcEndpoint#DEFAULT_TIMEOUT_MILLIS} milliseconds
+     *
+     * @param packet Packet object of a class signed to this core with {@link IncandescentPacket#response()} set
+     * @param <R>    Type of the response
+     * @return Future of the response
+     * @see #request(Object, long, TimeUnit)
      */
-    private final Map<Class<?>, HandlerFunc<?>> HANDLER_CACHE;
+    public <R> CompletableFuture<R> request (Object packet)
+    {
+        return this.request(packet, RpcEndpoint.DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
     /**
-     * ID of the last packet signed. Doubles as total packet count.
+     * Sends the request to the server without waiting for the response.
+     * The returned future is completed on the network thread once the response arrives, and fails with
+     * {@link xyz.nikgub.incandescent.autogen_network.exception.RemoteRequestException} if the handler of the request failed,
+     * or with {@link java.util.concurrent.TimeoutException} if the response did not arrive in time.
+     *
+     * @param packet  Packet object of a class signed to this core with {@link IncandescentPacket#response()} set
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @param <R>     Type of the response
+     * @return Future of the response
      */
-    private int lastPacket = 0;
+    public <R> CompletableFuture<R> request (Object packet, long timeout, TimeUnit unit)
+    {
+        return this.request(this.getSigned(packet), packet, null, timeout, unit);
+    }
 
-    public static IncandescentNetworkCore simple (String modId)
+    /**
+     * Sends the request to a player, awaiting the response for {@link RpcEndpoint#DEFAULT_TIMEOUT_MILLIS} milliseconds
+     *
+     * @param packet Packet object of a class signed to this core with {@link IncandescentPacket#response()} set
+     * @param player Recipient of the request
+     * @param <R>    Type of the response
+     * @return Future of the response
+     * @see #request(Object, ServerPlayer, long, TimeUnit)
+     */
+    public <R> CompletableFuture<R> request (Object packet, ServerPlayer player)
     {
-        return new IncandescentNetworkCore(modId, 8);
+        return this.request(packet, player, RpcEndpoint.DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
     }
 
-    public static IncandescentNetworkCore withCacheSize (String modId, int maxCacheSize)
+    /**
+     * Sends the request to a player without waiting for the response.
+     * The returned future is completed like the one of {@link #request(Object, long, TimeUnit)},
+     * and additionally fails once the player disconnects before responding.
+     *
+     * @param packet  Packet object of a class signed to this core with {@link IncandescentPacket#response()} set
+     * @param player  Recipient of the request
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @param <R>     Type of the response
+     * @return Future of the response
+     */
+    public <R> CompletableFuture<R> request (Object packet, ServerPlayer player, long timeout, TimeUnit unit)
     {
-        return new IncandescentNetworkCore(modId, maxCacheSize);
+        return this.request(this.getSigned(packet), packet, player, timeout, unit);
     }
 
-    private IncandescentNetworkCore (String modId, int maxCacheSize)
+    /**
+     * Sends the request of a known signed class
+     *
+     * @param signed  {@link SignedPacket} of the packet class
+     * @param packet  Packet object
+     * @param player  Recipient of the request, or {@code null} if it is sent to the server
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @param <R>     Type of the response
+     * @return Future of the response
+     */
+    @SuppressWarnings("unchecked")
+    <R> CompletableFuture<R> request (SignedPacket<?> signed, Object packet, @Nullable ServerPlayer player, long timeout, TimeUnit unit)
     {
-        this.channelInstance = NetworkRegistry.ChannelBuilder.named(new ResourceLocation(modId, "messages"))
-            .networkProtocolVersion(() -> "1.0")
-            .clientAcceptedVersions(s -> true)
-            .serverAcceptedVersions(s -> true)
-            .simpleChannel();
-        this.generator = new NetworkFunctionGenerator();
-        this.DECODER_CACHE = new CacheMap<>(maxCacheSize);
-        this.ENCODER_CACHE = new CacheMap<>(maxCacheSize);
-        this.HANDLER_CACHE = new CacheMap<>(maxCacheSize);
+        if (signed.annotation().response() == Void.class)
+        {
+            throw new MalformedPacketException("Packet " + signed.clazz().getName() + " cannot be requested because it has no response");
+        }
+        if (signed.annotation().direction() != (player == null ? NetworkDirection.PLAY_TO_SERVER : NetworkDirection.PLAY_TO_CLIENT))
+        {
+            throw new MalformedPacketException("Packet " + signed.clazz().getName() + " cannot be requested from "
+                + (player == null ? "the server" : "a player") + " because it is played to " + (player == null ? "client" : "server"));
+        }
+        return (CompletableFuture<R>) this.rpc.call(signed, packet, player, timeout, unit);
     }
 
     /**
-     * Signs the packet to the channel.
-     * From here, other functions are invoked
+     * Creates a {@link PacketSender} of a packet class signed to this core.
+     * Senders resolve the signed packet once, so that sending through them skips any lookups.
      *
      * @param clazz {@link IncandescentPacket} class
      * @param <T>   Packet type
+     * @return {@link PacketSender} of the packet class
      */
-    public <T> void sign (Class<T> clazz)
+    @SuppressWarnings("unchecked")
+    public <T> PacketSender<T> getSender (Class<T> clazz)
     {
-        IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
-        this.channelInstance.messageBuilder(clazz, lastPacket++, packet.direction())
-            .decoder(this.getDecoder(clazz)::decode)
-            .encoder(this.getEncoder(clazz)::encode)
-            .consumerMainThread(this.getHandler(clazz)::handle)
-            .add();
+        final SignedPacket<T> signed = (SignedPacket<T>) this.SIGNED.get(clazz);
+        if (signed == null)
+        {
+            throw new MalformedPacketException("Packet " + clazz.getName() + " is not signed to this core");
+        }
+        return new PacketSender<>(this, signed);
+    }
+
+    /**
+     * Flushes the queued {@link IncandescentPacket#batched()} and {@link IncandescentPacket.Priority#LOW} packets of all players,
+     * within the bandwidth budget of the core. Is invoked at the end of every server tick.
+     *
+     * @see #setBandwidthBudget(int)
+     */
+    public void flushBatched ()
+    {
+        if (this.batcher != null)
+        {
+            this.batcher.tick(this.bandwidthBudget);
+        }
+    }
+
+    /**
+     * Sets the amount of bytes of queued packets that can be flushed to a single player at the end of a tick.
+     * Packets of {@link IncandescentPacket.Priority#HIGH} priority are flushed regardless of the budget,
+     * while others are deferred to the following ticks, and {@link IncandescentPacket.Priority#LOW} ones
+     * are eventually dropped, see {@link IncandescentPacket#maxDeferral()}.
+     *
+     * @param bytesPerTick Budget of a single player, non-positive if unlimited
+     */
+    public void setBandwidthBudget (int bytesPerTick)
+    {
+        this.bandwidthBudget = bytesPerTick;
+    }
+
+    /**
+     * Sends the next chunks of the streamed packets of all players, within the window of the core.
+     * Is invoked at the end of every server tick, after the queued packets are flushed.
+     *
+     * @see #setStreamWindow(int)
+     */
+    public void flushStreams ()
+    {
+        if (this.outboundStreams != null)
+        {
+            this.outboundStreams.tick(this.streamWindow);
+        }
+    }
+
+    /**
+     * Sets the amount of bytes of streamed packets that can be sent to a single player per tick.
+     * Regardless of the window, chunks are only sent while the connection of the player is writable.
+     *
+     * @param bytesPerTick Window of a single player, non-positive if unlimited
+     */
+    public void setStreamWindow (int bytesPerTick)
+    {
+        this.streamWindow = bytesPerTick;
+    }
+
+    /**
+     * Drops the baselines of delta packets, the string dictionary, the queued and the streamed packets of a player,
+     * and fails the requests sent to the player that are awaiting responses
+     *
+     * @param recipient {@link UUID} of the player
+     */
+    public void forgetRecipient (UUID recipient)
+    {
+        for (DeltaCodec<?> codec : this.DELTA_CODECS.values())
+        {
+            codec.forget(recipient);
+        }
+        this.SENT_DICTIONARIES.remove(recipient);
+        if (this.batcher != null)
+        {
+            this.batcher.drop(recipient);
+        }
+        if (this.outboundStreams != null)
+        {
+            this.outboundStreams.drop(recipient);
+        }
+        if (this.rpc != null)
+        {
+            this.rpc.fail(recipient);
+        }
+    }
+
+    /**
+     * Drops the baselines of delta packets and the string dictionary of packets received from the server,
+     * along with the packets handed over in memory that were never claimed and the incomplete streamed packets,
+     * and fails the requests sent to the server that are awaiting responses
+     */
+    public void resetBaselines ()
+    {
+        for (DeltaCodec<?> codec : this.DELTA_CODECS.values())
+        {
+            codec.reset();
+        }
+        this.receivedDictionary = new StringDictionary(false);
+        LoopbackPacket.clear();
+        if (this.inboundStreams != null)
+        {
+            this.inboundStreams.clear();
+        }
+        if (this.rpc != null)
+        {
+            this.rpc.fail(null);
+        }
+    }
+
+    /**
+     * Sends a delta, dictionary or batched packet to each of the players separately.
+     * Batched packets are encoded once, or once per player for delta packets, and queued.
+     * Keyed packets are queued as they are, and encoded once flushed.
+     * Delta packets that are not batched are sent immediately after the queued packets of the player are flushed,
+     * to preserve the order. Delta packets are encoded under the lock of their codec, so that the order of baselines
+     * matches the order in which the packets are queued to the connections. Dictionary packets are additionally encoded
+     * under the lock of the dictionary of the player, which is shared by all of its dictionary packets.
+     */
+    @SuppressWarnings("unchecked")
+    private void sendEach (SignedPacket<?> signed, Object packet, Collection<ServerPlayer> players)
+    {
+        if (signed.key() != null)
+        {
+            final OutboundBatcher.Payload payload = new OutboundBatcher.Payload(signed, packet);
+            for (ServerPlayer player : players)
+            {
+                this.batcher.appendKeyed(player, signed, payload);
+            }
+            return;
+        }
+        final EncoderFunc<Object> encoder = (EncoderFunc<Object>) signed.encoder();
+        if (signed.batched() && !signed.perRecipient())
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            final OutboundBatcher.Payload payload;
+            try
+            {
+                encoder.encode(packet, buf);
+                payload = OutboundBatcher.Payload.encoded(signed, buf);
+            } finally
+            {
+                buf.release();
+            }
+            for (ServerPlayer player : players)
+            {
+                this.batcher.append(player, signed, payload);
+            }
+            return;
+        }
+        synchronized (signed.encoder())
+        {
+            for (ServerPlayer player : players)
+            {
+                if (signed.batched())
+                {
+                    final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+                    DeltaCodec.encodingFor(player.getUUID());
+                    try
+                    {
+                        encoder.encode(packet, buf);
+                    } finally
+                    {
+                        DeltaCodec.encodingFor(null);
+                    }
+                    this.batcher.append(player, signed, OutboundBatcher.Payload.encoded(signed, buf));
+                    buf.release();
+                    continue;
+                }
+                if (this.batcher != null)
+                {
+                    this.batcher.flush(player, signed.priority());
+                }
+                if (signed.dictionary())
+                {
+                    // Packets of every class share the dictionary, which has to be updated in the order they are sent
+                    synchronized (this.getSentDictionary(player.getUUID()))
+                    {
+                        this.sendEncodedFor(signed, player, packet);
+                    }
+                } else
+                {
+                    this.sendEncodedFor(signed, player, packet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a packet to a player, encoding it with the baselines or the dictionary of the player
+     *
+     * @param signed {@link SignedPacket} of the packet class
+     * @param player Recipient of the packet
+     * @param packet Packet object
+     */
+    private void sendEncodedFor (SignedPacket<?> signed, ServerPlayer player, Object packet)
+    {
+        DeltaCodec.encodingFor(player.getUUID());
+        try
+        {
+            this.channelInstance.send(PacketDistributor.PLAYER.with(() -> player), packet);
+        } finally
+        {
+            DeltaCodec.encodingFor(null);
+        }
+        recordSent(signed, 1);
+    }
+
+    /**
+     * Records a packet that has just been sent through the channel, which encoded it on the current thread
+     *
+     * @param signed     {@link SignedPacket} of the packet class
+     * @param recipients Amount of players the encoded packet was sent to
+     */
+    private static void recordSent (SignedPacket<?> signed, int recipients)
+    {
+        signed.stats().recordSent(recipients, MeteredCodec.lastEncodedSize());
+    }
+
+    /**
+     * Checks whether a packet can be handed over to some of its recipients without encoding,
+     * which is the case for shareable packets sent while the server runs within the client
+     *
+     * @param signed {@link SignedPacket} of the packet class
+     * @return {@code true} if some connections of the server may be in-memory ones
+     */
+    private static boolean mayHandOver (SignedPacket<?> signed)
+    {
+        if (!signed.shareable())
+        {
+            return false;
+        }
+        final MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        return server != null && !server.isDedicatedServer();
+    }
+
+    /**
+     * Checks whether a packet can be handed over to a player without encoding
+     *
+     * @param signed {@link SignedPacket} of the packet class
+     * @param player Recipient of the packet
+     * @return {@code true} if the packet is shareable and the player is connected in memory
+     */
+    private static boolean isLocal (SignedPacket<?> signed, ServerPlayer player)
+    {
+        return signed.shareable() && player.connection.connection.isMemoryConnection();
+    }
+
+    /**
+     * Fetches the signed packet of a packet object
+     *
+     * @param packet Packet object
+     * @return {@link SignedPacket} of the packet class
+     */
+    private SignedPacket<?> getSigned (Object packet)
+    {
+        final SignedPacket<?> signed = this.SIGNED.get(packet.getClass());
+        if (signed == null)
+        {
+            throw new MalformedPacketException("Packet " + packet.getClass().getName() + " is not signed to this core");
+        }
+        return signed;
+    }
+
+    /**
+     * Fetches the signed packet by its discriminator
+     *
+     * @param index Discriminator of the packet
+     * @return {@link SignedPacket} with such discriminator, or {@code null} if there is none
+     */
+    private @Nullable SignedPacket<?> getSigned (int index)
+    {
+        return index >= 0 && index < this.SIGNED_BY_INDEX.size() ? this.SIGNED_BY_INDEX.get(index) : null;
+    }
+
+    /**
+     * Collects the players currently tracking an entity
+     *
+     * @param entity Tracked entity
+     * @return Mutable list of players tracking the entity
+     */
+    private static List<ServerPlayer> trackingPlayers (Entity entity)
+    {
+        final List<ServerPlayer> players = new ArrayList<>();
+        for (ServerPlayerConnection connection : seenBy(entity))
+        {
+            players.add(connection.getPlayer());
+        }
+        return players;
+    }
+
+    /**
+     * Fetches the connections of the players tracking an entity, as used by {@link PacketDistributor#TRACKING_ENTITY}
+     *
+     * @param entity Tracked entity
+     * @return Connections of the tracking players, not to be modified
+     */
+    static Set<ServerPlayerConnection> seenBy (Entity entity)
+    {
+        if (!(entity.level() instanceof ServerLevel level))
+        {
+            return Set.of();
+        }
+        final Object trackedEntity = ((ChunkMapAccessor) level.getChunkSource().chunkMap).incandescent$getEntityMap().get(entity.getId());
+        return trackedEntity == null ? Set.of() : ((TrackedEntityAccessor) trackedEntity).incandescent$getSeenBy();
     }
 
     /**
@@ -321,7 +1535,13 @@ public class IncandescentNetworkCore
         {
             throw new MalformedPacketException("Handler method is not present within packet class " + clazz);
         }
-        if (handler.getReturnType() != boolean.class || handler.getParameterCount() != 1
+        final IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
+        final Class<?> returnType = handler.getReturnType();
+        // Handlers of requests return the response, or a stage completing with it
+        final boolean returnsResult = packet != null && packet.response() != Void.class
+            ? packet.response().isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType)
+            : returnType == boolean.class;
+        if (!returnsResult || handler.getParameterCount() != 1
             || !(handler.getParameters()[0].getParameterizedType() instanceof ParameterizedType type && type.getRawType() == Supplier.class
             && type.getActualTypeArguments().length == 1 && type.getActualTypeArguments()[0] == NetworkEvent.Context.class))
         {
@@ -329,4 +1549,77 @@ public class IncandescentNetworkCore
         }
         return handler;
     }
+
+    /**
+     * Adapts the handler method of a request packet to return its response.
+     *
+     * @param clazz {@link IncandescentPacket} class with {@link IncandescentPacket#response()} set
+     * @return {@link MethodHandle} of the handler adapted to {@code (Object, Supplier)Object}
+     * @see #getHandlerMethod(Class)
+     */
+    private static MethodHandle getResponder (Class<?> clazz)
+    {
+        try
+        {
+            return MethodHandles.publicLookup().unreflect(getHandlerMethod(clazz))
+                .asType(MethodType.methodType(Object.class, Object.class, Supplier.class));
+        } catch (IllegalAccessException e)
+        {
+            throw new MalformedPacketException("Handler method is not accessible within packet class " + clazz);
+        }
+    }
+
+    /**
+     * Finds the {@code apply} method of a functional interface, which is adapted to the contracts
+     * of the handles gathered from packet classes when signing a {@link PacketDescriptor}
+     *
+     * @param clazz Functional interface
+     * @param type  Type of the {@code apply} method
+     * @return {@link MethodHandle} of the method, taking the function as its first argument
+     */
+    private static MethodHandle applyHandle (Class<?> clazz, MethodType type)
+    {
+        try
+        {
+            return MethodHandles.publicLookup().findVirtual(clazz, "apply", type);
+        } catch (ReflectiveOperationException e)
+        {
+            throw new IllegalStateException("Method apply is not accessible within " + clazz, e);
+        }
+    }
+
+    /**
+     * Gathers the getter of the {@link IncandescentPacket.Key} field of packet {@code clazz}.
+     * If multiple of such fields are present, the {@link MalformedPacketException} will be thrown.
+     * If such a field is present in a packet that cannot be keyed, the {@link MalformedPacketException} will be thrown.
+     *
+     * @param clazz  {@link IncandescentPacket} class
+     * @param packet {@link IncandescentPacket} annotation of the class
+     * @return {@link MethodHandle} of the getter adapted to {@code (Object)Object}, or {@code null} if there is no key field
+     */
+    private static @Nullable MethodHandle getKeyGetter (Class<?> clazz, IncandescentPacket packet)
+    {
+        Field key = null;
+        for (Field field : clazz.getDeclaredFields())
+        {
+            if (!field.isAnnotationPresent(IncandescentPacket.Key.class))
+            {
+                continue;
+            }
+            if (key != null)
+            {
+                throw new MalformedPacketException("Key field is not unique within packet class " + clazz);
+            }
+            key = field;
+        }
+        if (key == null)
+        {
+            return null;
+        }
+        if (Modifier.isStatic(key.getModifiers()) || packet.delta())
+        {
+            throw new MalformedPacketException("Key field is present within packet class " + clazz + " but the packet cannot be keyed");
+        }
+        return FieldCodec.getter(key, Object.class);
+    }
 }
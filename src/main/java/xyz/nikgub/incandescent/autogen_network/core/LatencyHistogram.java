@@ -0,0 +1,139 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations, with buckets of exponentially growing width.
+ * <p>
+ * Bucket {@code i} counts durations from {@code 2^(i-1)} inclusive to {@code 2^i} exclusive nanoseconds,
+ * so that percentiles are approximated within a factor of two at a cost of a single counter increment per record.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ * @see PacketStats
+ */
+public final class LatencyHistogram
+{
+    /**
+     * Amount of buckets, the last one collecting every duration of about 4.6 minutes or longer
+     */
+    public static final int BUCKETS = 39;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    LatencyHistogram ()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record (long nanos)
+    {
+        final long duration = Math.max(0, nanos);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(duration))].increment();
+        totalNanos.add(duration);
+    }
+
+    /**
+     * @return Amount of recorded durations
+     */
+    public long getCount ()
+    {
+        long count = 0;
+        for (LongAdder bucket : buckets)
+        {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return Sum of recorded durations, in nanoseconds
+     */
+    public long getTotalNanos ()
+    {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return Mean of recorded durations, in nanoseconds, {@code 0} if nothing was recorded
+     */
+    public double getMeanNanos ()
+    {
+        final long count = getCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * Approximates a percentile of recorded durations by the upper bound of the bucket it falls into
+     *
+     * @param percentile Percentile, from {@code 0} to {@code 100}
+     * @return Upper bound of the percentile, in nanoseconds, {@code 0} if nothing was recorded
+     */
+    public long getPercentileNanos (double percentile)
+    {
+        final long[] counts = getBuckets();
+        long count = 0;
+        for (long bucket : counts)
+        {
+            count += bucket;
+        }
+        if (count == 0)
+        {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * @return Snapshot of the bucket counts
+     */
+    public long[] getBuckets ()
+    {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return String.format("mean=%.1fus, p50<%.1fus, p99<%.1fus",
+            getMeanNanos() / 1e3, getPercentileNanos(50) / 1e3, getPercentileNanos(99) / 1e3);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Message handing a {@link IncandescentPacket#shareable()} packet over an in-memory connection.
+ * <p>
+ * Both sides of an in-memory connection share the same {@link IncandescentNetworkCore}, so instead of the packet,
+ * only a ticket is written to the buffer, and the receiving side claims the packet object by it.
+ * The message still travels through the connection, which preserves the order of the packet relative to others,
+ * and provides the handler with the regular {@link NetworkEvent.Context}.
+ * </p>
+ * <p>
+ * Packets are only claimed by messages received over an in-memory connection, in the direction of their packet class,
+ * so that remote connections of the same process, e.g. LAN guests, cannot claim them.
+ * </p>
+ *
+ * @see IncandescentNetworkCore
+ */
+final class LoopbackPacket
+{
+    /**
+     * Source of the tickets of handed over packets
+     */
+    private static final AtomicInteger TICKETS = new AtomicInteger();
+
+    /**
+     * Handed over packets that were not yet claimed by the receiving side, mapped by their direction, then by their tickets
+     */
+    private static final Map<NetworkDirection, Map<Integer, LoopbackPacket>> PENDING = new EnumMap<>(Map.of(
+        NetworkDirection.PLAY_TO_SERVER, new ConcurrentHashMap<>(),
+        NetworkDirection.PLAY_TO_CLIENT, new ConcurrentHashMap<>()
+    ));
+
+    private final int ticket;
+
+    /**
+     * {@link SignedPacket} of the packet class, {@code null} for received messages until they are claimed
+     */
+    private final @Nullable SignedPacket<Object> packet;
+
+    private final @Nullable Object message;
+
+    private LoopbackPacket (int ticket, @Nullable SignedPacket<Object> packet, @Nullable Object message)
+    {
+        this.ticket = ticket;
+        this.packet = packet;
+        this.message = message;
+    }
+
+    /**
+     * Hands a packet over, until it is claimed by {@link #handle(Supplier)}
+     *
+     * @param packet  {@link SignedPacket} of the packet class
+     * @param message Packet object
+     * @return Message to be sent instead of the packet
+     */
+    @SuppressWarnings("unchecked")
+    static LoopbackPacket handOver (SignedPacket<?> packet, Object message)
+    {
+        final LoopbackPacket loopback = new LoopbackPacket(TICKETS.getAndIncrement(), (SignedPacket<Object>) packet, message);
+        PENDING.get(packet.annotation().direction()).put(loopback.ticket, loopback);
+        packet.stats().recordLocal();
+        return loopback;
+    }
+
+    /**
+     * Drops the packets that were handed over but never claimed, e.g. because the connection was closed
+     */
+    static void clear ()
+    {
+        for (Map<Integer, LoopbackPacket> pending : PENDING.values())
+        {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Writes the ticket of the packet into {@code buf}
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(ticket);
+    }
+
+    /**
+     * Reads the ticket of a handed over packet from {@code buf}. The packet itself is claimed once the context
+     * of the message is known, see {@link #handle(Supplier)}.
+     *
+     * @param buf {@link FriendlyByteBuf} to read from
+     * @return Received message
+     */
+    static LoopbackPacket decode (FriendlyByteBuf buf)
+    {
+        return new LoopbackPacket(buf.readVarInt(), null, null);
+    }
+
+    /**
+     * Claims the packet handed over with the ticket of the message and dispatches its handling.
+     * Is expected to be called on the network thread, so that the packet is handled on the thread it requests.
+     *
+     * @param contextSupplier Context of the message
+     * @throws MalformedPacketException If the message was not received over an in-memory connection,
+     *                                  or no packet was handed over with its ticket in the direction it was received in
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        final NetworkEvent.Context context = contextSupplier.get();
+        if (!context.getNetworkManager().isMemoryConnection())
+        {
+            throw new MalformedPacketException("Cannot claim packet #" + ticket + " because it was received over a remote connection");
+        }
+        final Map<Integer, LoopbackPacket> pending = PENDING.get(context.getDirection());
+        final LoopbackPacket loopback = pending == null ? null : pending.remove(ticket);
+        if (loopback == null)
+        {
+            throw new MalformedPacketException("Cannot claim packet #" + ticket + " because it was not handed over as " + context.getDirection() + " within this process");
+        }
+        loopback.packet.dispatch(loopback.message, contextSupplier);
+        context.setPacketHandled(true);
+    }
+}
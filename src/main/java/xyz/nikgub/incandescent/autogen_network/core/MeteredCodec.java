@@ -0,0 +1,107 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+
+/**
+ * Codec wrapping the encoder, decoder and handler of a packet to collect its {@link PacketStats}.
+ * Is the outermost layer of the codec, so that the recorded sizes are the ones written to the channel.
+ * <p>
+ * Since a packet encoded once may be sent to many players, sent packets are not recorded here,
+ * but by the sending side once it knows the recipients, see {@link #lastEncodedSize()}.
+ * </p>
+ *
+ * @param <T> Packet type
+ */
+final class MeteredCodec<T> implements EncoderFunc<T>, DecoderFunc<T>
+{
+    /**
+     * Size of the packet last encoded on the thread, which channels encode synchronously while sending
+     */
+    private static final ThreadLocal<int[]> LAST_ENCODED_SIZE = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final EncoderFunc<T> encoder;
+
+    private final DecoderFunc<T> decoder;
+
+    private final PacketStats stats;
+
+    MeteredCodec (EncoderFunc<T> encoder, DecoderFunc<T> decoder, PacketStats stats)
+    {
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.stats = stats;
+    }
+
+    @Override
+    public void encode (T packet, FriendlyByteBuf buf)
+    {
+        final int start = buf.writerIndex();
+        final long startTime = System.nanoTime();
+        encoder.encode(packet, buf);
+        stats.recordEncoded(System.nanoTime() - startTime);
+        LAST_ENCODED_SIZE.get()[0] = buf.writerIndex() - start;
+    }
+
+    /**
+     * Fetches the size of the packet last encoded on the current thread,
+     * e.g. by a channel the packet has just been sent through
+     *
+     * @return Size of the encoded packet in bytes
+     */
+    static int lastEncodedSize ()
+    {
+        return LAST_ENCODED_SIZE.get()[0];
+    }
+
+    @Override
+    public T decode (FriendlyByteBuf buf)
+    {
+        final int start = buf.readerIndex();
+        final long startTime = System.nanoTime();
+        final T packet = decoder.decode(buf);
+        stats.recordDecoded(buf.readerIndex() - start, System.nanoTime() - startTime);
+        return packet;
+    }
+
+    /**
+     * Wraps the handler of the packet, recording the time spent in it
+     *
+     * @param handler {@link HandlerFunc} of the packet
+     * @return Metered {@link HandlerFunc}
+     */
+    HandlerFunc<T> meter (HandlerFunc<T> handler)
+    {
+        return (packet, contextSupplier) ->
+        {
+            final long startTime = System.nanoTime();
+            try
+            {
+                handler.handle(packet, contextSupplier);
+            } finally
+            {
+                stats.recordHandled(System.nanoTime() - startTime);
+            }
+        };
+    }
+}
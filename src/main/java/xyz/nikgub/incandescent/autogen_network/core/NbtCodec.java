@@ -0,0 +1,435 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.nbt.*;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+/**
+ * Codec of {@link CompoundTag}s writing the tags directly to the buffer,
+ * instead of going through the {@link java.io.DataOutput} streams of {@link FriendlyByteBuf#writeNbt(CompoundTag)}.
+ * <p>
+ * Compounds are written as the amount of their entries, followed by the type, the key and the payload of every entry.
+ * Lengths of compounds, lists, arrays and strings are written as varints, and so are {@code int} and {@code long} tags,
+ * after the ZigZag transformation. Nullable compounds written with {@link #write(FriendlyByteBuf, CompoundTag)}
+ * have their amount of entries incremented, zero standing for {@code null}.
+ * Keys are written with the {@link StringDictionary} of the connection, if there is one.
+ * </p>
+ * <p>
+ * Reading is guarded by the nesting depth, by checking every length against the readable bytes of the buffer,
+ * and by a quota of {@link #MAX_ACCOUNTED_BYTES}, charged per tag with the estimates {@link NbtAccounter} uses.
+ * Since an empty compound or list takes a single byte on the wire, the readable bytes alone would not bound
+ * the memory a payload can make the receiving side allocate.
+ * </p>
+ *
+ * @see RawNbt
+ */
+final class NbtCodec
+{
+    /**
+     * Deepest nesting of compounds and lists that is accepted, matching the one of {@link NbtAccounter}
+     */
+    static final int MAX_DEPTH = 512;
+
+    /**
+     * Longest string that can be written, matching the one of {@link java.io.DataOutput#writeUTF(String)}
+     */
+    static final int MAX_STRING_LENGTH = 65535;
+
+    /**
+     * Quota of a single compound read, matching the one {@link FriendlyByteBuf#readNbt()} reads with
+     */
+    static final long MAX_ACCOUNTED_BYTES = 2097152L;
+
+    private NbtCodec ()
+    {
+    }
+
+    /**
+     * Writes a nullable compound, with the keys written with the {@link StringDictionary} active on the current thread
+     *
+     * @param buf Buffer to write to
+     * @param tag Compound to be written
+     */
+    static void write (FriendlyByteBuf buf, @Nullable CompoundTag tag)
+    {
+        write(buf, tag, StringDictionary.active());
+    }
+
+    /**
+     * Reads a nullable compound written with {@link #write(FriendlyByteBuf, CompoundTag)}
+     *
+     * @param buf Buffer to read from
+     * @return Compound read, or {@code null}
+     */
+    static @Nullable CompoundTag read (FriendlyByteBuf buf)
+    {
+        return read(buf, StringDictionary.active());
+    }
+
+    /**
+     * Writes a nullable compound
+     *
+     * @param buf        Buffer to write to
+     * @param tag        Compound to be written
+     * @param dictionary Dictionary of the keys, or {@code null} to write them as plain strings
+     */
+    static void write (FriendlyByteBuf buf, @Nullable CompoundTag tag, @Nullable StringDictionary dictionary)
+    {
+        final StringDictionary previous = StringDictionary.activate(dictionary);
+        try
+        {
+            if (tag == null)
+            {
+                buf.writeVarInt(0);
+                return;
+            }
+            buf.writeVarInt(tag.size() + 1);
+            writeEntries(buf, tag, 0);
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+
+    /**
+     * Reads a nullable compound
+     *
+     * @param buf        Buffer to read from
+     * @param dictionary Dictionary of the keys, or {@code null} if they were written as plain strings
+     * @return Compound read, or {@code null}
+     */
+    static @Nullable CompoundTag read (FriendlyByteBuf buf, @Nullable StringDictionary dictionary)
+    {
+        final StringDictionary previous = StringDictionary.activate(dictionary);
+        try
+        {
+            final int size = readSize(buf, 0) - 1;
+            if (size < 0)
+            {
+                return null;
+            }
+            return readEntries(buf, size, 0, new Quota());
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+
+    /**
+     * Skips a nullable compound written with plain keys without creating any tags
+     *
+     * @param buf Buffer to read from
+     */
+    static void skip (FriendlyByteBuf buf)
+    {
+        final Quota quota = new Quota();
+        final int size = readSize(buf, 0) - 1;
+        if (size >= 0)
+        {
+            skipEntries(buf, size, 0, quota);
+        }
+    }
+
+    private static void writeEntries (FriendlyByteBuf buf, CompoundTag tag, int depth)
+    {
+        for (String key : tag.getAllKeys())
+        {
+            final Tag value = tag.get(key);
+            buf.writeByte(value.getId());
+            StringDictionary.writeString(buf, key, MAX_STRING_LENGTH);
+            writePayload(buf, value, depth + 1);
+        }
+    }
+
+    private static CompoundTag readEntries (FriendlyByteBuf buf, int size, int depth, Quota quota)
+    {
+        quota.charge(48);
+        final CompoundTag tag = new CompoundTag();
+        for (int i = 0; i < size; i++)
+        {
+            final byte type = buf.readByte();
+            final String key = StringDictionary.readString(buf, MAX_STRING_LENGTH);
+            quota.charge(28 + 2L * key.length());
+            if (tag.put(key, readPayload(buf, type, depth + 1, quota)) == null)
+            {
+                quota.charge(36);
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Skips the entries of a compound written with plain keys, charging the quota as reading them would
+     */
+    private static void skipEntries (FriendlyByteBuf buf, int size, int depth, Quota quota)
+    {
+        quota.charge(48);
+        for (int i = 0; i < size; i++)
+        {
+            final byte type = buf.readByte();
+            final int keyLength = readSize(buf, 1);
+            skipBytes(buf, keyLength);
+            quota.charge(28 + 2L * keyLength + 36);
+            skipPayload(buf, type, depth + 1, quota);
+        }
+    }
+
+    private static void writePayload (FriendlyByteBuf buf, Tag tag, int depth)
+    {
+        if (depth > MAX_DEPTH)
+        {
+            throw new MalformedPacketException("Cannot encode NBT nested deeper than " + MAX_DEPTH);
+        }
+        switch (tag.getId())
+        {
+            case Tag.TAG_BYTE -> buf.writeByte(((ByteTag) tag).getAsByte());
+            case Tag.TAG_SHORT -> buf.writeShort(((ShortTag) tag).getAsShort());
+            case Tag.TAG_INT -> PacketIOMapping.ZIGZAG_INT_WRITE.write(buf, ((IntTag) tag).getAsInt());
+            case Tag.TAG_LONG -> PacketIOMapping.ZIGZAG_LONG_WRITE.write(buf, ((LongTag) tag).getAsLong());
+            case Tag.TAG_FLOAT -> buf.writeFloat(((FloatTag) tag).getAsFloat());
+            case Tag.TAG_DOUBLE -> buf.writeDouble(((DoubleTag) tag).getAsDouble());
+            case Tag.TAG_BYTE_ARRAY -> buf.writeByteArray(((ByteArrayTag) tag).getAsByteArray());
+            case Tag.TAG_STRING -> buf.writeUtf(tag.getAsString(), MAX_STRING_LENGTH);
+            case Tag.TAG_LIST ->
+            {
+                final ListTag list = (ListTag) tag;
+                buf.writeByte(list.getElementType());
+                buf.writeVarInt(list.size());
+                for (Tag element : list)
+                {
+                    writePayload(buf, element, depth + 1);
+                }
+            }
+            case Tag.TAG_COMPOUND ->
+            {
+                final CompoundTag compound = (CompoundTag) tag;
+                buf.writeVarInt(compound.size());
+                writeEntries(buf, compound, depth);
+            }
+            case Tag.TAG_INT_ARRAY ->
+            {
+                final int[] array = ((IntArrayTag) tag).getAsIntArray();
+                buf.writeVarInt(array.length);
+                for (int value : array)
+                {
+                    buf.writeInt(value);
+                }
+            }
+            case Tag.TAG_LONG_ARRAY ->
+            {
+                final long[] array = ((LongArrayTag) tag).getAsLongArray();
+                buf.writeVarInt(array.length);
+                for (long value : array)
+                {
+                    buf.writeLong(value);
+                }
+            }
+            default -> throw new MalformedPacketException("Cannot encode NBT tag of type " + tag.getId());
+        }
+    }
+
+    private static Tag readPayload (FriendlyByteBuf buf, byte type, int depth, Quota quota)
+    {
+        if (depth > MAX_DEPTH)
+        {
+            throw new MalformedPacketException("Cannot decode NBT nested deeper than " + MAX_DEPTH);
+        }
+        quota.charge(payloadCost(type));
+        return switch (type)
+        {
+            case Tag.TAG_BYTE -> ByteTag.valueOf(buf.readByte());
+            case Tag.TAG_SHORT -> ShortTag.valueOf(buf.readShort());
+            case Tag.TAG_INT -> IntTag.valueOf(PacketIOMapping.ZIGZAG_INT_READ.read(buf));
+            case Tag.TAG_LONG -> LongTag.valueOf(PacketIOMapping.ZIGZAG_LONG_READ.read(buf));
+            case Tag.TAG_FLOAT -> FloatTag.valueOf(buf.readFloat());
+            case Tag.TAG_DOUBLE -> DoubleTag.valueOf(buf.readDouble());
+            case Tag.TAG_BYTE_ARRAY ->
+            {
+                final int length = readSize(buf, 1);
+                quota.charge(length);
+                final byte[] array = new byte[length];
+                buf.readBytes(array);
+                yield new ByteArrayTag(array);
+            }
+            case Tag.TAG_STRING ->
+            {
+                final String value = buf.readUtf(MAX_STRING_LENGTH);
+                quota.charge(2L * value.length());
+                yield StringTag.valueOf(value);
+            }
+            case Tag.TAG_LIST ->
+            {
+                final byte elementType = buf.readByte();
+                final int size = readSize(buf, 0);
+                if (elementType == Tag.TAG_END && size > 0)
+                {
+                    throw new MalformedPacketException("Cannot decode NBT list of " + size + " end tags");
+                }
+                quota.charge(4L * size);
+                final ListTag list = new ListTag();
+                for (int i = 0; i < size; i++)
+                {
+                    list.add(readPayload(buf, elementType, depth + 1, quota));
+                }
+                yield list;
+            }
+            case Tag.TAG_COMPOUND -> readEntries(buf, readSize(buf, 2), depth, quota);
+            case Tag.TAG_INT_ARRAY ->
+            {
+                final int length = readSize(buf, Integer.BYTES);
+                quota.charge((long) Integer.BYTES * length);
+                final int[] array = new int[length];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readInt();
+                }
+                yield new IntArrayTag(array);
+            }
+            case Tag.TAG_LONG_ARRAY ->
+            {
+                final int length = readSize(buf, Long.BYTES);
+                quota.charge((long) Long.BYTES * length);
+                final long[] array = new long[length];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = buf.readLong();
+                }
+                yield new LongArrayTag(array);
+            }
+            default -> throw new MalformedPacketException("Cannot decode NBT tag of type " + type);
+        };
+    }
+
+    private static void skipPayload (FriendlyByteBuf buf, byte type, int depth, Quota quota)
+    {
+        if (depth > MAX_DEPTH)
+        {
+            throw new MalformedPacketException("Cannot decode NBT nested deeper than " + MAX_DEPTH);
+        }
+        quota.charge(payloadCost(type));
+        switch (type)
+        {
+            case Tag.TAG_BYTE -> skipBytes(buf, Byte.BYTES);
+            case Tag.TAG_SHORT -> skipBytes(buf, Short.BYTES);
+            case Tag.TAG_INT -> buf.readVarInt();
+            case Tag.TAG_LONG -> buf.readVarLong();
+            case Tag.TAG_FLOAT -> skipBytes(buf, Float.BYTES);
+            case Tag.TAG_DOUBLE -> skipBytes(buf, Double.BYTES);
+            case Tag.TAG_BYTE_ARRAY ->
+            {
+                final int length = readSize(buf, 1);
+                quota.charge(length);
+                skipBytes(buf, length);
+            }
+            case Tag.TAG_STRING ->
+            {
+                // Encoded length is an upper bound of the amount of characters
+                final int length = readSize(buf, 1);
+                quota.charge(2L * length);
+                skipBytes(buf, length);
+            }
+            case Tag.TAG_LIST ->
+            {
+                final byte elementType = buf.readByte();
+                final int size = readSize(buf, 0);
+                if (elementType == Tag.TAG_END && size > 0)
+                {
+                    throw new MalformedPacketException("Cannot decode NBT list of " + size + " end tags");
+                }
+                quota.charge(4L * size);
+                for (int i = 0; i < size; i++)
+                {
+                    skipPayload(buf, elementType, depth + 1, quota);
+                }
+            }
+            case Tag.TAG_COMPOUND -> skipEntries(buf, readSize(buf, 2), depth, quota);
+            case Tag.TAG_INT_ARRAY ->
+            {
+                final int length = readSize(buf, Integer.BYTES);
+                quota.charge((long) Integer.BYTES * length);
+                skipBytes(buf, length * Integer.BYTES);
+            }
+            case Tag.TAG_LONG_ARRAY ->
+            {
+                final int length = readSize(buf, Long.BYTES);
+                quota.charge((long) Long.BYTES * length);
+                skipBytes(buf, length * Long.BYTES);
+            }
+            default -> throw new MalformedPacketException("Cannot decode NBT tag of type " + type);
+        }
+    }
+
+    /**
+     * Fixed cost of reading a tag of a type, as charged by {@link NbtAccounter}.
+     * Compounds are charged separately by {@link #readEntries(FriendlyByteBuf, int, int, Quota)}.
+     */
+    private static long payloadCost (byte type)
+    {
+        return switch (type)
+        {
+            case Tag.TAG_BYTE -> 9;
+            case Tag.TAG_SHORT -> 10;
+            case Tag.TAG_INT, Tag.TAG_FLOAT -> 12;
+            case Tag.TAG_LONG, Tag.TAG_DOUBLE -> 16;
+            case Tag.TAG_BYTE_ARRAY, Tag.TAG_INT_ARRAY, Tag.TAG_LONG_ARRAY -> 24;
+            case Tag.TAG_STRING -> 36;
+            case Tag.TAG_LIST -> 37;
+            default -> 0;
+        };
+    }
+
+    private static int readSize (FriendlyByteBuf buf, int minElementSize)
+    {
+        final int size = buf.readVarInt();
+        if (size < 0 || (long) size * minElementSize > buf.readableBytes())
+        {
+            throw new MalformedPacketException("Cannot decode " + size + " NBT elements from " + buf.readableBytes() + " readable bytes");
+        }
+        return size;
+    }
+
+    /**
+     * Remaining quota of a single compound being read
+     */
+    private static final class Quota
+    {
+        private long remaining = MAX_ACCOUNTED_BYTES;
+
+        private void charge (long bytes)
+        {
+            remaining -= bytes;
+            if (remaining < 0)
+            {
+                throw new MalformedPacketException("Cannot decode NBT larger than " + MAX_ACCOUNTED_BYTES + " accounted bytes");
+            }
+        }
+    }
+
+    private static void skipBytes (FriendlyByteBuf buf, int length)
+    {
+        if (length > buf.readableBytes())
+        {
+            throw new MalformedPacketException("Cannot skip " + length + " NBT bytes from " + buf.readableBytes() + " readable bytes");
+        }
+        buf.skipBytes(length);
+    }
+}
@@ -1,22 +1,29 @@
 package xyz.nikgub.incandescent.autogen_network.core;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 import xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI;
 import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.Replicated;
 import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
 import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
 import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
-import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
-import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
 import xyz.nikgub.incandescent.util.CacheMap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Static class that houses generator functions and their caches.
@@ -24,179 +31,444 @@ import java.util.Map;
 class NetworkFunctionGenerator
 {
     /**
-     * Cache for a reading function appropriate for a field.
-     * Is being collected in {@link #generateDecoder(Class)}
+     * Types of fields that can be {@link IncandescentPacket.Quantized}
      */
-    private final Map<Field, PacketReadFunc<?>> READER_CACHE;
+    private static final Set<Class<?>> QUANTIZABLE = Set.of(float.class, Float.class, double.class, Double.class, Vector3f.class, Quaternionf.class);
 
     /**
-     * Cache for a writing function appropriate for a field.
-     * Is being collected in {@link #generateEncoder(Class)}
+     * Default no-args constructors of packet classes adapted to {@code ()Object}, resolved on the first instantiation of each class.
+     * Classes without an accessible one are not cached, and fail with a {@link MalformedPacketException}.
      */
-    private final Map<Field, PacketWriteFunc<?>> WRITER_CACHE;
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<>()
+    {
+        @Override
+        protected MethodHandle computeValue (Class<?> type)
+        {
+            try
+            {
+                final Constructor<?> constructor = type.getConstructor();
+                constructor.setAccessible(true);
+                return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e)
+            {
+                throw new MalformedPacketException("Cannot decode " + type.getName() + " because there is no accessible default no-args constructor");
+            }
+        }
+    };
+
+    /**
+     * Cache for compiled field codecs of a packet class.
+     * Is being collected in {@link #compileFields(Class)}
+     */
+    private final Map<Class<?>, FieldCodec[]> FIELD_CODEC_CACHE;
+
+    /**
+     * Cache for hidden codecs of packet classes that requested them.
+     * Is being collected in {@link #hiddenCodec(Class)}
+     */
+    private final Map<Class<?>, Optional<Object>> HIDDEN_CODEC_CACHE;
+
+    /**
+     * Resolver of codecs for fields of composite types, see {@link CompositeCodecs}
+     */
+    private final CompositeCodecs COMPOSITES;
+
+    /**
+     * Codecs registered for the network core this generator belongs to
+     */
+    private final CodecRegistry CODECS;
 
     public NetworkFunctionGenerator ()
     {
-        READER_CACHE = new CacheMap<>(32);
-        WRITER_CACHE = new CacheMap<>(32);
+        FIELD_CODEC_CACHE = new CacheMap<>(32);
+        HIDDEN_CODEC_CACHE = new CacheMap<>(32);
+        CODECS = new CodecRegistry();
+        COMPOSITES = new CompositeCodecs(this, CODECS);
     }
 
     /**
-     * Generator for a reflection-based decoder acting as a fallback.
+     * Generator for a decoder acting as a fallback.
      * It runs on {@link IncandescentPacket.Value} fields
      * that are being used for automated reader matching.
      * Readers are gathered from {@link PacketIOMapping#bufRead(Class)},
      * and should it not contain a reader for a field's class, this
      * function will throw a {@link MalformedPacketException}.
-     * Intermediate mappings of reader functions are stored in {@link NetworkFunctionGenerator#READER_CACHE}
+     * Fields are compiled once in {@link #compileFields(Class)}, so the decoder
+     * itself performs no reflective field access.
      *
      * @param clazz {@link IncandescentPacket} class
      * @param <T>   Packet type
      * @return Generated {@link DecoderFunc}
      * @see PacketIOMapping#bufRead(Class)
      */
+    @SuppressWarnings("unchecked")
     public <T> DecoderFunc<T> generateDecoder (Class<T> clazz)
     {
-        final List<Field> fields = IncandescentNetworkAPI.getAnnotatedMethods(clazz);
-        for (var field : fields)
+        final Object hiddenCodec = hiddenCodec(clazz);
+        if (hiddenCodec != null)
         {
-            if (READER_CACHE.get(field) != null)
-            {
-                continue;
-            }
-            PacketReadFunc<?> readFunc = PacketIOMapping.bufRead(field.getType());
-            if (readFunc == null)
-            {
-                throw new MalformedPacketException("Cannot decode " + field.getType().getName() + " because no such reader exists");
-            }
-            READER_CACHE.putIfAbsent(field, readFunc);
+            return (DecoderFunc<T>) hiddenCodec;
         }
+        final FieldCodec[] codecs = compileFields(clazz);
         return (buf) ->
         {
             T instance = instantiatePacket(clazz);
-            for (var field : fields)
+            for (FieldCodec codec : codecs)
             {
-                boolean wasPrivate = Modifier.isPrivate(field.getModifiers());
-                if (wasPrivate)
-                {
-                    field.setAccessible(true);
-                }
-                PacketReadFunc<Object> readFunc = (PacketReadFunc<Object>) READER_CACHE.get(field);
-                if (readFunc == null)
-                {
-                    throw new MalformedPacketException("Cannot decode " + field.getType().getName() + " because no such reader exists");
-                }
-                try
-                {
-                    field.set(instance, readFunc.read(buf));
-                } catch (IllegalAccessException e)
-                {
-                    throw new MalformedPacketException("Cannot decode " + field.getType().getName() + " because the access was denied");
-                } finally
-                {
-                    if (wasPrivate)
-                    {
-                        field.setAccessible(false);
-                    }
-                }
+                codec.decode(instance, buf);
+            }
+            return instance;
+        };
+    }
+
+    /**
+     * Generator for the decoder of a packet with {@link IncandescentPacket#pooled()} set.
+     * Works like {@link #generateDecoder(Class)}, except that the decoded packets are taken from the pool
+     * instead of being instantiated, and that the hidden codec is never used, since it instantiates packets on its own.
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @param pool  {@link PacketPool} of the packet class
+     * @param <T>   Packet type
+     * @return Generated {@link DecoderFunc}
+     */
+    <T> DecoderFunc<T> generatePooledDecoder (Class<T> clazz, PacketPool<T> pool)
+    {
+        final FieldCodec[] codecs = compileFields(clazz);
+        return (buf) ->
+        {
+            T instance = pool.acquire();
+            for (FieldCodec codec : codecs)
+            {
+                codec.decode(instance, buf);
             }
             return instance;
         };
     }
 
     /**
-     * Generator for a reflection-based encoder acting as a fallback.
+     * Generator for an encoder acting as a fallback.
      * It runs on {@link IncandescentPacket.Value} fields
      * that are being used for automated writer matching.
-     * Readers are gathered from {@link PacketIOMapping#bufWrite(Class)},
+     * Writers are gathered from {@link PacketIOMapping#bufWrite(Class)},
      * and should it not contain a writer for a field's class, this
      * function will throw a {@link MalformedPacketException}.
-     * Intermediate mappings of writer functions are stored in {@link NetworkFunctionGenerator#WRITER_CACHE}
+     * Fields are compiled once in {@link #compileFields(Class)}, so the encoder
+     * itself performs no reflective field access.
      *
      * @param clazz {@link IncandescentPacket} class
      * @param <T>   Packet type
      * @return Generated {@link EncoderFunc}
      * @see PacketIOMapping#bufWrite(Class)
      */
+    @SuppressWarnings("unchecked")
     public <T> EncoderFunc<T> generateEncoder (Class<T> clazz)
     {
-        final List<Field> fields = IncandescentNetworkAPI.getAnnotatedMethods(clazz);
-        for (var field : fields)
+        final Object hiddenCodec = hiddenCodec(clazz);
+        if (hiddenCodec != null)
         {
-            if (WRITER_CACHE.get(field) != null)
-            {
-                continue;
-            }
-            PacketWriteFunc<?> writeFunc = PacketIOMapping.bufWrite(field.getType());
-            if (writeFunc == null)
+            return (EncoderFunc<T>) hiddenCodec;
+        }
+        final FieldCodec[] codecs = compileFields(clazz);
+        return (t, buf) ->
+        {
+            for (FieldCodec codec : codecs)
             {
-                throw new MalformedPacketException("Cannot encode " + field.getType().getName() + " because no such writer exists");
+                codec.encode(t, buf);
             }
-            WRITER_CACHE.putIfAbsent(field, writeFunc);
+        };
+    }
+
+    /**
+     * Generator for the codec of a packet with {@link IncandescentPacket#delta()} set.
+     * Segments of the delta are the compiled fields of the packet, see {@link #compileFields(Class)}.
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @param <T>   Packet type
+     * @return Generated {@link DeltaCodec}, acting both as encoder and decoder
+     */
+    <T> DeltaCodec<T> generateDeltaCodec (Class<T> clazz)
+    {
+        return new DeltaCodec<>(clazz, compileFields(clazz), () -> instantiatePacket(clazz));
+    }
+
+    /**
+     * Getter for {@link #CODECS}
+     *
+     * @return {@link CodecRegistry} of the network core this generator belongs to
+     */
+    CodecRegistry getCodecs ()
+    {
+        return CODECS;
+    }
+
+    /**
+     * Fetches the hidden codec of a packet class, generating it on the first request.
+     * Only packets with {@link IncandescentPacket#hiddenCodec()} set are considered.
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @return Hidden codec implementing both {@link EncoderFunc} and {@link DecoderFunc},
+     * or {@code null} if the packet does not use one
+     * @see HiddenCodecGenerator
+     */
+    private @Nullable Object hiddenCodec (Class<?> clazz)
+    {
+        final IncandescentPacket packet = clazz.getAnnotation(IncandescentPacket.class);
+        if (packet == null || !packet.hiddenCodec())
+        {
+            return null;
         }
-        return (t, buf) ->
+        Optional<Object> cached = HIDDEN_CODEC_CACHE.get(clazz);
+        if (cached == null)
+        {
+            cached = Optional.ofNullable(HiddenCodecGenerator.generate(clazz, COMPOSITES));
+            HIDDEN_CODEC_CACHE.putIfAbsent(clazz, cached);
+        }
+        return cached.orElse(null);
+    }
+
+    /**
+     * Resolves the ordered {@link IncandescentPacket.Value} fields of a packet class
+     * and compiles them into {@link FieldCodec}s.
+     * The result is stored in {@link #FIELD_CODEC_CACHE}, so that encoder and decoder
+     * generation share the same compiled fields.
+     *
+     * @param clazz {@link IncandescentPacket} class
+     * @return Array of compiled {@link FieldCodec}s in encoding order
+     */
+    FieldCodec[] compileFields (Class<?> clazz)
+    {
+        final FieldCodec[] cached = FIELD_CODEC_CACHE.get(clazz);
+        if (cached != null)
         {
-            for (var field : fields)
+            return cached;
+        }
+        final FieldCodec[] codecs = compileFields(IncandescentNetworkAPI.getAnnotatedMethods(clazz));
+        FIELD_CODEC_CACHE.putIfAbsent(clazz, codecs);
+        return codecs;
+    }
+
+    /**
+     * Resolves the {@link Replicated} fields of an entity class, including the ones declared by its superclasses,
+     * and compiles them into {@link FieldCodec}s. Fields of superclasses precede the fields of their subclasses,
+     * and fields declared by the same class are ordered by {@link Replicated#value()}, then by name.
+     * Unlike {@link #compileFields(Class)}, the result is not cached.
+     *
+     * @param clazz Entity class
+     * @return Array of compiled {@link FieldCodec}s in encoding order, empty if the class has no replicated fields
+     */
+    FieldCodec[] compileReplicatedFields (Class<?> clazz)
+    {
+        final List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass())
+        {
+            hierarchy.add(0, type);
+        }
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> type : hierarchy)
+        {
+            final List<Field> declared = new ArrayList<>();
+            for (Field field : type.getDeclaredFields())
             {
-                boolean wasPrivate = Modifier.isPrivate(field.getModifiers());
-                if (wasPrivate)
-                {
-                    field.setAccessible(true);
-                }
-                PacketWriteFunc<Object> writeFunc = (PacketWriteFunc<Object>) WRITER_CACHE.get(field);
-                if (writeFunc == null)
+                if (!field.isAnnotationPresent(Replicated.class))
                 {
-                    throw new MalformedPacketException("Cannot encode " + field.getType().getName() + " because no such writer exists");
+                    continue;
                 }
-                try
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()))
                 {
-                    writeFunc.write(buf, field.get(t));
-                } catch (IllegalAccessException e)
-                {
-                    throw new MalformedPacketException("Cannot encode " + field.getType().getName() + " because the access was denied");
-                } finally
-                {
-                    if (wasPrivate)
-                    {
-                        field.setAccessible(false);
-                    }
+                    throw new MalformedPacketException("Replicated field " + field.getName() + " of " + type.getName() + " cannot be static or final");
                 }
+                declared.add(field);
             }
-        };
+            declared.sort(Comparator.comparingInt((Field field) -> field.getAnnotation(Replicated.class).value()).thenComparing(Field::getName));
+            fields.addAll(declared);
+        }
+        return compileFields(fields);
+    }
+
+    /**
+     * Compiles ordered fields, packing runs of consecutive {@link IncandescentPacket.Encoding#PACKED} fields together
+     *
+     * @param fields Ordered {@link IncandescentPacket.Value} or {@link Replicated} fields
+     * @return Array of compiled {@link FieldCodec}s in encoding order
+     */
+    private FieldCodec[] compileFields (List<Field> fields)
+    {
+        final List<FieldCodec> compiled = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++)
+        {
+            if (encodingOf(fields.get(i)) != IncandescentPacket.Encoding.PACKED)
+            {
+                compiled.add(compileField(fields.get(i)));
+                continue;
+            }
+            int end = i + 1;
+            while (end < fields.size() && encodingOf(fields.get(end)) == IncandescentPacket.Encoding.PACKED)
+            {
+                end++;
+            }
+            compiled.add(compilePacked(fields.subList(i, end)));
+            i = end - 1;
+        }
+        return compiled.toArray(new FieldCodec[0]);
+    }
+
+    /**
+     * Compiles a single {@link IncandescentPacket.Value} field.
+     * Fields of primitive types with a specialized codec are read and written without boxing,
+     * other fields are served by functions of {@link PacketIOMapping}, or by codecs resolved
+     * from their generic type by {@link CompositeCodecs}.
+     * Non-default {@link IncandescentPacket.Encoding}s are only accepted for the types they apply to.
+     *
+     * @param field {@link IncandescentPacket.Value} field
+     * @return Compiled {@link FieldCodec}
+     */
+    private FieldCodec compileField (Field field)
+    {
+        final Class<?> type = field.getType();
+        final IncandescentPacket.Encoding encoding = encodingOf(field);
+        final IncandescentPacket.Quantized quantized = field.getAnnotation(IncandescentPacket.Quantized.class);
+        if (quantized != null)
+        {
+            return compileQuantized(field, encoding, quantized);
+        }
+        if (encoding == IncandescentPacket.Encoding.VARINT || encoding == IncandescentPacket.Encoding.ZIGZAG)
+        {
+            final boolean zigzag = encoding == IncandescentPacket.Encoding.ZIGZAG;
+            if (type == int.class || type == Integer.class)
+            {
+                return zigzag ? FieldCodec.ofInt(field, PacketIOMapping.ZIGZAG_INT_WRITE, PacketIOMapping.ZIGZAG_INT_READ)
+                    : FieldCodec.ofInt(field, PacketIOMapping.VAR_INT_WRITE, PacketIOMapping.VAR_INT_READ);
+            }
+            if (type == long.class || type == Long.class)
+            {
+                return zigzag ? FieldCodec.ofLong(field, PacketIOMapping.ZIGZAG_LONG_WRITE, PacketIOMapping.ZIGZAG_LONG_READ)
+                    : FieldCodec.ofLong(field, PacketIOMapping.VAR_LONG_WRITE, PacketIOMapping.VAR_LONG_READ);
+            }
+            throw new MalformedPacketException("Cannot encode " + type.getName() + " as " + encoding + " because it is not an integer");
+        }
+        if (type == int.class)
+        {
+            return FieldCodec.ofInt(field, PacketIOMapping.INT_WRITE, PacketIOMapping.INT_READ);
+        }
+        if (type == long.class)
+        {
+            return FieldCodec.ofLong(field, PacketIOMapping.LONG_WRITE, PacketIOMapping.LONG_READ);
+        }
+        if (type == float.class)
+        {
+            return FieldCodec.ofFloat(field, PacketIOMapping.FLOAT_WRITE, PacketIOMapping.FLOAT_READ);
+        }
+        if (type == double.class)
+        {
+            return FieldCodec.ofDouble(field, PacketIOMapping.DOUBLE_WRITE, PacketIOMapping.DOUBLE_READ);
+        }
+        if (type == boolean.class)
+        {
+            return FieldCodec.ofBoolean(field, PacketIOMapping.BOOLEAN_WRITE, PacketIOMapping.BOOLEAN_READ);
+        }
+        final CompositeCodecs.TypeCodec codec = COMPOSITES.resolve(field.getGenericType());
+        return FieldCodec.of(field, codec.writer(), codec.reader());
+    }
+
+    /**
+     * Compiles a run of consecutive {@link IncandescentPacket.Encoding#PACKED} fields into a single bitfield
+     *
+     * @param fields Consecutive {@link IncandescentPacket.Value} fields
+     * @return Compiled {@link FieldCodec}
+     */
+    private static FieldCodec compilePacked (List<Field> fields)
+    {
+        for (Field field : fields)
+        {
+            if (field.getType() != boolean.class && field.getType() != Boolean.class)
+            {
+                throw new MalformedPacketException("Cannot encode " + field.getType().getName() + " as PACKED because it is not a boolean");
+            }
+        }
+        return FieldCodec.ofPacked(fields);
+    }
+
+    /**
+     * Compiles a {@link IncandescentPacket.Quantized} field, validating its parameters
+     *
+     * @param field     {@link IncandescentPacket.Value} field
+     * @param encoding  {@link IncandescentPacket.Encoding} of the field
+     * @param quantized {@link IncandescentPacket.Quantized} annotation of the field
+     * @return Compiled {@link FieldCodec}
+     */
+    private static FieldCodec compileQuantized (Field field, IncandescentPacket.Encoding encoding, IncandescentPacket.Quantized quantized)
+    {
+        final Class<?> type = field.getType();
+        if (!QUANTIZABLE.contains(type))
+        {
+            throw new MalformedPacketException("Cannot quantize " + type.getName() + " of field " + field.getName());
+        }
+        if (encoding != IncandescentPacket.Encoding.DEFAULT)
+        {
+            throw new MalformedPacketException("Cannot quantize field " + field.getName() + " encoded as " + encoding);
+        }
+        if (quantized.bits() < 1 || quantized.bits() > 32)
+        {
+            throw new MalformedPacketException("Cannot quantize field " + field.getName() + " into " + quantized.bits() + " bits");
+        }
+        if (!(quantized.max() > quantized.min()))
+        {
+            throw new MalformedPacketException("Cannot quantize field " + field.getName() + " into an empty range");
+        }
+        return FieldCodec.ofQuantized(field, quantized);
+    }
+
+    /**
+     * Checks whether the field is written in the default format of its type,
+     * i.e. it neither has a non-default {@link IncandescentPacket.Encoding}, nor is {@link IncandescentPacket.Quantized}
+     *
+     * @param field {@link IncandescentPacket.Value} field
+     * @return {@code true} if the field is written in the default format of its type
+     */
+    static boolean hasDefaultFormat (Field field)
+    {
+        return encodingOf(field) == IncandescentPacket.Encoding.DEFAULT && !field.isAnnotationPresent(IncandescentPacket.Quantized.class);
+    }
+
+    /**
+     * Fetches the {@link IncandescentPacket.Encoding} of a field
+     *
+     * @param field {@link IncandescentPacket.Value} or {@link Replicated} field
+     * @return {@link IncandescentPacket.Encoding} of the field
+     */
+    static IncandescentPacket.Encoding encodingOf (Field field)
+    {
+        final IncandescentPacket.Value value = field.getAnnotation(IncandescentPacket.Value.class);
+        if (value != null)
+        {
+            return value.encoding();
+        }
+        final Replicated replicated = field.getAnnotation(Replicated.class);
+        return replicated == null ? IncandescentPacket.Encoding.DEFAULT : replicated.encoding();
     }
 
     /**
      * Intermediate function that instantiates a default packet used in {@link #generateDecoder(Class)}.
      * For this exact purpose, the packet class should either have one accessible, or define a proper decoder.
-     * If no such constructor is present, the {@link MalformedPacketException} will be thrown
+     * If no such constructor is present, the {@link MalformedPacketException} will be thrown.
+     * The constructor is resolved once per class, see {@link #CONSTRUCTORS}.
      *
      * @param clazz {@link IncandescentPacket} class
      * @param <T>   Packet type
      * @return Instance of {@code T} packet
      */
-    private static <T> @NotNull T instantiatePacket (Class<T> clazz)
+    @SuppressWarnings("unchecked")
+    static <T> @NotNull T instantiatePacket (Class<T> clazz)
     {
-        final Constructor<?>[] constructors = clazz.getConstructors();
-        if (Arrays.stream(constructors).noneMatch(constructor -> constructor.getParameterCount() == 0))
-        {
-            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because there is no accessible default no-args constructor");
-        }
-        Constructor<T> constructor;
         try
         {
-            constructor = clazz.getConstructor();
-        } catch (NoSuchMethodException e)
-        {
-            throw new RuntimeException(e);
-        }
-        T instance;
-        try
+            return (T) (Object) CONSTRUCTORS.get(clazz).invokeExact();
+        } catch (MalformedPacketException e)
         {
-            instance = constructor.newInstance();
-        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e)
+            throw e;
+        } catch (Throwable e)
         {
-            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because there is no accessible default no-args constructor");
+            throw new MalformedPacketException("Cannot decode " + clazz.getName() + " because its default no-args constructor failed", e);
         }
-        return instance;
     }
 }
@@ -0,0 +1,460 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbound scheduler of a single {@link IncandescentNetworkCore}, queuing {@link IncandescentPacket#batched()}
+ * and {@link IncandescentPacket.Priority#LOW} packets per player, and flushing them as {@link PacketBundle}s
+ * at the end of a server tick.
+ * <p>
+ * Queues are split into lanes of {@link IncandescentPacket.Priority}, which are flushed in order of priority.
+ * Should a bandwidth budget be set, {@link IncandescentPacket.Priority#HIGH} packets are always flushed,
+ * while the rest are flushed only while the budget of the tick allows it, and are deferred to the following ticks otherwise.
+ * Deferred {@link IncandescentPacket.Priority#LOW} packets are dropped once they outlive
+ * their {@link IncandescentPacket#maxDeferral()}.
+ * </p>
+ * <p>
+ * Packets are queued already encoded, so that later changes of the packet objects do not affect the data sent.
+ * A queue that grows past {@link #MAX_BUNDLE_SIZE} is flushed immediately, except for its lowest priority lane,
+ * the oldest packets of which are dropped instead.
+ * </p>
+ * <p>
+ * Packets with an {@link IncandescentPacket.Key} are the exception, being queued as objects and encoded once flushed.
+ * Queuing a keyed packet supersedes the queued packet of the same class and key, which is skipped when the queue is flushed,
+ * so that only the latest state is ever encoded. Packets sent to several players share their encoded form.
+ * </p>
+ *
+ * @see PacketBundle
+ */
+final class OutboundBatcher
+{
+    /**
+     * Size of the queued data at which a queue is flushed early,
+     * well below the limit of client-bound custom payloads
+     */
+    static final int MAX_BUNDLE_SIZE = 1 << 19;
+
+    private static final IncandescentPacket.Priority[] PRIORITIES = IncandescentPacket.Priority.values();
+
+    private final SimpleChannel channel;
+
+    private final Map<UUID, Outbox> outboxes = new HashMap<>();
+
+    /**
+     * Amount of ticks flushed so far, used to track the deferral of packets
+     */
+    private long tick;
+
+    OutboundBatcher (SimpleChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * Queues an encoded packet for a player
+     *
+     * @param player  Recipient of the packet
+     * @param signed  {@link SignedPacket} of the packet
+     * @param payload Encoded packet, see {@link Payload#encoded(SignedPacket, ByteBuf)}, possibly shared with other recipients
+     */
+    synchronized void append (ServerPlayer player, SignedPacket<?> signed, Payload payload)
+    {
+        final Outbox outbox = outboxes.computeIfAbsent(player.getUUID(), uuid -> new Outbox());
+        outbox.player = player;
+        outbox.lanes[signed.priority().ordinal()].add(new Entry(signed, payload, null, deadline(signed)));
+        outbox.bytes += payload.data.length;
+        if (outbox.bytes < MAX_BUNDLE_SIZE)
+        {
+            return;
+        }
+        send(outbox, PRIORITIES.length - 2, Integer.MAX_VALUE);
+        final ArrayDeque<Entry> lowest = outbox.lanes[PRIORITIES.length - 1];
+        while (outbox.bytes >= MAX_BUNDLE_SIZE / 2 && !lowest.isEmpty())
+        {
+            discard(outbox, lowest.poll());
+        }
+        if (outbox.isEmpty())
+        {
+            outboxes.remove(player.getUUID());
+        }
+    }
+
+    /**
+     * Queues a keyed packet for a player, superseding the queued packet of the same class and key
+     *
+     * @param player  Recipient of the packet
+     * @param signed  {@link SignedPacket} of the packet
+     * @param payload Packet to be encoded once flushed, possibly shared with other recipients
+     */
+    synchronized void appendKeyed (ServerPlayer player, SignedPacket<?> signed, Payload payload)
+    {
+        final Outbox outbox = outboxes.computeIfAbsent(player.getUUID(), uuid -> new Outbox());
+        outbox.player = player;
+        final PendingKey key = new PendingKey(signed.index(), signed.keyOf(payload.packet));
+        final Entry entry = new Entry(signed, payload, key, deadline(signed));
+        final Entry superseded = outbox.keyed.put(key, entry);
+        if (superseded != null)
+        {
+            superseded.superseded = true;
+            signed.stats().recordCoalesced();
+        }
+        outbox.lanes[signed.priority().ordinal()].add(entry);
+    }
+
+    /**
+     * Checks whether any packets are queued
+     *
+     * @return {@code true} if there is at least one non-empty queue
+     */
+    synchronized boolean hasPending ()
+    {
+        return !outboxes.isEmpty();
+    }
+
+    /**
+     * Flushes the lanes of a single player of the priority of a packet about to be sent to them directly, and of higher ones,
+     * so that the order of packets of the same priority is preserved
+     *
+     * @param player   Player which queue should be flushed
+     * @param priority Priority of the packet about to be sent
+     */
+    synchronized void flush (ServerPlayer player, IncandescentPacket.Priority priority)
+    {
+        final Outbox outbox = outboxes.get(player.getUUID());
+        if (outbox != null && send(outbox, priority.ordinal(), Integer.MAX_VALUE))
+        {
+            outboxes.remove(player.getUUID());
+        }
+    }
+
+    /**
+     * Flushes the lanes of all players of the priority of a packet about to be broadcast, and of higher ones
+     *
+     * @param priority Priority of the packet about to be sent
+     */
+    synchronized void flushAll (IncandescentPacket.Priority priority)
+    {
+        outboxes.values().removeIf(outbox -> send(outbox, priority.ordinal(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Flushes the queues of all players at the end of a server tick, within the bandwidth budget,
+     * and drops the deferred packets that outlived their deadline
+     *
+     * @param budget Amount of bytes that can be flushed to a single player, non-positive values lift the limit
+     */
+    synchronized void tick (int budget)
+    {
+        outboxes.values().removeIf(outbox ->
+        {
+            for (ArrayDeque<Entry> lane : outbox.lanes)
+            {
+                lane.removeIf(entry ->
+                {
+                    if (entry.deadline >= tick && !entry.superseded)
+                    {
+                        return false;
+                    }
+                    discard(outbox, entry);
+                    return true;
+                });
+            }
+            return send(outbox, PRIORITIES.length - 1, budget > 0 ? budget : Integer.MAX_VALUE);
+        });
+        tick++;
+    }
+
+    /**
+     * Discards the queue of a player, e.g. once they have disconnected
+     *
+     * @param recipient {@link UUID} of the player
+     */
+    synchronized void drop (UUID recipient)
+    {
+        outboxes.remove(recipient);
+    }
+
+    /**
+     * Sends the queued packets of a player, lane by lane, as one or more bundles.
+     * The highest priority lane is always sent in full, the following ones only while the budget allows it.
+     * Once a packet is deferred, the packets after it and all lower priority lanes are deferred as well.
+     *
+     * @param outbox  Queue of the player
+     * @param maxLane Ordinal of the lowest priority lane to be sent
+     * @param budget  Amount of bytes that can be sent
+     * @return {@code true} if the queue is empty afterwards
+     */
+    private boolean send (Outbox outbox, int maxLane, int budget)
+    {
+        final ServerPlayer player = outbox.player;
+        if (player.hasDisconnected())
+        {
+            return true;
+        }
+        FriendlyByteBuf payload = new FriendlyByteBuf(Unpooled.buffer());
+        int size = 0;
+        int sent = 0;
+        lanes:
+        for (int lane = 0; lane <= maxLane; lane++)
+        {
+            final ArrayDeque<Entry> entries = outbox.lanes[lane];
+            while (!entries.isEmpty())
+            {
+                final Entry entry = entries.peek();
+                if (entry.superseded)
+                {
+                    entries.poll();
+                    continue;
+                }
+                final byte[] data = entry.payload.data();
+                if (lane > 0 && sent > 0 && sent + data.length > budget)
+                {
+                    // Lower priority packets must not overtake the deferred ones
+                    break lanes;
+                }
+                entries.poll();
+                if (size > 0 && payload.readableBytes() + data.length >= MAX_BUNDLE_SIZE)
+                {
+                    channel.send(PacketDistributor.PLAYER.with(() -> player), new PacketBundle(size, payload));
+                    payload = new FriendlyByteBuf(Unpooled.buffer());
+                    size = 0;
+                }
+                payload.writeVarInt(entry.signed.index());
+                payload.writeVarInt(data.length);
+                payload.writeBytes(data);
+                size++;
+                sent += data.length;
+                entry.signed.stats().recordSent(1, data.length);
+                if (entry.key != null)
+                {
+                    outbox.keyed.remove(entry.key);
+                } else
+                {
+                    outbox.bytes -= data.length;
+                }
+            }
+        }
+        if (size > 0)
+        {
+            channel.send(PacketDistributor.PLAYER.with(() -> player), new PacketBundle(size, payload));
+        } else
+        {
+            payload.release();
+        }
+        return outbox.isEmpty();
+    }
+
+    /**
+     * Removes a packet from the queue without sending it, counting it as dropped unless it was superseded
+     *
+     * @param outbox Queue of the player
+     * @param entry  Packet removed from one of the lanes of the queue
+     */
+    private static void discard (Outbox outbox, Entry entry)
+    {
+        if (entry.superseded)
+        {
+            return;
+        }
+        if (entry.key != null)
+        {
+            outbox.keyed.remove(entry.key);
+        } else
+        {
+            outbox.bytes -= entry.payload.data.length;
+        }
+        entry.signed.stats().recordDropped();
+    }
+
+    /**
+     * Computes the last tick a packet queued now can be sent at
+     *
+     * @param signed {@link SignedPacket} of the packet
+     * @return Deadline of the packet, {@link Long#MAX_VALUE} if it is never dropped
+     */
+    private long deadline (SignedPacket<?> signed)
+    {
+        final int maxDeferral = signed.annotation().maxDeferral();
+        return signed.priority() == IncandescentPacket.Priority.LOW && maxDeferral >= 0 ? tick + maxDeferral : Long.MAX_VALUE;
+    }
+
+    /**
+     * Packet waiting in one or more queues, either encoded or encoded once first flushed
+     */
+    static final class Payload
+    {
+        private final SignedPacket<?> signed;
+
+        private @Nullable Object packet;
+
+        private byte[] data;
+
+        private Payload (SignedPacket<?> signed, byte[] data)
+        {
+            this.signed = signed;
+            this.data = data;
+        }
+
+        /**
+         * Creates a payload of an encoded packet, copying the encoded data once,
+         * so that it can be shared by every recipient of the packet
+         *
+         * @param signed  {@link SignedPacket} of the packet
+         * @param message Encoded packet, not consumed by this method
+         * @return {@link Payload} of the packet
+         */
+        static Payload encoded (SignedPacket<?> signed, ByteBuf message)
+        {
+            final byte[] data = new byte[message.readableBytes()];
+            message.getBytes(message.readerIndex(), data);
+            return new Payload(signed, data);
+        }
+
+        /**
+         * Creates a payload of a keyed packet, which is encoded once first flushed
+         *
+         * @param signed {@link SignedPacket} of the packet
+         * @param packet Packet object
+         */
+        Payload (SignedPacket<?> signed, Object packet)
+        {
+            this.signed = signed;
+            this.packet = packet;
+        }
+
+        @SuppressWarnings("unchecked")
+        private byte[] data ()
+        {
+            if (data == null)
+            {
+                final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+                try
+                {
+                    ((EncoderFunc<Object>) signed.encoder()).encode(packet, buf);
+                    data = new byte[buf.readableBytes()];
+                    buf.readBytes(data);
+                } finally
+                {
+                    buf.release();
+                }
+                packet = null;
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Key of a queued keyed packet within the queue of a player
+     *
+     * @param index Discriminator of the packet class
+     * @param key   Value of the {@link IncandescentPacket.Key} field
+     */
+    private record PendingKey(int index, Object key)
+    {
+    }
+
+    /**
+     * Packet waiting in a queue
+     */
+    private static final class Entry
+    {
+        private final SignedPacket<?> signed;
+
+        private final Payload payload;
+
+        /**
+         * Key of the packet, {@code null} unless it is a keyed packet
+         */
+        private final @Nullable PendingKey key;
+
+        /**
+         * Last tick the packet can be sent at
+         */
+        private final long deadline;
+
+        /**
+         * Whether a later packet of the same key was queued, in which case this one is skipped
+         */
+        private boolean superseded;
+
+        private Entry (SignedPacket<?> signed, Payload payload, @Nullable PendingKey key, long deadline)
+        {
+            this.signed = signed;
+            this.payload = payload;
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Queue of a single player
+     */
+    private static final class Outbox
+    {
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<Entry>[] lanes = new ArrayDeque[PRIORITIES.length];
+
+        /**
+         * Latest queued keyed packets
+         */
+        private final Map<PendingKey, Entry> keyed = new HashMap<>();
+
+        private ServerPlayer player;
+
+        /**
+         * Total size of the queued packets, except for keyed ones
+         */
+        private int bytes;
+
+        private Outbox ()
+        {
+            for (int i = 0; i < lanes.length; i++)
+            {
+                lanes[i] = new ArrayDeque<>();
+            }
+        }
+
+        private boolean isEmpty ()
+        {
+            for (ArrayDeque<Entry> lane : lanes)
+            {
+                if (!lane.isEmpty())
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.channel.Channel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sending side of the transfers of {@link IncandescentPacket#streamed()} packets of a single {@link IncandescentNetworkCore}.
+ * <p>
+ * Streamed packets are queued per player already encoded, and sent in chunks of {@link #CHUNK_SIZE} bytes
+ * at the end of every server tick, one transfer after another. The amount of data sent to a single player per tick
+ * is limited by the window of the connection, and no chunks are sent while the channel of the connection
+ * is not writable, so that a slow connection defers the transfer instead of piling the chunks up in memory.
+ * </p>
+ *
+ * @see StreamChunk
+ */
+final class OutboundStreams
+{
+    /**
+     * Size of the data of a single chunk
+     */
+    static final int CHUNK_SIZE = 1 << 15;
+
+    private final SimpleChannel channel;
+
+    private final Map<UUID, Outbox> outboxes = new HashMap<>();
+
+    private int nextId;
+
+    OutboundStreams (SimpleChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * Queues an encoded packet to be streamed to a player
+     *
+     * @param player Recipient of the packet
+     * @param signed {@link SignedPacket} of the packet
+     * @param data   Encoded packet, possibly shared with other recipients
+     */
+    synchronized void append (ServerPlayer player, SignedPacket<?> signed, byte[] data)
+    {
+        final Outbox outbox = outboxes.computeIfAbsent(player.getUUID(), uuid -> new Outbox());
+        outbox.player = player;
+        outbox.transfers.add(new Transfer(nextId, signed.index(), data));
+        nextId = (nextId + 1) & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Checks whether any transfers are in progress
+     *
+     * @return {@code true} if there is at least one queued transfer
+     */
+    synchronized boolean hasPending ()
+    {
+        return !outboxes.isEmpty();
+    }
+
+    /**
+     * Sends the next chunks of the queued transfers of every player
+     *
+     * @param window Amount of bytes that can be sent to a single player, non-positive if unlimited
+     */
+    synchronized void tick (int window)
+    {
+        final Iterator<Outbox> iterator = outboxes.values().iterator();
+        while (iterator.hasNext())
+        {
+            final Outbox outbox = iterator.next();
+            if (outbox.player.hasDisconnected() || send(outbox, window))
+            {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops the queued transfers of a player
+     *
+     * @param recipient {@link UUID} of the player
+     */
+    synchronized void drop (UUID recipient)
+    {
+        outboxes.remove(recipient);
+    }
+
+    /**
+     * Sends the next chunks of the queued transfers of a player
+     *
+     * @param outbox Queue of the player
+     * @param window Amount of bytes that can be sent to the player, non-positive if unlimited
+     * @return {@code true} if all transfers of the player are complete
+     */
+    private boolean send (Outbox outbox, int window)
+    {
+        final ServerPlayer player = outbox.player;
+        final Channel connection = player.connection.connection.channel();
+        int sent = 0;
+        while (!outbox.transfers.isEmpty() && (window <= 0 || sent < window) && (connection == null || connection.isWritable()))
+        {
+            final Transfer transfer = outbox.transfers.peek();
+            final int length = Math.min(CHUNK_SIZE, transfer.data.length - transfer.offset);
+            channel.send(PacketDistributor.PLAYER.with(() -> player), new StreamChunk(transfer.id, transfer.offset, transfer.index, transfer.data, length));
+            transfer.offset += length;
+            sent += length;
+            if (transfer.offset >= transfer.data.length)
+            {
+                outbox.transfers.poll();
+            }
+        }
+        return outbox.transfers.isEmpty();
+    }
+
+    /**
+     * Packet being streamed to a single player
+     */
+    private static final class Transfer
+    {
+        private final int id;
+
+        private final int index;
+
+        private final byte[] data;
+
+        /**
+         * Offset of the next chunk to be sent
+         */
+        private int offset;
+
+        private Transfer (int id, int index, byte[] data)
+        {
+            this.id = id;
+            this.index = index;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Queue of a single player
+     */
+    private static final class Outbox
+    {
+        private final ArrayDeque<Transfer> transfers = new ArrayDeque<>();
+
+        private ServerPlayer player;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Message carrying several packets of a single {@link IncandescentNetworkCore} in one frame.
+ * <p>
+ * Each of the packets is written as its discriminator, followed by the length and the bytes of the packet.
+ * On the receiving side, packets are decoded on the network thread, and their handlers are dispatched in order
+ * within the handling of the bundle itself.
+ * </p>
+ *
+ * @see OutboundBatcher
+ */
+final class PacketBundle
+{
+    /**
+     * Amount of the packets in the bundle
+     */
+    private final int size;
+
+    /**
+     * Encoded packets, present on the sending side
+     */
+    private final ByteBuf payload;
+
+    /**
+     * Decoded packets, present on the receiving side
+     */
+    private final List<Object> messages;
+
+    /**
+     * Signed packets of {@link #messages}
+     */
+    private final List<SignedPacket<Object>> packets;
+
+    PacketBundle (int size, ByteBuf payload)
+    {
+        this.size = size;
+        this.payload = payload;
+        this.messages = List.of();
+        this.packets = List.of();
+    }
+
+    private PacketBundle (List<Object> messages, List<SignedPacket<Object>> packets)
+    {
+        this.size = messages.size();
+        this.payload = null;
+        this.messages = messages;
+        this.packets = packets;
+    }
+
+    /**
+     * Writes the bundle into {@code buf}, releasing its payload
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(size);
+        buf.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+        payload.release();
+    }
+
+    /**
+     * Reads a bundle from {@code buf}, decoding every packet in it
+     *
+     * @param buf     {@link FriendlyByteBuf} to read from
+     * @param packets Lookup of signed packets by their discriminators
+     * @return Decoded bundle
+     */
+    @SuppressWarnings("unchecked")
+    static PacketBundle decode (FriendlyByteBuf buf, IntFunction<SignedPacket<?>> packets)
+    {
+        final int size = buf.readVarInt();
+        final List<Object> messages = new ArrayList<>(size);
+        final List<SignedPacket<Object>> signed = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            final int index = buf.readVarInt();
+            final int length = buf.readVarInt();
+            final SignedPacket<?> packet = packets.apply(index);
+            if (packet == null)
+            {
+                throw new MalformedPacketException("Cannot unbundle packet with unknown discriminator " + index);
+            }
+            messages.add(packet.decoder().decode(new FriendlyByteBuf(buf.readSlice(length))));
+            signed.add((SignedPacket<Object>) packet);
+        }
+        return new PacketBundle(messages, signed);
+    }
+
+    /**
+     * Dispatches the handling of every packet of the bundle in the order they were sent.
+     * Is expected to be called on the network thread, so that each packet is handled on the thread it requests.
+     *
+     * @param contextSupplier Context of the bundle, shared by all of its packets
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        for (int i = 0; i < messages.size(); i++)
+        {
+            packets.get(i).dispatch(messages.get(i), contextSupplier);
+        }
+        contextSupplier.get().setPacketHandled(true);
+    }
+}
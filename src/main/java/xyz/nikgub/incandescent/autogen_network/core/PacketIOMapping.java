@@ -35,19 +35,22 @@ import net.minecraftforge.fluids.FluidStack;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
-import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
-import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.*;
 
 import java.security.PublicKey;
 import java.time.Instant;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Class containing read/write function handling for
- * later use in {@link IncandescentNetworkCore}
+ * later use in {@link IncandescentNetworkCore}.
+ * Built-in functions can be complemented with codecs of other types,
+ * see {@link #register(Class, PacketWriteFunc, PacketReadFunc)}
  *
  * @see IncandescentNetworkCore
  */
@@ -61,7 +64,13 @@ public class PacketIOMapping
      */
     public static @Nullable PacketWriteFunc<?> bufWrite (Class<?> clazz)
     {
-        return WRITE_FUNC_MAP.get(clazz);
+        final PacketWriteFunc<?> writeFunc = WRITE_FUNC_MAP.get(clazz);
+        if (writeFunc != null)
+        {
+            return writeFunc;
+        }
+        final CompositeCodecs.TypeCodec codec = GLOBAL_CODECS.find(clazz);
+        return codec == null ? null : codec.writer();
     }
 
     /**
@@ -72,13 +81,214 @@ public class PacketIOMapping
      */
     public static @Nullable PacketReadFunc<?> bufRead (Class<?> clazz)
     {
-        return READ_FUNC_MAP.get(clazz);
+        final PacketReadFunc<?> readFunc = READ_FUNC_MAP.get(clazz);
+        if (readFunc != null)
+        {
+            return readFunc;
+        }
+        final CompositeCodecs.TypeCodec codec = GLOBAL_CODECS.find(clazz);
+        return codec == null ? null : codec.reader();
     }
 
+    /**
+     * Registers a codec of a type for all network cores.
+     * Codecs have to be registered before the packets using them are signed, i.e. during the construction of a mod.
+     *
+     * @param clazz     Type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Type the codec is registered for
+     * @throws MalformedPacketException If the type has a built-in codec, or already has a registered one
+     * @see IncandescentNetworkCore#registerCodec(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public static <T> void register (Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        GLOBAL_CODECS.register(clazz, writeFunc, readFunc, false);
+    }
+
+    /**
+     * Registers a codec of a type and all of its subtypes for all network cores.
+     * The read function is expected to produce instances of the exact subtype being read, e.g. by writing a type tag.
+     * Codecs have to be registered before the packets using them are signed, i.e. during the construction of a mod.
+     *
+     * @param clazz     Base type the codec is registered for
+     * @param writeFunc {@link PacketWriteFunc} of the type
+     * @param readFunc  {@link PacketReadFunc} of the type
+     * @param <T>       Base type the codec is registered for
+     * @throws MalformedPacketException If the type has a built-in codec, or already has a registered one
+     * @see IncandescentNetworkCore#registerHierarchyCodec(Class, PacketWriteFunc, PacketReadFunc)
+     */
+    public static <T> void registerHierarchy (Class<T> clazz, PacketWriteFunc<? super T> writeFunc, PacketReadFunc<? extends T> readFunc)
+    {
+        GLOBAL_CODECS.register(clazz, writeFunc, readFunc, true);
+    }
+
+    /**
+     * @return Types covered by the built-in tables
+     */
+    static Set<Class<?>> builtinTypes ()
+    {
+        return WRITE_FUNC_MAP.keySet();
+    }
+
+    /**
+     * Checks whether the type is covered by the built-in tables
+     *
+     * @param clazz Type to check
+     * @return {@code true} if the type has a built-in codec
+     */
+    static boolean hasBuiltin (Class<?> clazz)
+    {
+        return WRITE_FUNC_MAP.containsKey(clazz);
+    }
+
+    /**
+     * Finds the codec of a leaf type, looking into the built-in tables first,
+     * then into codecs registered for a single core, and finally into codecs registered globally
+     *
+     * @param clazz  Type to find the codec for
+     * @param codecs {@link CodecRegistry} of a network core
+     * @return Found {@link CompositeCodecs.TypeCodec}, or {@code null} if there is none
+     */
+    static @Nullable CompositeCodecs.TypeCodec find (Class<?> clazz, CodecRegistry codecs)
+    {
+        if (WRITE_FUNC_MAP.containsKey(clazz))
+        {
+            return CompositeCodecs.TypeCodec.of(WRITE_FUNC_MAP.get(clazz), READ_FUNC_MAP.get(clazz));
+        }
+        final CompositeCodecs.TypeCodec codec = codecs.find(clazz);
+        return codec != null ? codec : GLOBAL_CODECS.find(clazz);
+    }
+
+    /**
+     * Primitive-specialized write function for {@code int} values
+     */
+    public static final IntPacketWriteFunc INT_WRITE = FriendlyByteBuf::writeInt;
+
+    /**
+     * Primitive-specialized read function for {@code int} values
+     */
+    public static final IntPacketReadFunc INT_READ = FriendlyByteBuf::readInt;
+
+    /**
+     * Primitive-specialized write function for {@code long} values
+     */
+    public static final LongPacketWriteFunc LONG_WRITE = FriendlyByteBuf::writeLong;
+
+    /**
+     * Primitive-specialized read function for {@code long} values
+     */
+    public static final LongPacketReadFunc LONG_READ = FriendlyByteBuf::readLong;
+
+    /**
+     * Primitive-specialized write function for {@code float} values
+     */
+    public static final FloatPacketWriteFunc FLOAT_WRITE = FriendlyByteBuf::writeFloat;
+
+    /**
+     * Primitive-specialized read function for {@code float} values
+     */
+    public static final FloatPacketReadFunc FLOAT_READ = FriendlyByteBuf::readFloat;
+
+    /**
+     * Primitive-specialized write function for {@code double} values
+     */
+    public static final DoublePacketWriteFunc DOUBLE_WRITE = FriendlyByteBuf::writeDouble;
+
+    /**
+     * Primitive-specialized read function for {@code double} values
+     */
+    public static final DoublePacketReadFunc DOUBLE_READ = FriendlyByteBuf::readDouble;
+
+    /**
+     * Primitive-specialized write function for {@code boolean} values
+     */
+    public static final BooleanPacketWriteFunc BOOLEAN_WRITE = FriendlyByteBuf::writeBoolean;
+
+    /**
+     * Primitive-specialized read function for {@code boolean} values
+     */
+    public static final BooleanPacketReadFunc BOOLEAN_READ = FriendlyByteBuf::readBoolean;
+
+    /**
+     * Variable-length write function for {@code int} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#VARINT
+     */
+    public static final IntPacketWriteFunc VAR_INT_WRITE = FriendlyByteBuf::writeVarInt;
+
+    /**
+     * Variable-length read function for {@code int} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#VARINT
+     */
+    public static final IntPacketReadFunc VAR_INT_READ = FriendlyByteBuf::readVarInt;
+
+    /**
+     * Variable-length write function for {@code long} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#VARINT
+     */
+    public static final LongPacketWriteFunc VAR_LONG_WRITE = FriendlyByteBuf::writeVarLong;
+
+    /**
+     * Variable-length read function for {@code long} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#VARINT
+     */
+    public static final LongPacketReadFunc VAR_LONG_READ = FriendlyByteBuf::readVarLong;
+
+    /**
+     * ZigZag variable-length write function for {@code int} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#ZIGZAG
+     */
+    public static final IntPacketWriteFunc ZIGZAG_INT_WRITE = (buf, value) -> buf.writeVarInt((value << 1) ^ (value >> 31));
+
+    /**
+     * ZigZag variable-length read function for {@code int} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#ZIGZAG
+     */
+    public static final IntPacketReadFunc ZIGZAG_INT_READ = buf ->
+    {
+        final int value = buf.readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    };
+
+    /**
+     * ZigZag variable-length write function for {@code long} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#ZIGZAG
+     */
+    public static final LongPacketWriteFunc ZIGZAG_LONG_WRITE = (buf, value) -> buf.writeVarLong((value << 1) ^ (value >> 63));
+
+    /**
+     * ZigZag variable-length read function for {@code long} values
+     *
+     * @see xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Encoding#ZIGZAG
+     */
+    public static final LongPacketReadFunc ZIGZAG_LONG_READ = buf ->
+    {
+        final long value = buf.readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    };
+
+    /**
+     * Longest {@link String} or {@link ResourceLocation} that can be written, matching the default of {@link FriendlyByteBuf#readUtf()}
+     */
+    private static final int MAX_STRING_LENGTH = 32767;
+
+    /**
+     * Codecs registered for all network cores, see {@link #register(Class, PacketWriteFunc, PacketReadFunc)}
+     */
+    private static final CodecRegistry GLOBAL_CODECS = new CodecRegistry();
+
     /**
      * Mapping of write functions to the classes they return
      *
-     * @apiNote This mapping omits generic methods, and methods that require more than one argument
+     * @apiNote This mapping omits generic methods, and methods that require more than one argument.
+     * Primitive classes are mapped onto boxing functions, see the primitive-specialized functions above for boxing-free alternatives.
      */
     private static final Map<Class<?>, PacketWriteFunc<?>> WRITE_FUNC_MAP = Map.ofEntries(
         Map.entry(Boolean.class, (PacketWriteFunc<Boolean>) FriendlyByteBuf::writeBoolean),
@@ -87,7 +297,8 @@ public class PacketIOMapping
         Map.entry(Float.class, (PacketWriteFunc<Float>) FriendlyByteBuf::writeFloat),
         Map.entry(Character.class, (PacketWriteFunc<Character>) FriendlyByteBuf::writeChar),
         Map.entry(Byte.class, (PacketWriteFunc<Byte>) FriendlyByteBuf::writeByte),
-        Map.entry(CompoundTag.class, (PacketWriteFunc<CompoundTag>) FriendlyByteBuf::writeNbt),
+        Map.entry(CompoundTag.class, (PacketWriteFunc<CompoundTag>) NbtCodec::write),
+        Map.entry(RawNbt.class, RawNbt.WRITE),
         Map.entry(UUID.class, (PacketWriteFunc<UUID>) FriendlyByteBuf::writeUUID),
         Map.entry(Component.class, (PacketWriteFunc<Component>) FriendlyByteBuf::writeComponent),
         Map.entry(ItemStack.class, (PacketWriteFunc<ItemStack>) FriendlyByteBuf::writeItem),
@@ -103,19 +314,28 @@ public class PacketIOMapping
         Map.entry(Long.class, (PacketWriteFunc<Long>) FriendlyByteBuf::writeLong),
         Map.entry(Short.class, (PacketWriteFunc<Short>) FriendlyByteBuf::writeShort),
         Map.entry(GlobalPos.class, (PacketWriteFunc<GlobalPos>) FriendlyByteBuf::writeGlobalPos),
-        Map.entry(ResourceLocation.class, (PacketWriteFunc<ResourceLocation>) FriendlyByteBuf::writeResourceLocation),
+        Map.entry(ResourceLocation.class, (PacketWriteFunc<ResourceLocation>) (buf, location) -> StringDictionary.writeString(buf, location.toString(), MAX_STRING_LENGTH)),
+        Map.entry(String.class, (PacketWriteFunc<String>) (buf, string) -> StringDictionary.writeString(buf, string, MAX_STRING_LENGTH)),
         Map.entry(Quaternionf.class, (PacketWriteFunc<Quaternionf>) FriendlyByteBuf::writeQuaternion),
         Map.entry(Property.class, (PacketWriteFunc<Property>) FriendlyByteBuf::writeProperty),
         Map.entry(PublicKey.class, (PacketWriteFunc<PublicKey>) FriendlyByteBuf::writePublicKey),
         Map.entry(SectionPos.class, (PacketWriteFunc<SectionPos>) FriendlyByteBuf::writeSectionPos),
-        Map.entry(FluidStack.class, (PacketWriteFunc<FluidStack>) FriendlyByteBuf::writeFluidStack)
-        // to be extended, probably
+        Map.entry(FluidStack.class, (PacketWriteFunc<FluidStack>) FriendlyByteBuf::writeFluidStack),
+        Map.entry(boolean.class, (PacketWriteFunc<Boolean>) FriendlyByteBuf::writeBoolean),
+        Map.entry(int.class, (PacketWriteFunc<Integer>) FriendlyByteBuf::writeInt),
+        Map.entry(double.class, (PacketWriteFunc<Double>) FriendlyByteBuf::writeDouble),
+        Map.entry(float.class, (PacketWriteFunc<Float>) FriendlyByteBuf::writeFloat),
+        Map.entry(char.class, (PacketWriteFunc<Character>) FriendlyByteBuf::writeChar),
+        Map.entry(byte.class, (PacketWriteFunc<Byte>) FriendlyByteBuf::writeByte),
+        Map.entry(long.class, (PacketWriteFunc<Long>) FriendlyByteBuf::writeLong),
+        Map.entry(short.class, (PacketWriteFunc<Short>) FriendlyByteBuf::writeShort)
     );
 
     /**
      * Mapping of read functions to the classes they return
      *
-     * @apiNote This mapping omits generic methods, and methods that require more than one argument
+     * @apiNote This mapping omits generic methods, and methods that require more than one argument.
+     * Primitive classes are mapped onto boxing functions, see the primitive-specialized functions above for boxing-free alternatives.
      */
     private static final Map<Class<?>, PacketReadFunc<?>> READ_FUNC_MAP = Map.ofEntries(
         Map.entry(Boolean.class, (PacketReadFunc<Boolean>) FriendlyByteBuf::readBoolean),
@@ -124,7 +344,8 @@ public class PacketIOMapping
         Map.entry(Float.class, (PacketReadFunc<Float>) FriendlyByteBuf::readFloat),
         Map.entry(Character.class, (PacketReadFunc<Character>) FriendlyByteBuf::readChar),
         Map.entry(Byte.class, (PacketReadFunc<Byte>) FriendlyByteBuf::readByte),
-        Map.entry(CompoundTag.class, (PacketReadFunc<CompoundTag>) FriendlyByteBuf::readNbt),
+        Map.entry(CompoundTag.class, (PacketReadFunc<CompoundTag>) NbtCodec::read),
+        Map.entry(RawNbt.class, RawNbt.READ),
         Map.entry(UUID.class, (PacketReadFunc<UUID>) FriendlyByteBuf::readUUID),
         Map.entry(Component.class, (PacketReadFunc<Component>) FriendlyByteBuf::readComponent),
         Map.entry(ItemStack.class, (PacketReadFunc<ItemStack>) FriendlyByteBuf::readItem),
@@ -140,12 +361,20 @@ public class PacketIOMapping
         Map.entry(Long.class, (PacketReadFunc<Long>) FriendlyByteBuf::readLong),
         Map.entry(Short.class, (PacketReadFunc<Short>) FriendlyByteBuf::readShort),
         Map.entry(GlobalPos.class, (PacketReadFunc<GlobalPos>) FriendlyByteBuf::readGlobalPos),
-        Map.entry(ResourceLocation.class, (PacketReadFunc<ResourceLocation>) FriendlyByteBuf::readResourceLocation),
+        Map.entry(ResourceLocation.class, (PacketReadFunc<ResourceLocation>) buf -> new ResourceLocation(StringDictionary.readString(buf, MAX_STRING_LENGTH))),
+        Map.entry(String.class, (PacketReadFunc<String>) buf -> StringDictionary.readString(buf, MAX_STRING_LENGTH)),
         Map.entry(Quaternionf.class, (PacketReadFunc<Quaternionf>) FriendlyByteBuf::readQuaternion),
         Map.entry(Property.class, (PacketReadFunc<Property>) FriendlyByteBuf::readProperty),
         Map.entry(PublicKey.class, (PacketReadFunc<PublicKey>) FriendlyByteBuf::readPublicKey),
         Map.entry(SectionPos.class, (PacketReadFunc<SectionPos>) FriendlyByteBuf::readSectionPos),
-        Map.entry(FluidStack.class, (PacketReadFunc<FluidStack>) FriendlyByteBuf::readFluidStack)
-        // to be extended, probably
+        Map.entry(FluidStack.class, (PacketReadFunc<FluidStack>) FriendlyByteBuf::readFluidStack),
+        Map.entry(boolean.class, (PacketReadFunc<Boolean>) FriendlyByteBuf::readBoolean),
+        Map.entry(int.class, (PacketReadFunc<Integer>) FriendlyByteBuf::readInt),
+        Map.entry(double.class, (PacketReadFunc<Double>) FriendlyByteBuf::readDouble),
+        Map.entry(float.class, (PacketReadFunc<Float>) FriendlyByteBuf::readFloat),
+        Map.entry(char.class, (PacketReadFunc<Character>) FriendlyByteBuf::readChar),
+        Map.entry(byte.class, (PacketReadFunc<Byte>) FriendlyByteBuf::readByte),
+        Map.entry(long.class, (PacketReadFunc<Long>) FriendlyByteBuf::readLong),
+        Map.entry(short.class, (PacketReadFunc<Short>) FriendlyByteBuf::readShort)
     );
 }
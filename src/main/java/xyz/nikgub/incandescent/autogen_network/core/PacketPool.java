@@ -0,0 +1,127 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of received instances of a packet class with {@link IncandescentPacket#pooled()} set.
+ * <p>
+ * Packets are taken from the pool by the decoder and returned to it once their handler returns,
+ * so that a packet class received at a steady rate is decoded without allocating new instances.
+ * Packets are decoded on the network thread and handled on another one, hence the pool is lock-free.
+ * Idle instances are kept in a fixed array of {@link #CAPACITY} slots, which are claimed with compare-and-set,
+ * so that neither taking nor returning an instance allocates. Instances that find no free slot are left to the garbage collector.
+ * </p>
+ *
+ * @param <T> Packet type
+ */
+final class PacketPool<T>
+{
+    /**
+     * Amount of idle instances kept by a pool
+     */
+    static final int CAPACITY = 64;
+
+    private final Class<T> clazz;
+
+    private final AtomicReferenceArray<T> idle = new AtomicReferenceArray<>(CAPACITY);
+
+    /**
+     * Amount of occupied slots, only used to skip scanning an empty pool
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    PacketPool (Class<T> clazz)
+    {
+        this.clazz = clazz;
+    }
+
+    /**
+     * Takes an idle instance from the pool, or instantiates a new one if there is none
+     *
+     * @return Packet instance, which fields still hold the values of its previous use
+     */
+    T acquire ()
+    {
+        if (size.get() > 0)
+        {
+            // Slots are filled from the start, so idle instances are usually found within the first few of them
+            for (int i = 0; i < CAPACITY; i++)
+            {
+                if (idle.get(i) == null)
+                {
+                    continue;
+                }
+                final T packet = idle.getAndSet(i, null);
+                if (packet != null)
+                {
+                    size.decrementAndGet();
+                    return packet;
+                }
+            }
+        }
+        return NetworkFunctionGenerator.instantiatePacket(clazz);
+    }
+
+    /**
+     * Returns an instance to the pool, unless the pool is full
+     *
+     * @param packet Packet instance no longer in use
+     */
+    void release (T packet)
+    {
+        if (size.get() >= CAPACITY)
+        {
+            return;
+        }
+        for (int i = 0; i < CAPACITY; i++)
+        {
+            if (idle.get(i) == null && idle.compareAndSet(i, null, packet))
+            {
+                size.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wraps the handler of the packet, returning the packet to the pool once the handler returns
+     *
+     * @param handler {@link HandlerFunc} of the packet
+     * @return Recycling {@link HandlerFunc}
+     */
+    HandlerFunc<T> recycling (HandlerFunc<T> handler)
+    {
+        return (packet, contextSupplier) ->
+        {
+            try
+            {
+                handler.handle(packet, contextSupplier);
+            } finally
+            {
+                release(packet);
+            }
+        };
+    }
+}
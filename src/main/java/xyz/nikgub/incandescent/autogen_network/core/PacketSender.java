@@ -0,0 +1,256 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.simple.SimpleChannel;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed handle for sending packets of a single class.
+ * <p>
+ * Sender holds everything resolved for the packet class at the moment of signing,
+ * so that sending through it involves neither annotation lookups, nor lookups of the core and the signed class.
+ * Senders are meant to be obtained once, via {@link IncandescentNetworkCore#getSender(Class)} or
+ * {@link xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI#getSender(Class)}, and reused.
+ * </p>
+ *
+ * @param <T> Packet type
+ * @author Nikolay Gubankov (aka nikgub)
+ */
+public final class PacketSender<T>
+{
+    private final IncandescentNetworkCore core;
+
+    private final SignedPacket<T> signed;
+
+    PacketSender (IncandescentNetworkCore core, SignedPacket<T> signed)
+    {
+        this.core = core;
+        this.signed = signed;
+    }
+
+    /**
+     * Send the packet to its appropriate side.
+     * Packets that should be played to the client are played for all client players.
+     *
+     * @param packet Packet object
+     */
+    public void send (T packet)
+    {
+        if (signed.annotation().direction() == NetworkDirection.PLAY_TO_SERVER)
+        {
+            core.sendToServer(packet);
+            return;
+        }
+        core.sendToAll(signed, packet);
+    }
+
+    /**
+     * Sends the packet to a single player
+     *
+     * @param packet Packet object
+     * @param player Recipient of the packet
+     */
+    public void sendToPlayer (T packet, ServerPlayer player)
+    {
+        this.checkClientbound();
+        core.sendToPlayer(signed, packet, player);
+    }
+
+    /**
+     * Sends the packet to a group of players, encoding it only once for all of them
+     *
+     * @param packet  Packet object
+     * @param players Recipients of the packet
+     * @see IncandescentNetworkCore#sendToPlayers(Object, Collection)
+     */
+    public void sendToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        this.checkClientbound();
+        core.sendToPlayers(signed, packet, players);
+    }
+
+    /**
+     * Sends the packet to all players tracking an entity
+     *
+     * @param packet      Packet object
+     * @param entity      Tracked entity
+     * @param includeSelf Whether the entity itself should receive the packet, should it be a player
+     */
+    public void sendToTracking (T packet, Entity entity, boolean includeSelf)
+    {
+        this.checkClientbound();
+        core.sendToTracking(signed, packet, entity, includeSelf);
+    }
+
+    /**
+     * Streams the packet to a single player
+     *
+     * @param packet Packet object
+     * @param player Recipient of the packet
+     * @see IncandescentNetworkCore#streamToPlayers(Object, Collection)
+     */
+    public void streamToPlayer (T packet, ServerPlayer player)
+    {
+        core.streamToPlayers(signed, packet, List.of(player));
+    }
+
+    /**
+     * Streams the packet to a group of players, encoding it only once for all of them
+     *
+     * @param packet  Packet object
+     * @param players Recipients of the packet
+     * @see IncandescentNetworkCore#streamToPlayers(Object, Collection)
+     */
+    public void streamToPlayers (T packet, Collection<ServerPlayer> players)
+    {
+        core.streamToPlayers(signed, packet, players);
+    }
+
+    /**
+     * Sends the request to the server
+     *
+     * @param packet Packet object
+     * @param <R>    Type of the response
+     * @return Future of the response
+     * @see IncandescentNetworkCore#request(Object, long, TimeUnit)
+     */
+    public <R> CompletableFuture<R> request (T packet)
+    {
+        return core.request(signed, packet, null, RpcEndpoint.DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the request to the server, awaiting the response for a given time
+     *
+     * @param packet  Packet object
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @param <R>     Type of the response
+     * @return Future of the response
+     */
+    public <R> CompletableFuture<R> request (T packet, long timeout, TimeUnit unit)
+    {
+        return core.request(signed, packet, null, timeout, unit);
+    }
+
+    /**
+     * Sends the request to a player
+     *
+     * @param packet Packet object
+     * @param player Recipient of the request
+     * @param <R>    Type of the response
+     * @return Future of the response
+     * @see IncandescentNetworkCore#request(Object, ServerPlayer, long, TimeUnit)
+     */
+    public <R> CompletableFuture<R> request (T packet, ServerPlayer player)
+    {
+        return core.request(signed, packet, player, RpcEndpoint.DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the request to a player, awaiting the response for a given time
+     *
+     * @param packet  Packet object
+     * @param player  Recipient of the request
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @param <R>     Type of the response
+     * @return Future of the response
+     */
+    public <R> CompletableFuture<R> request (T packet, ServerPlayer player, long timeout, TimeUnit unit)
+    {
+        return core.request(signed, packet, player, timeout, unit);
+    }
+
+    private void checkClientbound ()
+    {
+        if (signed.annotation().direction() == NetworkDirection.PLAY_TO_SERVER)
+        {
+            throw new MalformedPacketException("Packet " + signed.clazz().getName() + " cannot be sent to client because it is a server packet");
+        }
+    }
+
+    /**
+     * @return {@link IncandescentNetworkCore} the packet class is signed to
+     */
+    public IncandescentNetworkCore getCore ()
+    {
+        return core;
+    }
+
+    /**
+     * @return {@link SimpleChannel} the packet is sent through
+     */
+    public SimpleChannel getChannel ()
+    {
+        return core.getChannelInstance();
+    }
+
+    /**
+     * @return {@link NetworkDirection} of the packet
+     */
+    public NetworkDirection getDirection ()
+    {
+        return signed.annotation().direction();
+    }
+
+    /**
+     * @return Discriminator of the packet within its channel
+     */
+    public int getDiscriminator ()
+    {
+        return signed.index();
+    }
+
+    /**
+     * @return {@link EncoderFunc} the packet is encoded with
+     */
+    public EncoderFunc<T> getEncoder ()
+    {
+        return signed.encoder();
+    }
+
+    /**
+     * @return {@link DecoderFunc} the packet is decoded with
+     */
+    public DecoderFunc<T> getDecoder ()
+    {
+        return signed.decoder();
+    }
+
+    /**
+     * @return {@link IncandescentPacket} annotation of the packet class
+     */
+    public IncandescentPacket getAnnotation ()
+    {
+        return signed.annotation();
+    }
+}
@@ -0,0 +1,224 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Network statistics of a single packet class, split into the packets sent and received by this side.
+ * <p>
+ * Statistics are collected without locks, and are cheap enough to be always enabled.
+ * Sizes are the ones of encoded packets, after compression if any, excluding the framing of the channel.
+ * Sent packets are counted once per recipient, even if they were encoded once for all of them.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ * @see IncandescentNetworkCore#getStats(Class)
+ */
+public final class PacketStats
+{
+    private final LongAdder encoded = new LongAdder();
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder sentBytes = new LongAdder();
+
+    private final LongAccumulator maxSentBytes = new LongAccumulator(Long::max, 0);
+
+    private final LongAdder received = new LongAdder();
+
+    private final LongAdder receivedBytes = new LongAdder();
+
+    private final LongAccumulator maxReceivedBytes = new LongAccumulator(Long::max, 0);
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder local = new LongAdder();
+
+    private final LatencyHistogram encodeTime = new LatencyHistogram();
+
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+
+    private final LatencyHistogram handleTime = new LatencyHistogram();
+
+    PacketStats ()
+    {
+    }
+
+    void recordEncoded (long nanos)
+    {
+        encoded.increment();
+        encodeTime.record(nanos);
+    }
+
+    void recordSent (int recipients, int size)
+    {
+        if (recipients <= 0)
+        {
+            return;
+        }
+        sent.add(recipients);
+        sentBytes.add((long) size * recipients);
+        maxSentBytes.accumulate(size);
+    }
+
+    void recordDecoded (int size, long nanos)
+    {
+        received.increment();
+        receivedBytes.add(size);
+        maxReceivedBytes.accumulate(size);
+        decodeTime.record(nanos);
+    }
+
+    void recordHandled (long nanos)
+    {
+        handleTime.record(nanos);
+    }
+
+    void recordDropped ()
+    {
+        dropped.increment();
+    }
+
+    void recordCoalesced ()
+    {
+        coalesced.increment();
+    }
+
+    void recordLocal ()
+    {
+        local.increment();
+    }
+
+    /**
+     * @return Amount of times the packets were encoded, which is lower than {@link #getSent()} for packets sent to several players at once
+     */
+    public long getEncoded ()
+    {
+        return encoded.sum();
+    }
+
+    /**
+     * @return Amount of packets sent, counted once per recipient
+     */
+    public long getSent ()
+    {
+        return sent.sum();
+    }
+
+    /**
+     * @return Total size of the packets sent to all of their recipients
+     */
+    public long getSentBytes ()
+    {
+        return sentBytes.sum();
+    }
+
+    /**
+     * @return Size of the largest packet sent
+     */
+    public long getMaxSentBytes ()
+    {
+        return maxSentBytes.get();
+    }
+
+    /**
+     * @return Amount of packets encoded but dropped before being sent, having outlived their {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket#maxDeferral()}
+     */
+    public long getDropped ()
+    {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Amount of packets superseded by a later packet of the same {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Key} before being encoded
+     */
+    public long getCoalesced ()
+    {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Amount of {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket#shareable()} packets
+     * handed over to the other side of an in-memory connection without being encoded
+     */
+    public long getLocal ()
+    {
+        return local.sum();
+    }
+
+    /**
+     * @return Amount of packets decoded after being received
+     */
+    public long getReceived ()
+    {
+        return received.sum();
+    }
+
+    /**
+     * @return Total size of the packets received
+     */
+    public long getReceivedBytes ()
+    {
+        return receivedBytes.sum();
+    }
+
+    /**
+     * @return Size of the largest packet received
+     */
+    public long getMaxReceivedBytes ()
+    {
+        return maxReceivedBytes.get();
+    }
+
+    /**
+     * @return {@link LatencyHistogram} of the time spent encoding the packets
+     */
+    public LatencyHistogram getEncodeTime ()
+    {
+        return encodeTime;
+    }
+
+    /**
+     * @return {@link LatencyHistogram} of the time spent decoding the packets
+     */
+    public LatencyHistogram getDecodeTime ()
+    {
+        return decodeTime;
+    }
+
+    /**
+     * @return {@link LatencyHistogram} of the time spent in the handlers of the packets
+     */
+    public LatencyHistogram getHandleTime ()
+    {
+        return handleTime;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return String.format("sent=%d (%dB, max %dB, encoded %d, encode %s, dropped %d, coalesced %d, local %d), received=%d (%dB, max %dB, decode %s, handle %s)",
+            getSent(), getSentBytes(), getMaxSentBytes(), getEncoded(), encodeTime, getDropped(), getCoalesced(), getLocal(),
+            getReceived(), getReceivedBytes(), getMaxReceivedBytes(), decodeTime, handleTime);
+    }
+}
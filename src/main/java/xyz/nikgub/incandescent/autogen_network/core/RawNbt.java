@@ -0,0 +1,122 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc;
+
+import java.util.Arrays;
+
+/**
+ * Encoded {@link CompoundTag}, meant for {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket.Value} fields
+ * of packets relaying NBT without inspecting it.
+ * <p>
+ * Raw NBT is written exactly as a {@link CompoundTag} field is, so a packet carrying a {@link RawNbt} can be received
+ * as a packet carrying a {@link CompoundTag} and vice versa. Reading raw NBT only validates the structure of the compound
+ * and copies its bytes, without creating any tags. Raw NBT is never written with a {@link StringDictionary},
+ * hence the above only holds for packets without {@link xyz.nikgub.incandescent.autogen_network.IncandescentPacket#dictionary()} set.
+ * </p>
+ */
+public final class RawNbt
+{
+    /**
+     * Writer of raw NBT registered in {@link PacketIOMapping}
+     */
+    static final PacketWriteFunc<RawNbt> WRITE = (buf, nbt) -> buf.writeBytes(nbt.bytes);
+
+    /**
+     * Reader of raw NBT registered in {@link PacketIOMapping}
+     */
+    static final PacketReadFunc<RawNbt> READ = buf ->
+    {
+        final int start = buf.readerIndex();
+        NbtCodec.skip(buf);
+        final byte[] bytes = new byte[buf.readerIndex() - start];
+        buf.getBytes(start, bytes);
+        return new RawNbt(bytes);
+    };
+
+    private final byte[] bytes;
+
+    private RawNbt (byte[] bytes)
+    {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Encodes a compound
+     *
+     * @param tag Compound to be encoded, or {@code null}
+     * @return Encoded compound
+     */
+    public static RawNbt of (@Nullable CompoundTag tag)
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try
+        {
+            NbtCodec.write(buf, tag, null);
+            final byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return new RawNbt(bytes);
+        } finally
+        {
+            buf.release();
+        }
+    }
+
+    /**
+     * Decodes the compound
+     *
+     * @return New instance of the encoded compound, or {@code null} if it was {@code null}
+     */
+    public @Nullable CompoundTag parse ()
+    {
+        return NbtCodec.read(new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes)), null);
+    }
+
+    /**
+     * @return Size of the encoded compound, in bytes
+     */
+    public int size ()
+    {
+        return bytes.length;
+    }
+
+    @Override
+    public boolean equals (Object obj)
+    {
+        return obj instanceof RawNbt other && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "RawNbt[" + bytes.length + "B]";
+    }
+}
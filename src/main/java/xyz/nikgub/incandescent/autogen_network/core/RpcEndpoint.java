@@ -0,0 +1,262 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.simple.SimpleChannel;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.Incandescent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.RemoteRequestException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Requests of packets with {@link IncandescentPacket#response()} set, of a single {@link IncandescentNetworkCore}.
+ * <p>
+ * Every request is sent as {@link RpcRequest} with an ID correlating it with its {@link RpcResponse}.
+ * Requests do not wait for each other, hence any number of them can be in flight at once, and their responses
+ * can arrive in any order. The future of a request is completed on the network thread once its response arrives,
+ * or on a timer thread once it times out, and never blocks the thread the request was sent from.
+ * </p>
+ *
+ * @see IncandescentNetworkCore#request(Object)
+ */
+final class RpcEndpoint
+{
+    /**
+     * Time a response is awaited for unless specified otherwise, in milliseconds
+     */
+    static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Maximum length of the error message of a failed request
+     */
+    static final int MAX_ERROR_LENGTH = 256;
+
+    private final SimpleChannel channel;
+
+    private final Map<Integer, Procedure> procedures = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    RpcEndpoint (SimpleChannel channel)
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * Registers a request packet
+     *
+     * @param request         {@link SignedPacket} of the request
+     * @param responseEncoder {@link EncoderFunc} of the response
+     * @param responseDecoder {@link DecoderFunc} of the response
+     * @param responder       Handler of the request adapted to {@code (Object, Supplier)Object}
+     */
+    void register (SignedPacket<?> request, EncoderFunc<?> responseEncoder, DecoderFunc<?> responseDecoder, MethodHandle responder)
+    {
+        procedures.put(request.index(), new Procedure(request, responseEncoder, responseDecoder, responder));
+    }
+
+    /**
+     * Fetches a registered request packet
+     *
+     * @param index Discriminator of the request packet
+     * @return {@link Procedure} of the request, or {@code null} if the packet is not a request
+     */
+    @Nullable Procedure procedure (int index)
+    {
+        return procedures.get(index);
+    }
+
+    /**
+     * Fetches the request awaiting a response
+     *
+     * @param id ID of the request
+     * @return {@link Pending} request, or {@code null} if it is already completed
+     */
+    @Nullable Pending pending (int id)
+    {
+        return pending.get(id);
+    }
+
+    /**
+     * Sends a request
+     *
+     * @param request {@link SignedPacket} of the request
+     * @param packet  Packet object
+     * @param player  Recipient of the request, or {@code null} if it is sent to the server
+     * @param timeout Time the response is awaited for
+     * @param unit    Unit of {@code timeout}
+     * @return Future of the response
+     */
+    CompletableFuture<Object> call (SignedPacket<?> request, Object packet, @Nullable ServerPlayer player, long timeout, TimeUnit unit)
+    {
+        final Procedure procedure = procedures.get(request.index());
+        final int id = ids.getAndIncrement() & Integer.MAX_VALUE;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final Pending entry = new Pending(procedure, future, player == null ? null : player.getUUID());
+        pending.put(id, entry);
+        future.orTimeout(timeout, unit).whenComplete((response, error) -> pending.remove(id, entry));
+        final RpcRequest message = new RpcRequest(this, id, procedure, packet);
+        try
+        {
+            if (player == null)
+            {
+                channel.sendToServer(message);
+            } else
+            {
+                channel.send(PacketDistributor.PLAYER.with(() -> player), message);
+            }
+            request.stats().recordSent(1, MeteredCodec.lastEncodedSize());
+        } catch (Throwable e)
+        {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Handles a received request and replies with its response once it is complete.
+     * Is expected to be called on the thread requested by the handler of the request.
+     *
+     * @param id              ID of the request
+     * @param procedure       {@link Procedure} of the request
+     * @param packet          Received request
+     * @param contextSupplier Context of the request
+     */
+    void respond (int id, Procedure procedure, Object packet, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        CompletionStage<?> result;
+        // Requests bypass the metered handler of their class, and are timed here instead
+        final long startTime = System.nanoTime();
+        try
+        {
+            final Object value = procedure.responder().invokeExact(packet, contextSupplier);
+            result = value instanceof CompletionStage<?> stage ? stage : CompletableFuture.completedFuture(value);
+        } catch (Throwable e)
+        {
+            result = CompletableFuture.failedFuture(e);
+        } finally
+        {
+            procedure.request().stats().recordHandled(System.nanoTime() - startTime);
+        }
+        result.whenComplete((response, error) ->
+        {
+            if (error == null && response == null)
+            {
+                error = new NullPointerException("Handler returned no response");
+            }
+            if (error instanceof CompletionException && error.getCause() != null)
+            {
+                error = error.getCause();
+            }
+            if (error != null)
+            {
+                Incandescent.LOGGER.error("[{}] REQUEST HANDLER FAILED", procedure.request().clazz().getName(), error);
+            }
+            channel.reply(new RpcResponse(this, id, procedure, response, error == null ? null : error.toString()), contextSupplier.get());
+        });
+    }
+
+    /**
+     * Completes a request with its received response.
+     * Responses received from anyone but the recipient of the request are ignored.
+     *
+     * @param id       ID of the request
+     * @param entry    {@link Pending} request
+     * @param sender   Sender of the response, or {@code null} if it was received from the server
+     * @param response Received response, or {@code null} if the request failed
+     * @param error    Message of the failure, or {@code null} if the request succeeded
+     */
+    void complete (int id, Pending entry, @Nullable ServerPlayer sender, @Nullable Object response, @Nullable String error)
+    {
+        if (!Objects.equals(entry.recipient(), sender == null ? null : sender.getUUID()) || !pending.remove(id, entry))
+        {
+            return;
+        }
+        if (error != null)
+        {
+            entry.future().completeExceptionally(new RemoteRequestException("Request " + entry.procedure().request().clazz().getName() + " failed: " + error));
+        } else
+        {
+            entry.future().complete(response);
+        }
+    }
+
+    /**
+     * Fails the requests sent to a recipient that are awaiting responses, e.g. because the connection was closed
+     *
+     * @param recipient {@link UUID} of the recipient, or {@code null} for the requests sent to the server
+     */
+    void fail (@Nullable UUID recipient)
+    {
+        final Iterator<Map.Entry<Integer, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            final Pending entry = iterator.next().getValue();
+            if (Objects.equals(entry.recipient(), recipient))
+            {
+                iterator.remove();
+                entry.future().completeExceptionally(new RemoteRequestException("Connection closed before the response to "
+                    + entry.procedure().request().clazz().getName() + " arrived"));
+            }
+        }
+    }
+
+    /**
+     * Registered request packet
+     *
+     * @param request         {@link SignedPacket} of the request
+     * @param responseEncoder {@link EncoderFunc} of the response
+     * @param responseDecoder {@link DecoderFunc} of the response
+     * @param responder       Handler of the request adapted to {@code (Object, Supplier)Object}
+     */
+    record Procedure(SignedPacket<?> request, EncoderFunc<?> responseEncoder, DecoderFunc<?> responseDecoder, MethodHandle responder)
+    {
+    }
+
+    /**
+     * Request awaiting a response
+     *
+     * @param procedure {@link Procedure} of the request
+     * @param future    Future of the response
+     * @param recipient {@link UUID} of the recipient, or {@code null} if the request was sent to the server
+     */
+    record Pending(Procedure procedure, CompletableFuture<Object> future, @Nullable UUID recipient)
+    {
+    }
+}
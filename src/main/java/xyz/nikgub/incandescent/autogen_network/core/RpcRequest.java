@@ -0,0 +1,107 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkEvent;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.function.Supplier;
+
+/**
+ * Message carrying a packet with {@link IncandescentPacket#response()} set, along with the ID of the request
+ * its {@link RpcResponse} is correlated with
+ *
+ * @see RpcEndpoint
+ */
+final class RpcRequest
+{
+    private final RpcEndpoint endpoint;
+
+    private final int id;
+
+    private final RpcEndpoint.Procedure procedure;
+
+    private final Object packet;
+
+    RpcRequest (RpcEndpoint endpoint, int id, RpcEndpoint.Procedure procedure, Object packet)
+    {
+        this.endpoint = endpoint;
+        this.id = id;
+        this.procedure = procedure;
+        this.packet = packet;
+    }
+
+    /**
+     * Writes the ID and the discriminator of the request, followed by the request itself, into {@code buf}
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    @SuppressWarnings("unchecked")
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(id);
+        buf.writeVarInt(procedure.request().index());
+        ((EncoderFunc<Object>) procedure.request().encoder()).encode(packet, buf);
+    }
+
+    /**
+     * Reads a request from {@code buf}
+     *
+     * @param buf      {@link FriendlyByteBuf} to read from
+     * @param endpoint {@link RpcEndpoint} of the core
+     * @return Received request
+     */
+    static RpcRequest decode (FriendlyByteBuf buf, RpcEndpoint endpoint)
+    {
+        final int id = buf.readVarInt();
+        final int index = buf.readVarInt();
+        final RpcEndpoint.Procedure procedure = endpoint.procedure(index);
+        if (procedure == null)
+        {
+            throw new MalformedPacketException("Cannot decode request #" + id + " because packet #" + index + " is not a request");
+        }
+        return new RpcRequest(endpoint, id, procedure, procedure.request().decoder().decode(buf));
+    }
+
+    /**
+     * Dispatches the handling of the request to the thread requested by its handler.
+     * Is expected to be called on the network thread.
+     * <p>
+     * Requests share a single message registered for both directions, so the direction of the request
+     * is checked here rather than by the channel.
+     * </p>
+     *
+     * @param contextSupplier Context of the message
+     * @throws MalformedPacketException If the request was received in a direction other than the one of its packet class
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        final NetworkDirection direction = contextSupplier.get().getDirection();
+        if (procedure.request().annotation().direction() != direction)
+        {
+            throw new MalformedPacketException("Cannot handle request " + procedure.request().clazz().getName() + " received as " + direction);
+        }
+        HandlerExecutor.dispatch((message, context) -> endpoint.respond(id, procedure, message, context),
+            procedure.request().execution(), packet, contextSupplier);
+    }
+}
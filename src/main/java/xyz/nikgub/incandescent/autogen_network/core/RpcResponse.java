@@ -0,0 +1,123 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+
+import java.util.function.Supplier;
+
+/**
+ * Message carrying the response to a packet with {@link IncandescentPacket#response()} set,
+ * or the error its handler failed with
+ *
+ * @see RpcEndpoint
+ */
+final class RpcResponse
+{
+    private final RpcEndpoint endpoint;
+
+    private final int id;
+
+    private final @Nullable RpcEndpoint.Procedure procedure;
+
+    private final @Nullable RpcEndpoint.Pending pending;
+
+    private final @Nullable Object response;
+
+    private final @Nullable String error;
+
+    RpcResponse (RpcEndpoint endpoint, int id, RpcEndpoint.Procedure procedure, @Nullable Object response, @Nullable String error)
+    {
+        this(endpoint, id, procedure, null, response, error);
+    }
+
+    private RpcResponse (RpcEndpoint endpoint, int id, @Nullable RpcEndpoint.Procedure procedure, @Nullable RpcEndpoint.Pending pending,
+                         @Nullable Object response, @Nullable String error)
+    {
+        this.endpoint = endpoint;
+        this.id = id;
+        this.procedure = procedure;
+        this.pending = pending;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * Writes the ID of the request, followed by either the response or the error, into {@code buf}
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    @SuppressWarnings("unchecked")
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(id);
+        buf.writeBoolean(error == null);
+        if (error == null)
+        {
+            ((EncoderFunc<Object>) procedure.responseEncoder()).encode(response, buf);
+        } else
+        {
+            buf.writeUtf(error.length() > RpcEndpoint.MAX_ERROR_LENGTH ? error.substring(0, RpcEndpoint.MAX_ERROR_LENGTH) : error,
+                RpcEndpoint.MAX_ERROR_LENGTH);
+        }
+    }
+
+    /**
+     * Reads a response from {@code buf}.
+     * Responses to requests that are no longer awaited, e.g. because they timed out, are skipped.
+     *
+     * @param buf      {@link FriendlyByteBuf} to read from
+     * @param endpoint {@link RpcEndpoint} of the core
+     * @return Received response
+     */
+    static RpcResponse decode (FriendlyByteBuf buf, RpcEndpoint endpoint)
+    {
+        final int id = buf.readVarInt();
+        final boolean succeeded = buf.readBoolean();
+        final RpcEndpoint.Pending pending = endpoint.pending(id);
+        if (pending == null)
+        {
+            buf.skipBytes(buf.readableBytes());
+            return new RpcResponse(endpoint, id, null, null, null, null);
+        }
+        if (succeeded)
+        {
+            return new RpcResponse(endpoint, id, null, pending, pending.procedure().responseDecoder().decode(buf), null);
+        }
+        return new RpcResponse(endpoint, id, null, pending, null, buf.readUtf(RpcEndpoint.MAX_ERROR_LENGTH));
+    }
+
+    /**
+     * Completes the request with the response
+     *
+     * @param contextSupplier Context of the message
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        if (pending != null)
+        {
+            endpoint.complete(id, pending, contextSupplier.get().getSender(), response, error);
+        }
+        contextSupplier.get().setPacketHandled(true);
+    }
+}
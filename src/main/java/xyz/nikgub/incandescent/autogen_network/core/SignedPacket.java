@@ -0,0 +1,147 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+import xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc;
+import xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Supplier;
+
+/**
+ * Packet class signed to a {@link IncandescentNetworkCore}, along with the functions resolved for it
+ *
+ * @param index      Discriminator of the packet within the channel of the core
+ * @param clazz      {@link IncandescentPacket} class
+ * @param annotation {@link IncandescentPacket} annotation of the class
+ * @param encoder    {@link EncoderFunc} of the packet
+ * @param decoder    {@link DecoderFunc} of the packet
+ * @param handler    {@link HandlerFunc} of the packet
+ * @param execution  {@link IncandescentPacket.Execution} of the handler
+ * @param stats      {@link PacketStats} of the packet
+ * @param key        Getter of the {@link IncandescentPacket.Key} field adapted to {@code (Object)Object}, or {@code null} if there is none
+ * @param <T>        Packet type
+ */
+record SignedPacket<T>(int index, Class<T> clazz, IncandescentPacket annotation,
+                       EncoderFunc<T> encoder, DecoderFunc<T> decoder, HandlerFunc<T> handler,
+                       IncandescentPacket.Execution execution, PacketStats stats,
+                       @Nullable MethodHandle key)
+{
+    /**
+     * Dispatches the handling of a received packet according to {@link #execution()}
+     *
+     * @param packet          Received packet
+     * @param contextSupplier Context of the packet
+     */
+    void dispatch (T packet, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        HandlerExecutor.dispatch(handler, execution, packet, contextSupplier);
+    }
+
+    /**
+     * Whether the packet is sent as a delta against the previous one sent to the same recipient
+     *
+     * @return {@code true} if the packet is a delta packet
+     * @see IncandescentPacket#delta()
+     */
+    boolean delta ()
+    {
+        return annotation.delta();
+    }
+
+    /**
+     * Whether the packet writes its strings with the {@link StringDictionary} of the recipient
+     *
+     * @return {@code true} if the packet is a dictionary packet
+     * @see IncandescentPacket#dictionary()
+     */
+    boolean dictionary ()
+    {
+        return annotation.dictionary();
+    }
+
+    /**
+     * Whether the packet is handed over without encoding when sent over an in-memory connection
+     *
+     * @return {@code true} if the packet is shareable
+     * @see IncandescentPacket#shareable()
+     */
+    boolean shareable ()
+    {
+        return annotation.shareable();
+    }
+
+    /**
+     * Whether the packet has to be encoded separately for every recipient,
+     * which is the case for delta and dictionary packets
+     *
+     * @return {@code true} if the encoding of the packet depends on its recipient
+     */
+    boolean perRecipient ()
+    {
+        return annotation.delta() || annotation.dictionary();
+    }
+
+    /**
+     * Whether the packet is queued until the end of the server tick instead of being sent immediately,
+     * which is the case for batched and keyed packets, and packets of low priority
+     *
+     * @return {@code true} if the packet is queued in {@link OutboundBatcher}
+     * @see IncandescentPacket#batched()
+     * @see IncandescentPacket.Key
+     * @see IncandescentPacket.Priority#LOW
+     */
+    boolean batched ()
+    {
+        return annotation.batched() || annotation.priority() == IncandescentPacket.Priority.LOW || key != null;
+    }
+
+    /**
+     * Extracts the key of a packet, see {@link IncandescentPacket.Key}
+     *
+     * @param packet Packet object
+     * @return Value of the key field of the packet
+     */
+    Object keyOf (Object packet)
+    {
+        try
+        {
+            return (Object) key.invokeExact(packet);
+        } catch (Throwable e)
+        {
+            throw new MalformedPacketException("Cannot access key field of packet class " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * Priority of the packet among the outbound traffic of its core
+     *
+     * @return {@link IncandescentPacket.Priority} of the packet
+     * @see IncandescentPacket#priority()
+     */
+    IncandescentPacket.Priority priority ()
+    {
+        return annotation.priority();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import java.util.function.Supplier;
+
+/**
+ * Message carrying a chunk of a {@link IncandescentPacket#streamed()} packet.
+ * <p>
+ * Each chunk is written as the ID of the transfer and the offset of the chunk within the encoded packet.
+ * The first chunk of a transfer additionally carries the discriminator of the packet and its total length.
+ * The rest of the message is the data of the chunk. On the receiving side, chunks are appended to the transfer
+ * they belong to, and the message carrying the last chunk is the one dispatching the handler of the packet.
+ * </p>
+ *
+ * @see OutboundStreams
+ * @see InboundStreams
+ */
+final class StreamChunk
+{
+    private final int id;
+
+    private final int offset;
+
+    /**
+     * Discriminator of the packet, present on the sending side
+     */
+    private final int index;
+
+    /**
+     * Encoded packet the chunk is a part of, present on the sending side
+     */
+    private final byte[] data;
+
+    private final int length;
+
+    /**
+     * Signed packet of {@link #message}
+     */
+    private final @Nullable SignedPacket<Object> packet;
+
+    /**
+     * Decoded packet, present on the receiving side if the chunk completed its transfer
+     */
+    private final @Nullable Object message;
+
+    StreamChunk (int id, int offset, int index, byte[] data, int length)
+    {
+        this.id = id;
+        this.offset = offset;
+        this.index = index;
+        this.data = data;
+        this.length = length;
+        this.packet = null;
+        this.message = null;
+    }
+
+    private StreamChunk (int id, int offset, @Nullable SignedPacket<Object> packet, @Nullable Object message)
+    {
+        this.id = id;
+        this.offset = offset;
+        this.index = -1;
+        this.data = null;
+        this.length = 0;
+        this.packet = packet;
+        this.message = message;
+    }
+
+    /**
+     * Writes the chunk into {@code buf}
+     *
+     * @param buf {@link FriendlyByteBuf} to write into
+     */
+    void encode (FriendlyByteBuf buf)
+    {
+        buf.writeVarInt(id);
+        buf.writeVarInt(offset);
+        if (offset == 0)
+        {
+            buf.writeVarInt(index);
+            buf.writeVarInt(data.length);
+        }
+        buf.writeBytes(data, offset, length);
+    }
+
+    /**
+     * Reads a chunk from {@code buf}, appending it to its transfer
+     *
+     * @param buf     {@link FriendlyByteBuf} to read from
+     * @param streams Transfers of the receiving side
+     * @return Read chunk, carrying the decoded packet if the chunk is the last of its transfer
+     */
+    @SuppressWarnings("unchecked")
+    static StreamChunk decode (FriendlyByteBuf buf, InboundStreams streams)
+    {
+        final int id = buf.readVarInt();
+        final int offset = buf.readVarInt();
+        final InboundStreams.Completed completed;
+        if (offset == 0)
+        {
+            final int index = buf.readVarInt();
+            final int total = buf.readVarInt();
+            completed = streams.begin(id, index, total, buf);
+        } else
+        {
+            completed = streams.append(id, offset, buf);
+        }
+        if (completed == null)
+        {
+            return new StreamChunk(id, offset, null, null);
+        }
+        return new StreamChunk(id, offset, (SignedPacket<Object>) completed.packet(), completed.message());
+    }
+
+    /**
+     * Dispatches the handling of the packet, if the chunk completed its transfer.
+     * Is expected to be called on the network thread, so that the packet is handled on the thread it requests.
+     *
+     * @param contextSupplier Context of the chunk
+     */
+    void handle (Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        if (packet != null)
+        {
+            packet.dispatch(message, contextSupplier);
+        }
+        contextSupplier.get().setPacketHandled(true);
+    }
+}
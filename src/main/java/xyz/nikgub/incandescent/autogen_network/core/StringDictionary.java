@@ -0,0 +1,192 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of strings sent over a single connection by packets with {@link IncandescentPacket#dictionary()} set.
+ * <p>
+ * Strings are written as a varint, followed by the string itself if the varint is zero. The first occurrence of a string
+ * is written in full and assigned the next slot of the dictionary, while later occurrences are written as the slot
+ * incremented by one. Slots are assigned in a ring, evicting the string that was added {@link #CAPACITY} strings ago.
+ * Both sides of the connection apply the same insertions in the same order, so their dictionaries stay identical
+ * as long as every packet that was encoded is decoded.
+ * </p>
+ * <p>
+ * String codecs of {@link PacketIOMapping} and the keys of {@link NbtCodec} use the dictionary that is active on the
+ * current thread, see {@link #activate(StringDictionary)}, and fall back to plain strings otherwise.
+ * </p>
+ *
+ * @see DictionaryCodec
+ */
+final class StringDictionary
+{
+    /**
+     * Amount of strings kept by a dictionary
+     */
+    static final int CAPACITY = 1024;
+
+    /**
+     * Length of the longest string added to a dictionary; longer strings are always written in full
+     */
+    static final int MAX_ENTRY_LENGTH = 256;
+
+    /**
+     * Dictionary strings are currently written with or read with on this thread
+     */
+    private static final ThreadLocal<StringDictionary> ACTIVE = new ThreadLocal<>();
+
+    private final String[] slots = new String[CAPACITY];
+
+    /**
+     * Slots of the strings in the dictionary, only maintained by the sending side
+     */
+    private final @Nullable Map<String, Integer> ids;
+
+    private int next;
+
+    /**
+     * Creates an empty dictionary
+     *
+     * @param sending Whether the dictionary is used to write strings rather than to read them
+     */
+    StringDictionary (boolean sending)
+    {
+        this.ids = sending ? new HashMap<>() : null;
+    }
+
+    /**
+     * Sets the dictionary strings are written with or read with on the current thread
+     *
+     * @param dictionary Dictionary to be used, or {@code null} to write plain strings
+     * @return Dictionary that was active before
+     */
+    static @Nullable StringDictionary activate (@Nullable StringDictionary dictionary)
+    {
+        final StringDictionary previous = ACTIVE.get();
+        if (dictionary == null)
+        {
+            ACTIVE.remove();
+        } else
+        {
+            ACTIVE.set(dictionary);
+        }
+        return previous;
+    }
+
+    /**
+     * @return Dictionary active on the current thread, or {@code null} if there is none
+     */
+    static @Nullable StringDictionary active ()
+    {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Writes a string with the dictionary active on the current thread, or as a plain string if there is none
+     *
+     * @param buf       Buffer to write to
+     * @param value     String to be written
+     * @param maxLength Longest string that can be written
+     */
+    static void writeString (FriendlyByteBuf buf, String value, int maxLength)
+    {
+        final StringDictionary dictionary = ACTIVE.get();
+        if (dictionary == null)
+        {
+            buf.writeUtf(value, maxLength);
+            return;
+        }
+        dictionary.write(buf, value, maxLength);
+    }
+
+    /**
+     * Reads a string written with {@link #writeString(FriendlyByteBuf, String, int)}
+     *
+     * @param buf       Buffer to read from
+     * @param maxLength Longest string that can be read
+     * @return String read
+     */
+    static String readString (FriendlyByteBuf buf, int maxLength)
+    {
+        final StringDictionary dictionary = ACTIVE.get();
+        if (dictionary == null)
+        {
+            return buf.readUtf(maxLength);
+        }
+        return dictionary.read(buf, maxLength);
+    }
+
+    private void write (FriendlyByteBuf buf, String value, int maxLength)
+    {
+        final Integer id = ids.get(value);
+        if (id != null)
+        {
+            buf.writeVarInt(id + 1);
+            return;
+        }
+        buf.writeVarInt(0);
+        buf.writeUtf(value, maxLength);
+        if (value.length() <= MAX_ENTRY_LENGTH)
+        {
+            add(value);
+        }
+    }
+
+    private String read (FriendlyByteBuf buf, int maxLength)
+    {
+        final int id = buf.readVarInt();
+        if (id == 0)
+        {
+            final String value = buf.readUtf(maxLength);
+            if (value.length() <= MAX_ENTRY_LENGTH)
+            {
+                add(value);
+            }
+            return value;
+        }
+        if (id < 0 || id > CAPACITY || slots[id - 1] == null)
+        {
+            throw new MalformedPacketException("Cannot decode string #" + id + " because it is not in the dictionary of the connection");
+        }
+        return slots[id - 1];
+    }
+
+    private void add (String value)
+    {
+        final String evicted = slots[next];
+        if (ids != null)
+        {
+            if (evicted != null)
+            {
+                ids.remove(evicted);
+            }
+            ids.put(value, next);
+        }
+        slots[next] = value;
+        next = (next + 1) % CAPACITY;
+    }
+}
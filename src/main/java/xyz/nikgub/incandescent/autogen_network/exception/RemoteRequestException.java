@@ -0,0 +1,36 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.exception;
+
+import xyz.nikgub.incandescent.autogen_network.IncandescentNetworkAPI;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+/**
+ * Exception completing the response to a request, see {@link IncandescentPacket#response()},
+ * if the handler of the request failed on the other side, or the connection was closed before the response arrived
+ *
+ * @see IncandescentNetworkAPI#request(Object)
+ */
+public class RemoteRequestException extends RuntimeException
+{
+    public RemoteRequestException (String message)
+    {
+        super(message);
+    }
+}
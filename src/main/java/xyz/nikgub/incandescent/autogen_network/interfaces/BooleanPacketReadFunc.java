@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketReadFunc} for {@code boolean} values,
+ * allowing them to be read without boxing into {@link Boolean}
+ */
+@FunctionalInterface
+public interface BooleanPacketReadFunc
+{
+    /**
+     * Abstract function to read from a {@link FriendlyByteBuf}
+     *
+     * @param buf A {@link FriendlyByteBuf} to be read from
+     * @return {@code boolean} read from {@link FriendlyByteBuf}
+     */
+    boolean read (FriendlyByteBuf buf);
+}
@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketWriteFunc} for {@code boolean} values,
+ * allowing them to be written without boxing into {@link Boolean}
+ */
+@FunctionalInterface
+public interface BooleanPacketWriteFunc
+{
+    /**
+     * Abstract function to write to a {@link FriendlyByteBuf}
+     *
+     * @param buf   A {@link FriendlyByteBuf} to be written to
+     * @param value A {@code boolean} to be written into a {@code buf}
+     */
+    void write (FriendlyByteBuf buf, boolean value);
+}
@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketReadFunc} for {@code double} values,
+ * allowing them to be read without boxing into {@link Double}
+ */
+@FunctionalInterface
+public interface DoublePacketReadFunc
+{
+    /**
+     * Abstract function to read from a {@link FriendlyByteBuf}
+     *
+     * @param buf A {@link FriendlyByteBuf} to be read from
+     * @return {@code double} read from {@link FriendlyByteBuf}
+     */
+    double read (FriendlyByteBuf buf);
+}
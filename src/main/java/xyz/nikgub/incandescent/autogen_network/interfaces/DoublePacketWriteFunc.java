@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketWriteFunc} for {@code double} values,
+ * allowing them to be written without boxing into {@link Double}
+ */
+@FunctionalInterface
+public interface DoublePacketWriteFunc
+{
+    /**
+     * Abstract function to write to a {@link FriendlyByteBuf}
+     *
+     * @param buf   A {@link FriendlyByteBuf} to be written to
+     * @param value A {@code double} to be written into a {@code buf}
+     */
+    void write (FriendlyByteBuf buf, double value);
+}
@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketReadFunc} for {@code float} values,
+ * allowing them to be read without boxing into {@link Float}
+ */
+@FunctionalInterface
+public interface FloatPacketReadFunc
+{
+    /**
+     * Abstract function to read from a {@link FriendlyByteBuf}
+     *
+     * @param buf A {@link FriendlyByteBuf} to be read from
+     * @return {@code float} read from {@link FriendlyByteBuf}
+     */
+    float read (FriendlyByteBuf buf);
+}
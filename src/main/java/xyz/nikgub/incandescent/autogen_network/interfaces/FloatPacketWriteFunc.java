@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketWriteFunc} for {@code float} values,
+ * allowing them to be written without boxing into {@link Float}
+ */
+@FunctionalInterface
+public interface FloatPacketWriteFunc
+{
+    /**
+     * Abstract function to write to a {@link FriendlyByteBuf}
+     *
+     * @param buf   A {@link FriendlyByteBuf} to be written to
+     * @param value A {@code float} to be written into a {@code buf}
+     */
+    void write (FriendlyByteBuf buf, float value);
+}
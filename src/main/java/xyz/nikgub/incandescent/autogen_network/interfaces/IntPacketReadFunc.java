@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketReadFunc} for {@code int} values,
+ * allowing them to be read without boxing into {@link Integer}
+ */
+@FunctionalInterface
+public interface IntPacketReadFunc
+{
+    /**
+     * Abstract function to read from a {@link FriendlyByteBuf}
+     *
+     * @param buf A {@link FriendlyByteBuf} to be read from
+     * @return {@code int} read from {@link FriendlyByteBuf}
+     */
+    int read (FriendlyByteBuf buf);
+}
@@ -0,0 +1,19 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+/**
+ * Specialization of {@link PacketReadFunc} for {@code long} values,
+ * allowing them to be read without boxing into {@link Long}
+ */
+@FunctionalInterface
+public interface LongPacketReadFunc
+{
+    /**
+     * Abstract function to read from a {@link FriendlyByteBuf}
+     *
+     * @param buf A {@link FriendlyByteBuf} to be read from
+     * @return {@code long} read from {@link FriendlyByteBuf}
+     */
+    long read (FriendlyByteBuf buf);
+}
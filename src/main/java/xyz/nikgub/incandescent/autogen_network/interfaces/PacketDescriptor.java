@@ -0,0 +1,59 @@
+package xyz.nikgub.incandescent.autogen_network.interfaces;
+
+import net.minecraftforge.network.NetworkEvent;
+import org.jetbrains.annotations.Nullable;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Interface for packet descriptions generated ahead of time by the Incandescent annotation processor,
+ * providing everything that is otherwise gathered from the packet class using reflection
+ *
+ * @param <T> Packet type
+ */
+public interface PacketDescriptor<T>
+{
+    /**
+     * @return {@link IncandescentPacket} class
+     */
+    Class<T> packetClass ();
+
+    /**
+     * @return {@link IncandescentPacket} annotation of the class
+     */
+    IncandescentPacket annotation ();
+
+    /**
+     * @return {@link IncandescentPacket.Execution} of the handler
+     */
+    IncandescentPacket.Execution execution ();
+
+    /**
+     * @return {@link HandlerFunc} calling the {@link IncandescentPacket.Handler} method
+     */
+    HandlerFunc<T> handler ();
+
+    /**
+     * @return Pregenerated {@link EncoderFunc} of the packet, or {@code null} if it is to be generated at runtime
+     */
+    @Nullable EncoderFunc<T> encoder ();
+
+    /**
+     * @return Pregenerated {@link DecoderFunc} of the packet, or {@code null} if it is to be generated at runtime
+     */
+    @Nullable DecoderFunc<T> decoder ();
+
+    /**
+     * @return Getter of the {@link IncandescentPacket.Key} field, or {@code null} if there is no key field
+     */
+    @Nullable Function<T, ?> key ();
+
+    /**
+     * @return Function calling the {@link IncandescentPacket.Handler} method and returning the response,
+     * or {@code null} if the packet is not a request
+     */
+    @Nullable BiFunction<T, Supplier<NetworkEvent.Context>, ?> responder ();
+}
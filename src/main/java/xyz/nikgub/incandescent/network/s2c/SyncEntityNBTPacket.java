@@ -35,17 +35,21 @@ import java.util.function.Supplier;
  * Sent from {@link xyz.nikgub.incandescent.mixin.EntityMixin} if the {@code doSync}
  * value of the event was set to {@code true}.
  * Encoder and decoder are automatically generated by {@link IncandescentNetworkCore}.
+ * The NBT is written directly to the buffer, see {@link xyz.nikgub.incandescent.autogen_network.core.PacketIOMapping}.
+ * Since persistent data of an entity may grow large, the packet is compressed past 1 KiB.
+ * Packets are keyed by the entity ID, so that only the latest NBT of an entity is sent at the end of a tick.
  *
  * @see SyncEntityNBTEvent
  * @see xyz.nikgub.incandescent.mixin.EntityMixin
  * @see IncandescentNetworkCore
  */
-@IncandescentPacket(value = Incandescent.MOD_ID, direction = NetworkDirection.PLAY_TO_CLIENT)
+@IncandescentPacket(value = Incandescent.MOD_ID, direction = NetworkDirection.PLAY_TO_CLIENT, compressionThreshold = 1024)
 public class SyncEntityNBTPacket
 {
     @IncandescentPacket.Value
     private CompoundTag serverNbt;
 
+    @IncandescentPacket.Key
     @IncandescentPacket.Value
     private Integer entityId;
 
@@ -69,23 +73,28 @@ public class SyncEntityNBTPacket
     /**
      * Handler method of the packet.
      *
-     * <p>Merges the server-side NBT of the entity into its client-side counterpart.</p>
+     * <p>Merges the server-side NBT of the entity into its client-side counterpart.
+     * Runs on the client thread along with other queued packets, see {@link IncandescentPacket.Execution#TICK},
+     * so the entity may not be added yet or may already be removed, in which case the packet is ignored.</p>
      *
-     * @param contextSupplier {@link Supplier} providing client-side context for which to schedule work.
+     * @param contextSupplier {@link Supplier} providing client-side context of the packet.
      * @return {@code true}, since the handler cannot fail.
      */
-    @IncandescentPacket.Handler
+    @IncandescentPacket.Handler(IncandescentPacket.Execution.TICK)
     public boolean handler (Supplier<NetworkEvent.Context> contextSupplier)
     {
-        NetworkEvent.Context context = contextSupplier.get();
-        context.enqueueWork(() ->
+        final Minecraft instance = Minecraft.getInstance();
+        if (instance.level == null)
         {
-            final Minecraft instance = Minecraft.getInstance();
-            assert instance.level != null;
-            Entity entity = instance.level.getEntity(entityId);
-            assert entity != null;
-            entity.getPersistentData().merge(serverNbt);
-        });
+            return true;
+        }
+        // Keyed packets are flushed at the end of the tick, by which point the entity may already be removed
+        final Entity entity = instance.level.getEntity(entityId);
+        if (entity == null)
+        {
+            return true;
+        }
+        entity.getPersistentData().merge(serverNbt);
         return true;
     }
 }
@@ -0,0 +1,638 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor generating packet descriptors and the packet index for classes annotated with
+ * {@code @IncandescentPacket}.
+ * <p>
+ * For every packet which handler and key field are accessible from within its package, a {@code <Packet>_IncandescentDescriptor}
+ * class is generated next to it, implementing {@code PacketDescriptor} with the values of the annotation and plain calls
+ * of the handler, so that the packet is signed without reflecting over its class. Packets that cannot be described this way,
+ * e.g. because of a private key field or an illformed handler, are only indexed, and the runtime reports their errors.
+ * </p>
+ * <p>
+ * Descriptors of packets relying on autogenerated encoder and decoder also implement both {@code EncoderFunc}
+ * and {@code DecoderFunc} with plain field access. Primitive fields are written with direct calls, the rest with
+ * the functions of {@code PacketIOMapping}. Codecs of packets that cannot be expressed this way, e.g. because of
+ * private fields or fields of types without built-in codecs, are generated at runtime.
+ * </p>
+ * <p>
+ * The index is written to {@value #INDEX_PATH}, one packet per line, in the form of
+ * {@code <mod id> <packet class> [<descriptor class>]}. When it is present in a mod file,
+ * {@code IncandescentNetworkAPI.registerCores} uses it instead of the annotation scan data.
+ * </p>
+ *
+ * @author Nikolay Gubankov (aka nikgub)
+ */
+@SupportedAnnotationTypes(IncandescentPacketProcessor.PACKET)
+public class IncandescentPacketProcessor extends AbstractProcessor
+{
+    static final String PACKET = "xyz.nikgub.incandescent.autogen_network.IncandescentPacket";
+
+    static final String VALUE = PACKET + ".Value";
+
+    static final String ENCODER = PACKET + ".Encoder";
+
+    static final String HANDLER = PACKET + ".Handler";
+
+    static final String KEY = PACKET + ".Key";
+
+    static final String PACKET_DESCRIPTOR = "xyz.nikgub.incandescent.autogen_network.interfaces.PacketDescriptor";
+
+    static final String HANDLER_FUNC = "xyz.nikgub.incandescent.autogen_network.interfaces.HandlerFunc";
+
+    static final String ENCODER_FUNC = "xyz.nikgub.incandescent.autogen_network.interfaces.EncoderFunc";
+
+    static final String DECODER_FUNC = "xyz.nikgub.incandescent.autogen_network.interfaces.DecoderFunc";
+
+    static final String PACKET_IO_MAPPING = "xyz.nikgub.incandescent.autogen_network.core.PacketIOMapping";
+
+    static final String FRIENDLY_BYTE_BUF = "net.minecraft.network.FriendlyByteBuf";
+
+    static final String CONTEXT_SUPPLIER = "java.util.function.Supplier<net.minecraftforge.network.NetworkEvent.Context>";
+
+    static final String INDEX_PATH = "META-INF/incandescent/packets.index";
+
+    static final String DESCRIPTOR_SUFFIX = "_IncandescentDescriptor";
+
+    /**
+     * Elements of {@code @IncandescentPacket} that do not affect the wire format of the generated codec
+     */
+    private static final Set<String> PLAIN_PACKET_ELEMENTS = Set.of("value", "direction", "hiddenCodec", "batched", "compressionThreshold", "priority", "maxDeferral", "shareable", "streamed", "response");
+
+    /**
+     * Elements of {@code @IncandescentPacket.Value} that do not affect the wire format of the generated codec
+     */
+    private static final Set<String> PLAIN_VALUE_ELEMENTS = Set.of("value");
+
+    /**
+     * Mapping of primitive field types to the {@code FriendlyByteBuf} methods writing and reading them,
+     * which are the built-in codecs of primitives in {@code PacketIOMapping}.
+     * Fields of any other type are delegated to {@code PacketIOMapping}, so that generated codecs produce the same data.
+     */
+    private static final Map<String, String[]> PRIMITIVE_ACCESS = Map.of(
+        "boolean", new String[]{"writeBoolean", "readBoolean"},
+        "int", new String[]{"writeInt", "readInt"},
+        "double", new String[]{"writeDouble", "readDouble"},
+        "float", new String[]{"writeFloat", "readFloat"},
+        "char", new String[]{"writeChar", "readChar"},
+        "byte", new String[]{"writeByte", "readByte"},
+        "long", new String[]{"writeLong", "readLong"},
+        "short", new String[]{"writeShort", "readShort"}
+    );
+
+    /**
+     * Names of the non-primitive types covered by the built-in tables of {@code PacketIOMapping}.
+     * Codecs of other types can be registered globally or for a single mod, which is only known at runtime,
+     * so packets with fields of such types are only indexed and rely on the runtime, which applies the codecs of their mod.
+     */
+    public static final Set<String> BUILT_IN_TYPES = Set.of(
+        "java.lang.Boolean", "java.lang.Integer", "java.lang.Double", "java.lang.Float", "java.lang.Character",
+        "java.lang.Byte", "java.lang.Long", "java.lang.Short", "java.lang.String", "java.util.UUID", "java.util.BitSet",
+        "java.util.Date", "java.time.Instant", "java.security.PublicKey",
+        "net.minecraft.nbt.CompoundTag", "xyz.nikgub.incandescent.autogen_network.core.RawNbt",
+        "net.minecraft.network.chat.Component", "net.minecraft.world.item.ItemStack", "net.minecraft.world.phys.BlockHitResult",
+        "net.minecraft.core.BlockPos", "net.minecraft.core.GlobalPos", "net.minecraft.core.SectionPos",
+        "net.minecraft.resources.ResourceLocation", "net.minecraftforge.fluids.FluidStack",
+        "org.joml.Vector3f", "org.joml.Quaternionf", "it.unimi.dsi.fastutil.ints.IntList",
+        "com.mojang.authlib.GameProfile", "com.mojang.authlib.properties.PropertyMap", "com.mojang.authlib.properties.Property"
+    );
+
+    /**
+     * Index lines collected over all processing rounds
+     */
+    private final List<String> index = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion ()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process (Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        if (roundEnv.processingOver())
+        {
+            writeIndex();
+            return false;
+        }
+        final TypeElement packetAnnotation = processingEnv.getElementUtils().getTypeElement(PACKET);
+        if (packetAnnotation == null)
+        {
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(packetAnnotation)))
+        {
+            final AnnotationMirror packet = mirror(type, PACKET);
+            if (packet == null)
+            {
+                continue;
+            }
+            final String modId = String.valueOf(elementValue(packet, "value"));
+            final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            try
+            {
+                final String descriptor = writeDescriptor(type, packet);
+                index.add(descriptor == null ? modId + " " + binaryName : modId + " " + binaryName + " " + descriptor);
+            } catch (IOException e)
+            {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate descriptor: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the ordered {@code @IncandescentPacket.Value} fields of a packet, if a codec can be generated for it
+     *
+     * @param type   Packet type
+     * @param packet {@code @IncandescentPacket} mirror of the packet
+     * @return Ordered fields, or {@code null} if the packet has to rely on the runtime
+     */
+    private List<VariableElement> codecFields (TypeElement type, AnnotationMirror packet)
+    {
+        if (type.getModifiers().contains(Modifier.PRIVATE) || type.getModifiers().contains(Modifier.ABSTRACT)
+            || type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS
+            || (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+            || !hasOnlyElements(packet, PLAIN_PACKET_ELEMENTS))
+        {
+            return null;
+        }
+        boolean defaultConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+        {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))
+            {
+                defaultConstructor = true;
+            }
+            if (constructor.getParameters().size() == 1 && constructor.getParameters().get(0).asType().toString().equals(FRIENDLY_BYTE_BUF))
+            {
+                // Explicit decoder takes precedence over the autogenerated one
+                return null;
+            }
+        }
+        if (!defaultConstructor)
+        {
+            return null;
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements()))
+        {
+            if (mirror(method, ENCODER) != null)
+            {
+                // Explicit encoder takes precedence over the autogenerated one
+                return null;
+            }
+        }
+        final List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+        {
+            final AnnotationMirror value = mirror(field, VALUE);
+            if (value == null)
+            {
+                continue;
+            }
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)
+                || !hasOnlyElements(value, PLAIN_VALUE_ELEMENTS) || hasOtherPacketAnnotations(field))
+            {
+                return null;
+            }
+            if (!field.asType().getKind().isPrimitive() && !isBuiltIn(field.asType()))
+            {
+                return null;
+            }
+            fields.add(field);
+        }
+        // Stable sort, matching IncandescentNetworkAPI.getAnnotatedMethods
+        fields.sort(Comparator.comparingInt(field ->
+        {
+            Object order = elementValue(mirror(field, VALUE), "value");
+            return order instanceof Integer i ? i : Integer.MAX_VALUE;
+        }));
+        return fields;
+    }
+
+    /**
+     * Generates the descriptor source of a packet, along with its codec if one can be generated
+     *
+     * @param type   Packet type
+     * @param packet {@code @IncandescentPacket} mirror of the packet
+     * @return Binary name of the generated descriptor class, or {@code null} if the packet has to rely on the runtime
+     * @throws IOException If the source file could not be written
+     */
+    private String writeDescriptor (TypeElement type, AnnotationMirror packet) throws IOException
+    {
+        if (!isAccessible(type))
+        {
+            return null;
+        }
+        final ExecutableElement handler = handlerMethod(type, packet);
+        final String annotation = renderAnnotation(packet);
+        if (handler == null || annotation == null)
+        {
+            return null;
+        }
+        VariableElement key = null;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+        {
+            if (mirror(field, KEY) == null)
+            {
+                continue;
+            }
+            if (key != null)
+            {
+                return null;
+            }
+            key = field;
+        }
+        if (key != null && (key.getModifiers().contains(Modifier.PRIVATE) || key.getModifiers().contains(Modifier.STATIC)
+            || Boolean.TRUE.equals(valueWithDefault(packet, "delta"))))
+        {
+            return null;
+        }
+        final boolean request = !valueWithDefault(packet, "response").toString().equals("java.lang.Void");
+        final List<VariableElement> fields = codecFields(type, packet);
+
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.getQualifiedName().toString();
+        final String packetName = type.getQualifiedName().toString();
+        final String descriptorName = processingEnv.getElementUtils().getBinaryName(type).toString()
+            .substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + DESCRIPTOR_SUFFIX;
+        final String handlerCall = "packet." + handler.getSimpleName() + "(context)";
+
+        final StringBuilder body = new StringBuilder();
+        body.append("    private static final ").append(PACKET).append(" ANNOTATION = new ").append(PACKET).append("()\n    {\n")
+            .append(annotation).append("    };\n\n");
+        if (fields != null)
+        {
+            body.append(codecSource(packetName, fields));
+        }
+        body.append("    @Override\n    public Class<").append(packetName).append("> packetClass ()\n    {\n        return ")
+            .append(packetName).append(".class;\n    }\n\n");
+        body.append("    @Override\n    public ").append(PACKET).append(" annotation ()\n    {\n        return ANNOTATION;\n    }\n\n");
+        body.append("    @Override\n    public ").append(PACKET).append(".Execution execution ()\n    {\n        return ").append(PACKET)
+            .append(".Execution.").append(valueWithDefault(mirror(handler, HANDLER), "value")).append(";\n    }\n\n");
+        body.append("    @Override\n    public ").append(HANDLER_FUNC).append("<").append(packetName).append("> handler ()\n    {\n")
+            .append("        return (packet, context) -> ").append(handlerCall).append(";\n    }\n\n");
+        body.append("    @Override\n    public ").append(ENCODER_FUNC).append("<").append(packetName).append("> encoder ()\n    {\n")
+            .append("        return ").append(fields != null ? "this" : "null").append(";\n    }\n\n");
+        body.append("    @Override\n    public ").append(DECODER_FUNC).append("<").append(packetName).append("> decoder ()\n    {\n")
+            .append("        return ").append(fields != null ? "this" : "null").append(";\n    }\n\n");
+        body.append("    @Override\n    public java.util.function.Function<").append(packetName).append(", ?> key ()\n    {\n")
+            .append("        return ").append(key != null ? "packet -> packet." + key.getSimpleName() : "null").append(";\n    }\n\n");
+        body.append("    @Override\n    public java.util.function.BiFunction<").append(packetName).append(", ").append(CONTEXT_SUPPLIER)
+            .append(", ?> responder ()\n    {\n")
+            .append("        return ").append(request ? "(packet, context) -> " + handlerCall : "null").append(";\n    }\n");
+
+        final JavaFileObject file = processingEnv.getFiler().createSourceFile((packageName.isEmpty() ? "" : packageName + ".") + descriptorName, type);
+        try (Writer writer = file.openWriter())
+        {
+            if (!packageName.isEmpty())
+            {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("/**\n * Descriptor of {@link " + packetName + "} generated by Incandescent Lib\n */\n");
+            writer.write("@javax.annotation.processing.Generated(\"" + IncandescentPacketProcessor.class.getName() + "\")\n");
+            writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+            writer.write("public final class " + descriptorName + " implements " + PACKET_DESCRIPTOR + "<" + packetName + ">");
+            if (fields != null)
+            {
+                writer.write(", " + ENCODER_FUNC + "<" + packetName + ">, " + DECODER_FUNC + "<" + packetName + ">");
+            }
+            writer.write("\n{\n");
+            writer.write(body.toString());
+            writer.write("}\n");
+        }
+        return (packageName.isEmpty() ? "" : packageName + ".") + descriptorName;
+    }
+
+    /**
+     * Generates the codec members of a descriptor
+     *
+     * @param packetName Canonical name of the packet type
+     * @param fields     Ordered {@code @IncandescentPacket.Value} fields
+     * @return Source of the delegates and of the {@code encode} and {@code decode} methods
+     */
+    private String codecSource (String packetName, List<VariableElement> fields)
+    {
+        final StringBuilder encode = new StringBuilder();
+        final StringBuilder decode = new StringBuilder();
+        final StringBuilder delegates = new StringBuilder();
+        int delegate = 0;
+        for (VariableElement field : fields)
+        {
+            final String name = field.getSimpleName().toString();
+            final String fieldType = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+            final String[] direct = field.asType().getKind().isPrimitive() ? PRIMITIVE_ACCESS.get(fieldType) : null;
+            if (direct != null)
+            {
+                encode.append("        buf.").append(direct[0]).append("(packet.").append(name).append(");\n");
+                decode.append("        packet.").append(name).append(" = buf.").append(direct[1]).append("();\n");
+                continue;
+            }
+            delegates.append("    private static final ").append("xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc<").append(fieldType)
+                .append("> WRITE_").append(delegate).append(" = (xyz.nikgub.incandescent.autogen_network.interfaces.PacketWriteFunc<").append(fieldType)
+                .append(">) java.util.Objects.requireNonNull(").append(PACKET_IO_MAPPING).append(".bufWrite(").append(fieldType)
+                .append(".class), \"Cannot encode ").append(fieldType).append(" because no such writer exists\");\n");
+            delegates.append("    private static final ").append("xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc<").append(fieldType)
+                .append("> READ_").append(delegate).append(" = (xyz.nikgub.incandescent.autogen_network.interfaces.PacketReadFunc<").append(fieldType)
+                .append(">) java.util.Objects.requireNonNull(").append(PACKET_IO_MAPPING).append(".bufRead(").append(fieldType)
+                .append(".class), \"Cannot decode ").append(fieldType).append(" because no such reader exists\");\n");
+            encode.append("        WRITE_").append(delegate).append(".write(buf, packet.").append(name).append(");\n");
+            decode.append("        packet.").append(name).append(" = READ_").append(delegate).append(".read(buf);\n");
+            delegate++;
+        }
+
+        final StringBuilder source = new StringBuilder(delegates);
+        if (!delegates.isEmpty())
+        {
+            source.append("\n");
+        }
+        source.append("    @Override\n    public void encode (").append(packetName).append(" packet, ").append(FRIENDLY_BYTE_BUF).append(" buf)\n    {\n");
+        source.append(encode);
+        source.append("    }\n\n");
+        source.append("    @Override\n    public ").append(packetName).append(" decode (").append(FRIENDLY_BYTE_BUF).append(" buf)\n    {\n");
+        source.append("        final ").append(packetName).append(" packet = new ").append(packetName).append("();\n");
+        source.append(decode);
+        source.append("        return packet;\n    }\n\n");
+        return source.toString();
+    }
+
+    /**
+     * Finds the {@code @IncandescentPacket.Handler} method of a packet, if it can be called from within its package.
+     * Mirrors the checks of {@code IncandescentNetworkCore.getHandlerMethod}, which only considers public methods.
+     *
+     * @param type   Packet type
+     * @param packet {@code @IncandescentPacket} mirror of the packet
+     * @return Handler method, or {@code null} if it is missing, not unique, illformed, static or throws checked exceptions
+     */
+    private ExecutableElement handlerMethod (TypeElement type, AnnotationMirror packet)
+    {
+        final Elements elements = processingEnv.getElementUtils();
+        final Types types = processingEnv.getTypeUtils();
+        ExecutableElement handler = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type)))
+        {
+            if (mirror(method, HANDLER) == null || !method.getModifiers().contains(Modifier.PUBLIC))
+            {
+                continue;
+            }
+            if (handler != null)
+            {
+                return null;
+            }
+            handler = method;
+        }
+        if (handler == null || handler.getModifiers().contains(Modifier.STATIC) || handler.getParameters().size() != 1
+            || !handler.getParameters().get(0).asType().toString().equals(CONTEXT_SUPPLIER))
+        {
+            return null;
+        }
+        for (TypeMirror thrown : handler.getThrownTypes())
+        {
+            if (!types.isSubtype(thrown, elements.getTypeElement("java.lang.RuntimeException").asType())
+                && !types.isSubtype(thrown, elements.getTypeElement("java.lang.Error").asType()))
+            {
+                return null;
+            }
+        }
+        final TypeMirror returnType = handler.getReturnType();
+        final TypeMirror response = (TypeMirror) valueWithDefault(packet, "response");
+        if (response.toString().equals("java.lang.Void"))
+        {
+            return returnType.getKind() == TypeKind.BOOLEAN ? handler : null;
+        }
+        // Handlers of requests return the response, or a stage completing with it
+        if (returnType.getKind() != TypeKind.DECLARED && returnType.getKind() != TypeKind.ARRAY)
+        {
+            return null;
+        }
+        final TypeMirror erasure = types.erasure(returnType);
+        return types.isSubtype(erasure, types.erasure(response))
+            || types.isSubtype(erasure, types.erasure(elements.getTypeElement("java.util.concurrent.CompletionStage").asType())) ? handler : null;
+    }
+
+    /**
+     * Renders the members of an {@code @IncandescentPacket} implementation returning the values of the annotation
+     *
+     * @param packet {@code @IncandescentPacket} mirror of the packet
+     * @return Source of the members, or {@code null} if any of the values cannot be rendered
+     */
+    private String renderAnnotation (AnnotationMirror packet)
+    {
+        final StringBuilder members = new StringBuilder();
+        members.append("        @Override\n        public Class<? extends java.lang.annotation.Annotation> annotationType ()\n        {\n")
+            .append("            return ").append(PACKET).append(".class;\n        }\n");
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(packet).entrySet())
+        {
+            final TypeMirror type = entry.getKey().getReturnType();
+            final String value = renderValue(entry.getValue(), type);
+            if (value == null)
+            {
+                return null;
+            }
+            members.append("\n        @Override\n        public ").append(type).append(" ").append(entry.getKey().getSimpleName())
+                .append(" ()\n        {\n            return ").append(value).append(";\n        }\n");
+        }
+        return members.toString();
+    }
+
+    /**
+     * Renders an annotation value as a Java expression
+     *
+     * @param value Annotation value
+     * @param type  Type of the annotation element
+     * @return Expression of the value, or {@code null} if it is a nested annotation, which is not supported
+     */
+    private String renderValue (AnnotationValue value, TypeMirror type)
+    {
+        final Types types = processingEnv.getTypeUtils();
+        final Object object = value.getValue();
+        if (object instanceof VariableElement constant)
+        {
+            return types.erasure(constant.asType()) + "." + constant.getSimpleName();
+        }
+        if (object instanceof TypeMirror mirror)
+        {
+            return types.erasure(mirror) + ".class";
+        }
+        if (object instanceof List<?> list)
+        {
+            final TypeMirror component = ((ArrayType) type).getComponentType();
+            final StringJoiner values = new StringJoiner(", ", "new " + types.erasure(component) + "[]{", "}");
+            for (Object element : list)
+            {
+                final String rendered = renderValue((AnnotationValue) element, component);
+                if (rendered == null)
+                {
+                    return null;
+                }
+                values.add(rendered);
+            }
+            return values.toString();
+        }
+        if (object instanceof AnnotationMirror)
+        {
+            return null;
+        }
+        return processingEnv.getElementUtils().getConstantExpression(object);
+    }
+
+    /**
+     * Writes the collected index lines into {@value #INDEX_PATH}
+     */
+    private void writeIndex ()
+    {
+        if (index.isEmpty())
+        {
+            return;
+        }
+        try
+        {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+            try (Writer writer = file.openWriter())
+            {
+                for (String line : index)
+                {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write packet index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the field carries annotations of {@code @IncandescentPacket} other than {@code Value},
+     * since those alter the wire format in ways the generated codec does not reproduce
+     */
+    private static boolean hasOtherPacketAnnotations (Element element)
+    {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors())
+        {
+            final String name = annotation.getAnnotationType().toString();
+            if (name.startsWith(PACKET + ".") && !name.equals(VALUE))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the type and the types enclosing it can be referred to from within its package
+     */
+    private static boolean isAccessible (TypeElement type)
+    {
+        for (Element element = type; element instanceof TypeElement enclosing; element = element.getEnclosingElement())
+        {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)
+                || enclosing.getNestingKind() == NestingKind.LOCAL || enclosing.getNestingKind() == NestingKind.ANONYMOUS)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the type has a built-in codec, see {@link #BUILT_IN_TYPES}.
+     * Parameterized types, enums, records and value types are composite ones, resolved at runtime from the generic signature.
+     */
+    private static boolean isBuiltIn (TypeMirror type)
+    {
+        return type instanceof DeclaredType declared && declared.getTypeArguments().isEmpty()
+            && BUILT_IN_TYPES.contains(((TypeElement) declared.asElement()).getQualifiedName().toString());
+    }
+
+    /**
+     * Checks whether an annotation explicitly sets only the allowed elements
+     */
+    private static boolean hasOnlyElements (AnnotationMirror annotation, Set<String> allowed)
+    {
+        for (ExecutableElement element : annotation.getElementValues().keySet())
+        {
+            if (!allowed.contains(element.getSimpleName().toString()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AnnotationMirror mirror (Element element, String annotation)
+    {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+        {
+            if (mirror.getAnnotationType().toString().equals(annotation))
+            {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private Object valueWithDefault (AnnotationMirror annotation, String name)
+    {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet())
+        {
+            if (entry.getKey().getSimpleName().contentEquals(name))
+            {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Object elementValue (AnnotationMirror annotation, String name)
+    {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet())
+        {
+            if (entry.getKey().getSimpleName().contentEquals(name))
+            {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+}
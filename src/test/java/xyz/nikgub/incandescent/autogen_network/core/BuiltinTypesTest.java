@@ -0,0 +1,43 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.processor.IncandescentPacketProcessor;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Consistency of the built-in types known to the annotation processor with the tables of {@link PacketIOMapping}
+ */
+class BuiltinTypesTest
+{
+    @Test
+    void processorKnowsExactlyTheBuiltinTypes ()
+    {
+        final Set<String> builtin = PacketIOMapping.builtinTypes().stream()
+            .filter(clazz -> !clazz.isPrimitive())
+            .map(Class::getName)
+            .collect(Collectors.toSet());
+        assertEquals(builtin, IncandescentPacketProcessor.BUILT_IN_TYPES);
+    }
+}
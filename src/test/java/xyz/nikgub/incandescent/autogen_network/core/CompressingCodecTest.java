@@ -0,0 +1,108 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of {@link CompressingCodec}, and rejection of compressed payloads that do not match their declared sizes
+ */
+class CompressingCodecTest
+{
+    private static CompressingCodec<String> codec ()
+    {
+        return new CompressingCodec<>(String.class, (value, buf) -> buf.writeUtf(value), buf -> buf.readUtf(), 64);
+    }
+
+    private static FriendlyByteBuf deflated (int rawSize, byte[] raw)
+    {
+        final Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        final byte[] out = new byte[raw.length + 64];
+        final int length = deflater.deflate(out);
+        deflater.end();
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeByte(1);
+        buf.writeVarInt(rawSize);
+        buf.writeVarInt(length);
+        buf.writeBytes(out, 0, length);
+        return buf;
+    }
+
+    private static byte[] encodedString (String value)
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeUtf(value);
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void plainAndDeflatedRoundTrip ()
+    {
+        final CompressingCodec<String> codec = codec();
+        for (String value : new String[]{"short", "a".repeat(10000)})
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            codec.encode(value, buf);
+            assertEquals(value, codec.decode(buf));
+            assertEquals(0, buf.readableBytes());
+        }
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        codec.encode("a".repeat(10000), buf);
+        assertEquals(1, buf.getByte(0));
+    }
+
+    @Test
+    void impossibleRatioIsRejected ()
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeByte(1);
+        buf.writeVarInt(CompressingCodec.MAX_INFLATED_SIZE);
+        buf.writeVarInt(0);
+        assertThrows(MalformedPacketException.class, () -> codec().decode(buf));
+    }
+
+    @Test
+    void sizeMismatchIsRejected ()
+    {
+        final byte[] raw = encodedString("b".repeat(1000));
+        assertEquals("b".repeat(1000), codec().decode(deflated(raw.length, raw)));
+        assertThrows(MalformedPacketException.class, () -> codec().decode(deflated(raw.length - 1, raw)));
+        assertThrows(MalformedPacketException.class, () -> codec().decode(deflated(raw.length + 1, raw)));
+    }
+
+    @Test
+    void unreadPayloadIsRejected ()
+    {
+        final byte[] raw = encodedString("c".repeat(1000));
+        final byte[] padded = new byte[raw.length + 1];
+        System.arraycopy(raw, 0, padded, 0, raw.length);
+        assertThrows(MalformedPacketException.class, () -> codec().decode(deflated(padded.length, padded)));
+    }
+}
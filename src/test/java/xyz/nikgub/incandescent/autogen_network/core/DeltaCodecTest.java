@@ -0,0 +1,117 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deltas of packets encoded by {@link DeltaCodec} against the baselines of their recipients
+ */
+class DeltaCodecTest
+{
+    private static final UUID RECIPIENT = UUID.randomUUID();
+
+    private final DeltaCodec<DeltaPacket> codec = new NetworkFunctionGenerator().generateDeltaCodec(DeltaPacket.class);
+
+    @AfterEach
+    void clearRecipient ()
+    {
+        DeltaCodec.encodingFor(null);
+    }
+
+    /**
+     * Encodes {@code packet} for the recipient currently set, and decodes it on the receiving side of the same codec
+     *
+     * @return Amount of bytes the packet was encoded into
+     */
+    private int send (DeltaPacket packet, DeltaPacket expected)
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        codec.encode(packet, buf);
+        final int size = buf.readableBytes();
+        final DeltaPacket decoded = codec.decode(buf);
+        assertEquals(0, buf.readableBytes());
+        assertEquals(expected.toString(), decoded.toString());
+        return size;
+    }
+
+    @Test
+    void onlyChangedSegmentsAreSent ()
+    {
+        DeltaCodec.encodingFor(RECIPIENT);
+        final DeltaPacket packet = new DeltaPacket();
+        packet.a = 1;
+        packet.b = 2L;
+        packet.name = "first";
+        // Mask, int, long, length-prefixed string
+        assertEquals(1 + 4 + 8 + 6, send(packet, packet));
+        assertEquals(1, send(packet, packet));
+
+        packet.b = 3L;
+        assertEquals(1 + 8, send(packet, packet));
+        packet.name = "second";
+        packet.a = 4;
+        assertEquals(1 + 4 + 7, send(packet, packet));
+    }
+
+    @Test
+    void unknownRecipientInvalidatesBaselines ()
+    {
+        final DeltaPacket packet = new DeltaPacket();
+        packet.name = "name";
+        DeltaCodec.encodingFor(RECIPIENT);
+        send(packet, packet);
+        assertEquals(1, send(packet, packet));
+
+        DeltaCodec.encodingFor(null);
+        assertEquals(1 + 4 + 8 + 5, send(packet, packet));
+        DeltaCodec.encodingFor(RECIPIENT);
+        assertEquals(1 + 4 + 8 + 5, send(packet, packet));
+        assertEquals(1, send(packet, packet));
+    }
+
+    public static class DeltaPacket
+    {
+        @IncandescentPacket.Value(0)
+        int a;
+        @IncandescentPacket.Value(1)
+        long b;
+        @IncandescentPacket.Value(2)
+        String name = "";
+
+        public DeltaPacket ()
+        {
+        }
+
+        @Override
+        public String toString ()
+        {
+            return a + " " + b + " " + name;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.autogen_network.IncandescentPacket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Round trips of packets compiled into {@link FieldCodec}s by {@link NetworkFunctionGenerator}
+ */
+class FieldCodecTest
+{
+    /**
+     * Encodes {@code packet} with its compiled fields and decodes it into {@code target}
+     *
+     * @return Amount of bytes the packet was encoded into
+     */
+    static int roundTrip (FieldCodec[] codecs, Object packet, Object target)
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        for (FieldCodec codec : codecs)
+        {
+            codec.encode(packet, buf);
+        }
+        final int size = buf.readableBytes();
+        for (FieldCodec codec : codecs)
+        {
+            codec.decode(target, buf);
+        }
+        assertEquals(0, buf.readableBytes());
+        return size;
+    }
+
+    @Test
+    void packedRunsShareBytes ()
+    {
+        final FieldCodec[] codecs = new NetworkFunctionGenerator().compileFields(PackedPacket.class);
+        // 9 packed, zigzag int, 3 packed
+        assertEquals(3, codecs.length);
+
+        final PackedPacket packet = new PackedPacket();
+        packet.b0 = true;
+        packet.b3 = true;
+        packet.b7 = Boolean.TRUE;
+        packet.b8 = true;
+        packet.value = Integer.MIN_VALUE;
+        packet.c2 = true;
+        final PackedPacket decoded = new PackedPacket();
+        decoded.b1 = true;
+        decoded.c0 = true;
+
+        assertEquals(2 + 5 + 1, roundTrip(codecs, packet, decoded));
+        assertEquals(packet.toString(), decoded.toString());
+    }
+
+    @Test
+    void primitiveFieldsRoundTrip ()
+    {
+        final FieldCodec[] codecs = new NetworkFunctionGenerator().compileFields(PrimitivePacket.class);
+        final PrimitivePacket packet = new PrimitivePacket();
+        packet.i = Integer.MIN_VALUE;
+        packet.l = Long.MIN_VALUE;
+        packet.vi = -1;
+        packet.f = Float.NaN;
+        packet.d = -0.0;
+        packet.z = true;
+        final PrimitivePacket decoded = new PrimitivePacket();
+
+        assertEquals(4 + 8 + 5 + 4 + 8 + 1, roundTrip(codecs, packet, decoded));
+        assertEquals(packet.toString(), decoded.toString());
+    }
+
+    @Test
+    void quantizedFieldsRoundTrip ()
+    {
+        final FieldCodec[] codecs = new NetworkFunctionGenerator().compileFields(QuantizedPacket.class);
+        final QuantizedPacket packet = new QuantizedPacket();
+        packet.full = -12345.678f;
+        packet.angle = Double.valueOf(Math.PI / 3);
+        packet.clamped = 7;
+        packet.position = new Vector3f(-1, 0.25f, 1);
+        packet.rotation = new Quaternionf(-1, -0.5f, 0.5f, 1);
+        final QuantizedPacket decoded = new QuantizedPacket();
+
+        // 32 bits, 12 bits, 1 bit, 3 * 10 bits, 4 * 32 bits
+        assertEquals(4 + 2 + 1 + 4 + 16, roundTrip(codecs, packet, decoded));
+        // The quantization step is far below the precision of a float of such magnitude
+        assertEquals(packet.full, decoded.full, Math.ulp(packet.full));
+        assertEquals(packet.angle, decoded.angle, 2 * Math.PI / 0xFFF);
+        assertEquals(1, decoded.clamped);
+        assertEquals(packet.position.x(), decoded.position.x(), 0);
+        assertEquals(packet.position.y(), decoded.position.y(), 2.0 / 0x3FF);
+        assertEquals(packet.position.z(), decoded.position.z(), 0);
+        assertEquals(packet.rotation.x(), decoded.rotation.x(), 0);
+        assertEquals(packet.rotation.y(), decoded.rotation.y(), 1e-6);
+        assertEquals(packet.rotation.z(), decoded.rotation.z(), 1e-6);
+        assertEquals(packet.rotation.w(), decoded.rotation.w(), 0);
+    }
+
+    public static class PackedPacket
+    {
+        @IncandescentPacket.Value(value = 0, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b0;
+        @IncandescentPacket.Value(value = 1, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b1;
+        @IncandescentPacket.Value(value = 2, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b2;
+        @IncandescentPacket.Value(value = 3, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b3;
+        @IncandescentPacket.Value(value = 4, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b4;
+        @IncandescentPacket.Value(value = 5, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b5;
+        @IncandescentPacket.Value(value = 6, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b6;
+        @IncandescentPacket.Value(value = 7, encoding = IncandescentPacket.Encoding.PACKED)
+        Boolean b7 = Boolean.FALSE;
+        @IncandescentPacket.Value(value = 8, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean b8;
+        @IncandescentPacket.Value(value = 9, encoding = IncandescentPacket.Encoding.ZIGZAG)
+        int value;
+        @IncandescentPacket.Value(value = 10, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean c0;
+        @IncandescentPacket.Value(value = 11, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean c1;
+        @IncandescentPacket.Value(value = 12, encoding = IncandescentPacket.Encoding.PACKED)
+        boolean c2;
+
+        public PackedPacket ()
+        {
+        }
+
+        @Override
+        public String toString ()
+        {
+            return "" + b0 + b1 + b2 + b3 + b4 + b5 + b6 + b7 + b8 + value + c0 + c1 + c2;
+        }
+    }
+
+    public static class PrimitivePacket
+    {
+        @IncandescentPacket.Value(0)
+        int i;
+        @IncandescentPacket.Value(1)
+        long l;
+        @IncandescentPacket.Value(value = 2, encoding = IncandescentPacket.Encoding.VARINT)
+        int vi;
+        @IncandescentPacket.Value(3)
+        float f;
+        @IncandescentPacket.Value(4)
+        double d;
+        @IncandescentPacket.Value(5)
+        boolean z;
+
+        public PrimitivePacket ()
+        {
+        }
+
+        @Override
+        public String toString ()
+        {
+            return i + " " + l + " " + vi + " " + f + " " + d + " " + z;
+        }
+    }
+
+    public static class QuantizedPacket
+    {
+        @IncandescentPacket.Value(0)
+        @IncandescentPacket.Quantized(bits = 32, min = -50000, max = 50000)
+        float full;
+        @IncandescentPacket.Value(1)
+        @IncandescentPacket.Quantized(bits = 12, min = 0, max = 2 * Math.PI)
+        Double angle = 0.0;
+        @IncandescentPacket.Value(2)
+        @IncandescentPacket.Quantized(bits = 1, min = 0, max = 1)
+        double clamped;
+        @IncandescentPacket.Value(3)
+        @IncandescentPacket.Quantized(bits = 10, min = -1, max = 1)
+        Vector3f position;
+        @IncandescentPacket.Value(4)
+        @IncandescentPacket.Quantized(bits = 32, min = -1, max = 1)
+        Quaternionf rotation;
+
+        public QuantizedPacket ()
+        {
+        }
+    }
+}
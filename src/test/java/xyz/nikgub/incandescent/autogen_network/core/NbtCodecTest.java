@@ -0,0 +1,134 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.*;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of the NBT format of {@link NbtCodec} and {@link RawNbt}
+ */
+class NbtCodecTest
+{
+    private static CompoundTag sample ()
+    {
+        final CompoundTag nested = new CompoundTag();
+        nested.putString("name", "incandescent é中");
+        nested.putIntArray("ints", new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE});
+        nested.putLongArray("longs", new long[]{Long.MIN_VALUE, -1L});
+        nested.put("empty", new CompoundTag());
+
+        final ListTag list = new ListTag();
+        list.add(DoubleTag.valueOf(-0.5));
+        list.add(DoubleTag.valueOf(Double.MAX_VALUE));
+
+        final CompoundTag tag = new CompoundTag();
+        tag.putByte("byte", Byte.MIN_VALUE);
+        tag.putShort("short", Short.MAX_VALUE);
+        tag.putInt("int", Integer.MIN_VALUE);
+        tag.putLong("long", Long.MIN_VALUE);
+        tag.putFloat("float", -Float.MAX_VALUE);
+        tag.putByteArray("bytes", new byte[]{1, 2, 3});
+        tag.put("list", list);
+        tag.put("emptyList", new ListTag());
+        tag.put("nested", nested);
+        return tag;
+    }
+
+    @Test
+    void compoundRoundTrip ()
+    {
+        final CompoundTag tag = sample();
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        NbtCodec.write(buf, tag, null);
+        NbtCodec.write(buf, null, null);
+        NbtCodec.write(buf, new CompoundTag(), null);
+
+        assertEquals(tag, NbtCodec.read(buf, null));
+        assertNull(NbtCodec.read(buf, null));
+        assertEquals(new CompoundTag(), NbtCodec.read(buf, null));
+        assertEquals(0, buf.readableBytes());
+    }
+
+    @Test
+    void skipConsumesWrittenCompound ()
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        NbtCodec.write(buf, sample(), null);
+        NbtCodec.write(buf, null, null);
+        buf.writeByte(42);
+
+        NbtCodec.skip(buf);
+        NbtCodec.skip(buf);
+        assertEquals(1, buf.readableBytes());
+        assertEquals(42, buf.readByte());
+    }
+
+    @Test
+    void rawNbtRoundTrip ()
+    {
+        final CompoundTag tag = sample();
+        final RawNbt raw = RawNbt.of(tag);
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        RawNbt.WRITE.write(buf, raw);
+        assertEquals(raw.size(), buf.readableBytes());
+
+        // Raw NBT is interchangeable with compound fields
+        final FriendlyByteBuf copy = new FriendlyByteBuf(buf.copy());
+        final RawNbt read = RawNbt.READ.read(buf);
+        assertEquals(raw, read);
+        assertEquals(tag, read.parse());
+        assertEquals(tag, NbtCodec.read(copy, null));
+        assertNull(RawNbt.of(null).parse());
+    }
+
+    @Test
+    void quotaRejectsAmplifyingPayloads ()
+    {
+        // A list of empty compounds takes a single byte per element, but a whole compound once read
+        final ListTag list = new ListTag();
+        for (int i = 0; i < 100_000; i++)
+        {
+            list.add(new CompoundTag());
+        }
+        final CompoundTag tag = new CompoundTag();
+        tag.put("list", list);
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        NbtCodec.write(buf, tag, null);
+        assertTrue(buf.readableBytes() < 200_000);
+
+        assertThrows(MalformedPacketException.class, () -> NbtCodec.read(new FriendlyByteBuf(buf.duplicate()), null));
+        assertThrows(MalformedPacketException.class, () -> NbtCodec.skip(new FriendlyByteBuf(buf.duplicate())));
+    }
+
+    @Test
+    void truncatedPayloadIsRejected ()
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        NbtCodec.write(buf, sample(), null);
+        final FriendlyByteBuf truncated = new FriendlyByteBuf(buf.slice(0, buf.readableBytes() - 4));
+        assertThrows(RuntimeException.class, () -> NbtCodec.read(new FriendlyByteBuf(truncated.duplicate()), null));
+        assertThrows(RuntimeException.class, () -> NbtCodec.skip(new FriendlyByteBuf(truncated.duplicate())));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Round trips of the compact integer encodings of {@link PacketIOMapping}
+ */
+class PacketIOMappingTest
+{
+    private static final int[] INTS = {0, 1, -1, 63, -64, 64, -65, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+    private static final long[] LONGS = {0L, 1L, -1L, 1L << 40, -(1L << 40), Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+
+    @Test
+    void varIntRoundTrip ()
+    {
+        for (int value : INTS)
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            PacketIOMapping.VAR_INT_WRITE.write(buf, value);
+            assertEquals(value, PacketIOMapping.VAR_INT_READ.read(buf));
+            assertEquals(0, buf.readableBytes());
+        }
+    }
+
+    @Test
+    void varLongRoundTrip ()
+    {
+        for (long value : LONGS)
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            PacketIOMapping.VAR_LONG_WRITE.write(buf, value);
+            assertEquals(value, PacketIOMapping.VAR_LONG_READ.read(buf));
+            assertEquals(0, buf.readableBytes());
+        }
+    }
+
+    @Test
+    void zigzagIntRoundTrip ()
+    {
+        for (int value : INTS)
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            PacketIOMapping.ZIGZAG_INT_WRITE.write(buf, value);
+            assertEquals(value, PacketIOMapping.ZIGZAG_INT_READ.read(buf));
+            assertEquals(0, buf.readableBytes());
+        }
+    }
+
+    @Test
+    void zigzagLongRoundTrip ()
+    {
+        for (long value : LONGS)
+        {
+            final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            PacketIOMapping.ZIGZAG_LONG_WRITE.write(buf, value);
+            assertEquals(value, PacketIOMapping.ZIGZAG_LONG_READ.read(buf));
+            assertEquals(0, buf.readableBytes());
+        }
+    }
+
+    @Test
+    void zigzagKeepsSmallNegativesShort ()
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        PacketIOMapping.ZIGZAG_INT_WRITE.write(buf, -64);
+        assertEquals(1, buf.readableBytes());
+        buf.clear();
+        PacketIOMapping.ZIGZAG_INT_WRITE.write(buf, Integer.MIN_VALUE);
+        assertEquals(5, buf.readableBytes());
+        buf.clear();
+        PacketIOMapping.ZIGZAG_LONG_WRITE.write(buf, -1L);
+        assertEquals(1, buf.readableBytes());
+    }
+}
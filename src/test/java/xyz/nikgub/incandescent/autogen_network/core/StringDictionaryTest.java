@@ -0,0 +1,138 @@
+/*
+    Incandescent Lib, Minecraft Forge light-weight library
+    Copyright (C) 2025, nikgub_
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.nikgub.incandescent.autogen_network.core;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+import xyz.nikgub.incandescent.autogen_network.exception.MalformedPacketException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of strings written with a {@link StringDictionary}, across evictions of its ring
+ */
+class StringDictionaryTest
+{
+    private static final int MAX_LENGTH = 32767;
+
+    /**
+     * Writes strings with a sending dictionary and reads them back with a receiving one
+     *
+     * @return Bytes written
+     */
+    private static int roundTrip (StringDictionary sent, StringDictionary received, List<String> values)
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        final StringDictionary previous = StringDictionary.activate(sent);
+        try
+        {
+            for (String value : values)
+            {
+                StringDictionary.writeString(buf, value, MAX_LENGTH);
+            }
+            final int size = buf.readableBytes();
+            StringDictionary.activate(received);
+            for (String value : values)
+            {
+                assertEquals(value, StringDictionary.readString(buf, MAX_LENGTH));
+            }
+            assertEquals(0, buf.readableBytes());
+            return size;
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+
+    @Test
+    void repeatedStringsAreWrittenAsSlots ()
+    {
+        final StringDictionary sent = new StringDictionary(true);
+        final StringDictionary received = new StringDictionary(false);
+        final int full = roundTrip(sent, received, List.of("minecraft:stone"));
+        assertEquals(1 + 1 + "minecraft:stone".length(), full);
+        assertEquals(1, roundTrip(sent, received, List.of("minecraft:stone")));
+    }
+
+    @Test
+    void dictionariesStaySyncedAcrossEvictions ()
+    {
+        final StringDictionary sent = new StringDictionary(true);
+        final StringDictionary received = new StringDictionary(false);
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < StringDictionary.CAPACITY * 3 + 7; i++)
+        {
+            values.add("key" + i);
+            // Refer back to strings both still in the ring and long evicted from it
+            values.add("key" + (i / 2));
+            values.add("key" + Math.max(0, i - StringDictionary.CAPACITY + 1));
+        }
+        roundTrip(sent, received, values);
+
+        // Split across packets, as the dictionaries of a connection outlive a single buffer
+        for (int from = 0; from < values.size(); from += 500)
+        {
+            roundTrip(sent, received, values.subList(from, Math.min(values.size(), from + 500)));
+        }
+    }
+
+    @Test
+    void evictedStringIsWrittenInFull ()
+    {
+        final StringDictionary sent = new StringDictionary(true);
+        final StringDictionary received = new StringDictionary(false);
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i <= StringDictionary.CAPACITY; i++)
+        {
+            values.add("key" + i);
+        }
+        roundTrip(sent, received, values);
+        assertEquals(1 + 1 + "key0".length(), roundTrip(sent, received, List.of("key0")));
+        assertEquals(1, roundTrip(sent, received, List.of("key" + StringDictionary.CAPACITY)));
+    }
+
+    @Test
+    void longStringsAreNotAdded ()
+    {
+        final StringDictionary sent = new StringDictionary(true);
+        final StringDictionary received = new StringDictionary(false);
+        final String value = "x".repeat(StringDictionary.MAX_ENTRY_LENGTH + 1);
+        final int full = roundTrip(sent, received, List.of(value));
+        assertEquals(full, roundTrip(sent, received, List.of(value)));
+    }
+
+    @Test
+    void unknownSlotIsRejected ()
+    {
+        final FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeVarInt(1);
+        final StringDictionary previous = StringDictionary.activate(new StringDictionary(false));
+        try
+        {
+            assertThrows(MalformedPacketException.class, () -> StringDictionary.readString(buf, MAX_LENGTH));
+        } finally
+        {
+            StringDictionary.activate(previous);
+        }
+    }
+}